@@ -1,7 +1,8 @@
 from fastapi import FastAPI, File, UploadFile, HTTPException, Form
 from fastapi.middleware.cors import CORSMiddleware
 from pydantic import BaseModel, HttpUrl
-from typing import Optional, Dict, Any, Union
+from typing import Optional, Dict, Any, Union, List
+import asyncio
 import uvicorn
 import os
 from dotenv import load_dotenv
@@ -35,6 +36,9 @@ class ModerationRequest(BaseModel):
     content: str
     content_type: str = "text"  # text, question, answer, comment
 
+class TextBatchModerationRequest(BaseModel):
+    items: List[ModerationRequest]
+
 class ImageModerationRequest(BaseModel):
     image_url: Optional[HttpUrl] = None
     image_file: Optional[UploadFile] = None
@@ -62,6 +66,7 @@ async def root():
         ],
         "endpoints": {
             "moderate_text": "/moderate/text",
+            "moderate_text_batch": "/moderate/text/batch",
             "moderate_image": "/moderate/image",
             "health": "/health"
         }
@@ -90,6 +95,20 @@ async def moderate_text(request: ModerationRequest):
     except Exception as e:
         raise HTTPException(status_code=500, detail=f"Text moderation failed: {str(e)}")
 
+@app.post("/moderate/text/batch")
+async def moderate_text_batch(request: TextBatchModerationRequest):
+    """
+    Moderate a list of independent texts in one request
+    Results are returned in the same order as the submitted items
+    """
+    try:
+        results = await asyncio.gather(
+            *(text_moderator.moderate(item.content, item.content_type) for item in request.items)
+        )
+        return {"results": [ModerationResponse(**result) for result in results]}
+    except Exception as e:
+        raise HTTPException(status_code=500, detail=f"Text batch moderation failed: {str(e)}")
+
 @app.post("/moderate/image")
 async def moderate_image(
     file: Optional[UploadFile] = File(None),
@@ -0,0 +1,60 @@
+package com.stackit.backend.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * HTTP transport for the content moderation sidecar.
+ * Connections are pooled and kept alive between calls, and every request is
+ * bounded by the configured connect and read timeouts.
+ */
+@Configuration
+public class ModerationClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient moderationHttpClient(
+            @Value("${moderation.api.connect-timeout:2000}") long connectTimeoutMs,
+            @Value("${moderation.api.timeout:30000}") long readTimeoutMs,
+            @Value("${moderation.api.pool.max-connections:50}") int maxConnections,
+            @Value("${moderation.api.pool.acquire-timeout:1000}") long acquireTimeoutMs,
+            @Value("${moderation.api.pool.idle-seconds:30}") long idleSeconds) {
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .build();
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleSeconds))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate moderationRestTemplate(@Qualifier("moderationHttpClient") CloseableHttpClient httpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+}
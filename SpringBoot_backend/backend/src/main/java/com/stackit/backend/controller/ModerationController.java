@@ -2,6 +2,10 @@ package com.stackit.backend.controller;
 
 import com.stackit.backend.dto.ModerationDto;
 import com.stackit.backend.service.ContentModerationService;
+import com.stackit.backend.service.ModerationEndpoints;
+import com.stackit.backend.service.ModerationPreFilter;
+import com.stackit.backend.service.ModerationVerdictCache;
+import com.stackit.backend.service.RemoderationQueue;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +20,18 @@ public class ModerationController {
         @Autowired
         private ContentModerationService contentModerationService;
 
+        @Autowired
+        private ModerationVerdictCache verdictCache;
+
+        @Autowired
+        private ModerationPreFilter moderationPreFilter;
+
+        @Autowired
+        private RemoderationQueue remoderationQueue;
+
+        @Autowired
+        private ModerationEndpoints moderationEndpoints;
+
         /**
          * Health check for moderation service
          */
@@ -25,7 +41,8 @@ public class ModerationController {
                 Map<String, Object> response = Map.of(
                                 "status", isHealthy ? "healthy" : "unhealthy",
                                 "service", "content_moderation",
-                                "backend_connected", isHealthy);
+                                "backend_connected", isHealthy,
+                                "circuit_state", contentModerationService.getCircuitState().name());
 
                 return ResponseEntity.ok(response);
         }
@@ -70,4 +87,53 @@ public class ModerationController {
 
                 return ResponseEntity.ok(response);
         }
-}
\ No newline at end of file
+
+        /**
+         * Verdict cache statistics
+         */
+        @GetMapping("/cache")
+        public ResponseEntity<Map<String, Object>> getCacheStats() {
+                return ResponseEntity.ok(verdictCache.getStats());
+        }
+
+        /**
+         * Drop all cached verdicts, e.g. after the moderation models are updated
+         */
+        @DeleteMapping("/cache")
+        public ResponseEntity<Map<String, Object>> clearCache() {
+                verdictCache.clear();
+                return ResponseEntity.ok(verdictCache.getStats());
+        }
+
+        /**
+         * Local pre-filter statistics
+         */
+        @GetMapping("/prefilter")
+        public ResponseEntity<Map<String, Object>> getPreFilterStats() {
+                return ResponseEntity.ok(moderationPreFilter.getStats());
+        }
+
+        /**
+         * Reload the pre-filter lexicon without restarting
+         */
+        @PostMapping("/prefilter/reload")
+        public ResponseEntity<Map<String, Object>> reloadPreFilter() {
+                return ResponseEntity.ok(moderationPreFilter.reload());
+        }
+
+        /**
+         * Re-moderation queue statistics
+         */
+        @GetMapping("/remoderation")
+        public ResponseEntity<Map<String, Object>> getRemoderationStats() {
+                return ResponseEntity.ok(remoderationQueue.getStats());
+        }
+
+        /**
+         * Per-sidecar load, ejection and hedging statistics
+         */
+        @GetMapping("/endpoints")
+        public ResponseEntity<Map<String, Object>> getEndpointStats() {
+                return ResponseEntity.ok(moderationEndpoints.getStats());
+        }
+}
@@ -1,15 +1,23 @@
 package com.stackit.backend.controller;
 
+import com.stackit.backend.dto.CursorPage;
 import com.stackit.backend.dto.QuestionDto;
+import com.stackit.backend.dto.QuestionSuggestionDto;
+import com.stackit.backend.dto.QuestionSummaryDto;
+import com.stackit.backend.dto.QuestionThreadDto;
 import com.stackit.backend.dto.request.CreateQuestionRequest;
 import com.stackit.backend.service.QuestionService;
+import com.stackit.backend.service.SearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,16 +26,41 @@ import java.util.Map;
 @RequestMapping("/api/questions")
 public class QuestionController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     @Autowired
     private QuestionService questionService;
 
+    @Autowired
+    private SearchIndex searchIndex;
+
+    /**
+     * Offset pages by default; passing cursor (empty for the first page)
+     * switches to keyset pagination, see {@link CursorPage}. tags (comma
+     * separated) filters by several tags at once, with mode all, any or none.
+     */
     @GetMapping
     public ResponseEntity<?> getAllQuestions(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) String tags,
+            @RequestParam(defaultValue = "all") String mode) {
         try {
+            List<String> tagNames = tags == null ? List.of() : Arrays.stream(tags.split(","))
+                    .map(String::trim)
+                    .filter(name -> !name.isEmpty())
+                    .toList();
+            if (!tagNames.isEmpty()) {
+                return ResponseEntity.ok(questionService.getQuestionsByTags(tagNames, mode,
+                        PageRequest.of(page, size)));
+            }
+            if (cursor != null) {
+                return ResponseEntity.ok(questionService.getQuestionsAfter(cursor, size, includeTotal));
+            }
             Pageable pageable = PageRequest.of(page, size);
-            Page<QuestionDto> questions = questionService.getAllQuestions(pageable);
+            Page<QuestionSummaryDto> questions = questionService.getAllQuestions(pageable);
             return ResponseEntity.ok(questions);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -48,6 +81,19 @@ public class QuestionController {
         }
     }
 
+    @GetMapping("/{id}/thread")
+    public ResponseEntity<?> getQuestionThread(@PathVariable Long id,
+            @RequestParam(required = false) Long userId) {
+        try {
+            QuestionThreadDto thread = questionService.getQuestionThread(id, userId);
+            return ResponseEntity.ok(thread);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     @PostMapping
     public ResponseEntity<?> createQuestion(
             @RequestBody CreateQuestionRequest request,
@@ -91,9 +137,15 @@ public class QuestionController {
     }
 
     @GetMapping("/tag/{tagName}")
-    public ResponseEntity<?> getQuestionsByTag(@PathVariable String tagName) {
+    public ResponseEntity<?> getQuestionsByTag(@PathVariable String tagName,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         try {
-            List<QuestionDto> questions = questionService.getQuestionsByTag(tagName);
+            if (cursor != null) {
+                return ResponseEntity.ok(questionService.getQuestionsByTagAfter(tagName, cursor, size, includeTotal));
+            }
+            List<QuestionSummaryDto> questions = questionService.getQuestionsByTag(tagName, size);
             return ResponseEntity.ok(questions);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -106,10 +158,15 @@ public class QuestionController {
     public ResponseEntity<?> searchQuestions(
             @RequestParam String q,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         try {
+            if (cursor != null) {
+                return ResponseEntity.ok(questionService.searchQuestionsAfter(q, cursor, size, includeTotal));
+            }
             Pageable pageable = PageRequest.of(page, size);
-            Page<QuestionDto> questions = questionService.searchQuestions(q, pageable);
+            Page<QuestionSummaryDto> questions = questionService.searchQuestions(q, pageable);
             return ResponseEntity.ok(questions);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -118,10 +175,48 @@ public class QuestionController {
         }
     }
 
+    /**
+     * Similar question titles for the ask box, meant to be called per keystroke
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<QuestionSuggestionDto>> suggestQuestions(@RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(questionService.suggestQuestions(q, limit));
+    }
+
+    /**
+     * Rebuild the search index from the database
+     */
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<?> rebuildSearchIndex() {
+        try {
+            int indexed = searchIndex.rebuild();
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Search index rebuilt");
+            response.put("indexedQuestions", indexed);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @GetMapping("/search/stats")
+    public ResponseEntity<Map<String, Object>> getSearchIndexStats() {
+        return ResponseEntity.ok(searchIndex.getStats());
+    }
+
     @GetMapping("/user/{userId}")
-    public ResponseEntity<?> getQuestionsByUser(@PathVariable Long userId) {
+    public ResponseEntity<?> getQuestionsByUser(@PathVariable Long userId,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         try {
-            List<QuestionDto> questions = questionService.getQuestionsByUser(userId);
+            if (cursor != null) {
+                return ResponseEntity.ok(questionService.getQuestionsByUserAfter(userId, cursor, size, includeTotal));
+            }
+            List<QuestionSummaryDto> questions = questionService.getQuestionsByUser(userId, size);
             return ResponseEntity.ok(questions);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -129,4 +224,24 @@ public class QuestionController {
             return ResponseEntity.badRequest().body(error);
         }
     }
+
+    /**
+     * Every question with a tag as newline-delimited JSON, for bulk consumers
+     */
+    @GetMapping(value = "/tag/{tagName}/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamQuestionsByTag(@PathVariable String tagName) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(out -> questionService.streamQuestionsByTag(tagName, out));
+    }
+
+    /**
+     * Every question of a user as newline-delimited JSON, for bulk consumers
+     */
+    @GetMapping(value = "/user/{userId}/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamQuestionsByUser(@PathVariable Long userId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(out -> questionService.streamQuestionsByUser(userId, out));
+    }
 }
\ No newline at end of file
@@ -2,10 +2,13 @@ package com.stackit.backend.controller;
 
 import com.stackit.backend.entity.Tag;
 import com.stackit.backend.repository.TagRepository;
+import com.stackit.backend.service.TagCooccurrence;
+import com.stackit.backend.service.TagLeaderboard;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,6 +20,12 @@ public class TagController {
     @Autowired
     private TagRepository tagRepository;
 
+    @Autowired
+    private TagLeaderboard tagLeaderboard;
+
+    @Autowired
+    private TagCooccurrence tagCooccurrence;
+
     @GetMapping
     public ResponseEntity<?> getAllTags() {
         try {
@@ -30,10 +39,10 @@ public class TagController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<?> searchTags(@RequestParam String q) {
+    public ResponseEntity<?> searchTags(@RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
         try {
-            List<Tag> tags = tagRepository.findByNameContaining(q);
-            return ResponseEntity.ok(tags);
+            return ResponseEntity.ok(tagLeaderboard.search(q, limit));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -42,14 +51,71 @@ public class TagController {
     }
 
     @GetMapping("/popular")
-    public ResponseEntity<?> getPopularTags() {
+    public ResponseEntity<?> getPopularTags(
+            @RequestParam(defaultValue = "all") String window,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         try {
-            List<Tag> tags = tagRepository.findMostPopularTags();
-            return ResponseEntity.ok(tags);
+            return ResponseEntity.ok(tagLeaderboard.popular(TagLeaderboard.Window.parse(window), page, size));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @GetMapping("/popular/stats")
+    public ResponseEntity<?> getPopularTagStats() {
+        return ResponseEntity.ok(tagLeaderboard.getStats());
+    }
+
+    @GetMapping("/related")
+    public ResponseEntity<?> getRelatedTags(@RequestParam String tag,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(tagCooccurrence.related(tag, limit));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * Tags to offer in the ask form, given the comma separated tags chosen so far
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggestTags(@RequestParam String tags,
+            @RequestParam(defaultValue = "5") int limit) {
+        try {
+            return ResponseEntity.ok(tagCooccurrence.suggest(Arrays.asList(tags.split(",")), limit));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
             return ResponseEntity.badRequest().body(error);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Recount tag co-occurrence from the database
+     */
+    @PostMapping("/cooccurrence/rebuild")
+    public ResponseEntity<?> rebuildCooccurrence() {
+        try {
+            int counted = tagCooccurrence.rebuild();
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Tag co-occurrence rebuilt");
+            response.put("taggedQuestions", counted);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @GetMapping("/cooccurrence/stats")
+    public ResponseEntity<?> getCooccurrenceStats() {
+        return ResponseEntity.ok(tagCooccurrence.getStats());
+    }
+}
@@ -1,6 +1,7 @@
 package com.stackit.backend.dto;
 
 import com.stackit.backend.entity.Answer;
+import com.stackit.backend.entity.ModerationStatus;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -20,6 +21,7 @@ public class AnswerDto {
     private Boolean isAccepted;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private ModerationStatus moderationStatus;
     private Integer voteCount;
     private Integer commentCount;
     private Integer userVote; // 1, -1, or 0 for no vote
@@ -36,17 +38,20 @@ public class AnswerDto {
         dto.setIsAccepted(answer.getIsAccepted());
         dto.setCreatedAt(answer.getCreatedAt());
         dto.setUpdatedAt(answer.getUpdatedAt());
+        dto.setModerationStatus(answer.getModerationStatus());
 
-        if (answer.getVotes() != null) {
-            dto.setVoteCount(answer.getVotes().stream()
-                    .mapToInt(vote -> vote.getVoteType())
-                    .sum());
-        }
-
-        if (answer.getComments() != null) {
-            dto.setCommentCount(answer.getComments().size());
-        }
+        // Maintained counters, so votes and comments are never loaded
+        dto.setVoteCount(answer.getVoteScore() != null ? answer.getVoteScore() : 0);
+        dto.setCommentCount(answer.getCommentCount() != null ? answer.getCommentCount() : 0);
 
         return dto;
     }
+
+    /**
+     * Shallow copy, for callers that adjust a shared (cached) DTO
+     */
+    public AnswerDto copy() {
+        return new AnswerDto(id, user, description, imageUrls, isAccepted, createdAt, updatedAt, moderationStatus,
+                voteCount, commentCount, userVote);
+    }
 }
\ No newline at end of file
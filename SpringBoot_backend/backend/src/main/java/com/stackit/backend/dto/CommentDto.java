@@ -1,6 +1,7 @@
 package com.stackit.backend.dto;
 
 import com.stackit.backend.entity.Comment;
+import com.stackit.backend.entity.ModerationStatus;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -19,6 +20,7 @@ public class CommentDto {
     private List<String> imageUrls; // List of full image URLs
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private ModerationStatus moderationStatus;
 
     public static CommentDto fromEntity(Comment comment) {
         CommentDto dto = new CommentDto();
@@ -31,6 +33,7 @@ public class CommentDto {
 
         dto.setCreatedAt(comment.getCreatedAt());
         dto.setUpdatedAt(comment.getUpdatedAt());
+        dto.setModerationStatus(comment.getModerationStatus());
         return dto;
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.stackit.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +46,9 @@ public class ModerationDto {
         private List<String> flaggedReasons;
         @JsonProperty("moderation_action")
         private String moderationAction;
+        // Set on the allow fallback used when the moderation service could not be reached
+        @JsonIgnore
+        private boolean failOpen;
 
         public ModerationResponse() {
         }
@@ -88,6 +92,48 @@ public class ModerationDto {
         public void setModerationAction(String moderationAction) {
             this.moderationAction = moderationAction;
         }
+
+        public boolean isFailOpen() {
+            return failOpen;
+        }
+
+        public void setFailOpen(boolean failOpen) {
+            this.failOpen = failOpen;
+        }
+    }
+
+    public static class TextBatchModerationRequest {
+        private List<ModerationRequest> items;
+
+        public TextBatchModerationRequest() {
+        }
+
+        public TextBatchModerationRequest(List<ModerationRequest> items) {
+            this.items = items;
+        }
+
+        public List<ModerationRequest> getItems() {
+            return items;
+        }
+
+        public void setItems(List<ModerationRequest> items) {
+            this.items = items;
+        }
+    }
+
+    public static class TextBatchModerationResponse {
+        private List<ModerationResponse> results;
+
+        public TextBatchModerationResponse() {
+        }
+
+        public List<ModerationResponse> getResults() {
+            return results;
+        }
+
+        public void setResults(List<ModerationResponse> results) {
+            this.results = results;
+        }
     }
 
     public static class ImageModerationRequest {
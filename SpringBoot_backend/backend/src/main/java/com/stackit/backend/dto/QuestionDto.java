@@ -1,6 +1,7 @@
 package com.stackit.backend.dto;
 
 import com.stackit.backend.entity.Question;
+import com.stackit.backend.entity.ModerationStatus;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -23,9 +24,11 @@ public class QuestionDto {
     private Boolean isClosed;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private ModerationStatus moderationStatus;
     private Set<String> tags;
     private Integer answerCount;
     private Boolean hasAcceptedAnswer;
+    private Integer voteScore;
 
     public static QuestionDto fromEntity(Question question) {
         QuestionDto dto = new QuestionDto();
@@ -41,6 +44,7 @@ public class QuestionDto {
         dto.setIsClosed(question.getIsClosed());
         dto.setCreatedAt(question.getCreatedAt());
         dto.setUpdatedAt(question.getUpdatedAt());
+        dto.setModerationStatus(question.getModerationStatus());
 
         if (question.getTags() != null) {
             dto.setTags(question.getTags().stream()
@@ -48,12 +52,19 @@ public class QuestionDto {
                     .collect(Collectors.toSet()));
         }
 
-        if (question.getAnswers() != null) {
-            dto.setAnswerCount(question.getAnswers().size());
-            dto.setHasAcceptedAnswer(question.getAnswers().stream()
-                    .anyMatch(answer -> answer.getIsAccepted()));
-        }
+        // Maintained counters, so the answers collection is never loaded
+        dto.setAnswerCount(question.getAnswerCount() != null ? question.getAnswerCount() : 0);
+        dto.setHasAcceptedAnswer(Boolean.TRUE.equals(question.getHasAcceptedAnswer()));
+        dto.setVoteScore(question.getVoteScore() != null ? question.getVoteScore() : 0);
 
         return dto;
     }
+
+    /**
+     * Shallow copy, for callers that adjust a shared (cached) DTO
+     */
+    public QuestionDto copy() {
+        return new QuestionDto(id, user, title, description, imageUrls, viewCount, isClosed, createdAt, updatedAt,
+                moderationStatus, tags, answerCount, hasAcceptedAnswer, voteScore);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.stackit.backend.dto;
+
+import com.stackit.backend.entity.User;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the question feed, selected with a JPQL constructor expression
+ * so the author and counters come back with the question itself.
+ */
+@Getter
+public class QuestionFeedRow {
+    private final Long id;
+    private final String title;
+    private final String excerpt;
+    private final Integer viewCount;
+    private final Boolean isClosed;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final UserDto user;
+    private final Integer answerCount;
+    private final Boolean hasAcceptedAnswer;
+    private final Integer voteScore;
+
+    public QuestionFeedRow(Long id, String title, String excerpt, Integer viewCount, Boolean isClosed,
+            LocalDateTime createdAt, LocalDateTime updatedAt, Long userId, String username, String email, User.UserRole role, String avatarUrl, String bio,
+            Integer reputation, LocalDateTime userCreatedAt, Integer answerCount, Boolean hasAcceptedAnswer,
+            Integer voteScore) {
+        this.id = id;
+        this.title = title;
+        this.excerpt = excerpt;
+        this.viewCount = viewCount;
+        this.isClosed = isClosed;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.user = new UserDto(userId, username, email, role, avatarUrl, bio, reputation, userCreatedAt);
+        this.answerCount = answerCount != null ? answerCount : 0;
+        this.hasAcceptedAnswer = Boolean.TRUE.equals(hasAcceptedAnswer);
+        this.voteScore = voteScore != null ? voteScore : 0;
+    }
+
+    /**
+     * Listing DTO without tags, which the service fills in
+     */
+    public QuestionSummaryDto toSummary() {
+        QuestionSummaryDto dto = new QuestionSummaryDto();
+        dto.setId(id);
+        dto.setUser(user);
+        dto.setTitle(title);
+        dto.setExcerpt(excerpt);
+        dto.setViewCount(viewCount);
+        dto.setIsClosed(isClosed);
+        dto.setCreatedAt(createdAt);
+        dto.setUpdatedAt(updatedAt);
+        dto.setAnswerCount(answerCount);
+        dto.setHasAcceptedAnswer(hasAcceptedAnswer);
+        dto.setVoteScore(voteScore);
+        return dto;
+    }
+}
@@ -0,0 +1,18 @@
+package com.stackit.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Question title offered while a user types in the ask box
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionSuggestionDto {
+    private Long id;
+    private String title;
+    private Integer voteScore;
+    private Integer viewCount;
+}
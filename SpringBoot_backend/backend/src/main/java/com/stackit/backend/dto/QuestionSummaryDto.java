@@ -0,0 +1,54 @@
+package com.stackit.backend.dto;
+
+import com.stackit.backend.entity.Question;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Question as shown in feed, search and tag listings: a plain-text excerpt
+ * instead of the full body, and no image URLs. The full question comes from
+ * /api/questions/{id}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionSummaryDto {
+    private Long id;
+    private UserDto user;
+    private String title;
+    private String excerpt;
+    private Integer viewCount;
+    private Boolean isClosed;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Set<String> tags;
+    private Integer answerCount;
+    private Boolean hasAcceptedAnswer;
+    private Integer voteScore;
+
+    public static QuestionSummaryDto fromEntity(Question question) {
+        QuestionSummaryDto dto = new QuestionSummaryDto();
+        dto.setId(question.getId());
+        dto.setUser(UserDto.fromEntity(question.getUser()));
+        dto.setTitle(question.getTitle());
+        dto.setExcerpt(question.getExcerpt());
+        dto.setViewCount(question.getViewCount());
+        dto.setIsClosed(question.getIsClosed());
+        dto.setCreatedAt(question.getCreatedAt());
+        dto.setUpdatedAt(question.getUpdatedAt());
+        if (question.getTags() != null) {
+            dto.setTags(question.getTags().stream()
+                    .map(tag -> tag.getName())
+                    .collect(Collectors.toSet()));
+        }
+        dto.setAnswerCount(question.getAnswerCount() != null ? question.getAnswerCount() : 0);
+        dto.setHasAcceptedAnswer(Boolean.TRUE.equals(question.getHasAcceptedAnswer()));
+        dto.setVoteScore(question.getVoteScore() != null ? question.getVoteScore() : 0);
+        return dto;
+    }
+}
@@ -0,0 +1,21 @@
+package com.stackit.backend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything a question page shows: the question, its visible answers and
+ * each answer's visible comments.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionThreadDto {
+    private QuestionDto question;
+    private List<AnswerDto> answers; // Accepted first, then oldest first
+    private Map<Long, List<CommentDto>> comments; // Keyed by answer id
+}
@@ -0,0 +1,20 @@
+package com.stackit.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tag that appears on the same questions as another tag. score is the cosine
+ * of the two tags' question sets (summed over the given tags for suggestions);
+ * sharedQuestions counts questions carrying both (or any given tag and this one).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatedTagDto {
+    private Long id;
+    private String name;
+    private Integer sharedQuestions;
+    private Double score;
+}
@@ -0,0 +1,32 @@
+package com.stackit.backend.dto;
+
+import com.stackit.backend.entity.Tag;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tag with its question count. recentQuestionCount is the count within the
+ * requested popularity window, and null for the all-time listing.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagDto {
+    private Long id;
+    private String name;
+    private String description;
+    private String color;
+    private Integer questionCount;
+    private Integer recentQuestionCount;
+
+    public static TagDto fromEntity(Tag tag) {
+        TagDto dto = new TagDto();
+        dto.setId(tag.getId());
+        dto.setName(tag.getName());
+        dto.setDescription(tag.getDescription());
+        dto.setColor(tag.getColor());
+        dto.setQuestionCount(tag.getQuestionCount() != null ? tag.getQuestionCount() : 0);
+        return dto;
+    }
+}
@@ -0,0 +1,18 @@
+package com.stackit.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tag offered while a user types in the tag picker
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagSuggestionDto {
+    private Long id;
+    private String name;
+    private String color;
+    private Integer questionCount;
+}
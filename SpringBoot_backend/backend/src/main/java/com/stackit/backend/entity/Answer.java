@@ -38,6 +38,17 @@ public class Answer {
     @Column(name = "is_accepted", columnDefinition = "BOOLEAN DEFAULT FALSE")
     private Boolean isAccepted = false;
 
+    // Counters are only changed with SQL increments, never by saving the entity
+    @Column(name = "vote_score", columnDefinition = "INTEGER DEFAULT 0", updatable = false)
+    private Integer voteScore = 0;
+
+    @Column(name = "comment_count", columnDefinition = "INTEGER DEFAULT 0", updatable = false)
+    private Integer commentCount = 0;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "moderation_status", columnDefinition = "VARCHAR(20) DEFAULT 'VISIBLE'")
+    private ModerationStatus moderationStatus = ModerationStatus.VISIBLE;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -34,6 +34,10 @@ public class Comment {
     @Column(name = "image_urls", columnDefinition = "TEXT")
     private String imageUrls; // Comma-separated list of image URLs
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "moderation_status", columnDefinition = "VARCHAR(20) DEFAULT 'VISIBLE'")
+    private ModerationStatus moderationStatus = ModerationStatus.VISIBLE;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
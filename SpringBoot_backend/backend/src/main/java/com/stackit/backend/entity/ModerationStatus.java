@@ -0,0 +1,17 @@
+package com.stackit.backend.entity;
+
+/**
+ * Visibility of user-submitted content with respect to moderation.
+ * PENDING content has been saved but is hidden from readers until the
+ * background moderation verdict arrives.
+ */
+public enum ModerationStatus {
+    VISIBLE, PENDING, BLOCKED;
+
+    /**
+     * Rows written before moderation status existed have no status and are visible
+     */
+    public static boolean isVisible(ModerationStatus status) {
+        return status == null || status == VISIBLE;
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,7 +13,10 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "questions")
+@Table(name = "questions", indexes = {
+        @Index(name = "idx_questions_status_created", columnList = "moderation_status, created_at, id"),
+        @Index(name = "idx_questions_user_created", columnList = "user_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,15 +36,33 @@ public class Question {
     @Column(columnDefinition = "TEXT", nullable = false)
     private String description;
 
+    // Plain-text start of the description for list views, derived at write time
+    @Column(name = "excerpt", length = 255)
+    private String excerpt;
+
     @Column(name = "image_urls", columnDefinition = "TEXT")
     private String imageUrls; // Comma-separated list of image URLs
 
-    @Column(name = "view_count", columnDefinition = "INTEGER DEFAULT 0")
+    // Counters below are only changed with SQL increments, never by saving the entity
+    @Column(name = "view_count", columnDefinition = "INTEGER DEFAULT 0", updatable = false)
     private Integer viewCount = 0;
 
+    @Column(name = "answer_count", columnDefinition = "INTEGER DEFAULT 0", updatable = false)
+    private Integer answerCount = 0;
+
+    @Column(name = "has_accepted_answer", columnDefinition = "BOOLEAN DEFAULT FALSE", updatable = false)
+    private Boolean hasAcceptedAnswer = false;
+
+    @Column(name = "vote_score", columnDefinition = "INTEGER DEFAULT 0", updatable = false)
+    private Integer voteScore = 0;
+
     @Column(name = "is_closed", columnDefinition = "BOOLEAN DEFAULT FALSE")
     private Boolean isClosed = false;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "moderation_status", columnDefinition = "VARCHAR(20) DEFAULT 'VISIBLE'")
+    private ModerationStatus moderationStatus = ModerationStatus.VISIBLE;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -53,7 +75,9 @@ public class Question {
     @OneToMany(mappedBy = "question", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Answer> answers;
 
+    // Lazy loads of tags are batched across the questions in the persistence context
     @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @JoinTable(name = "question_tags", joinColumns = @JoinColumn(name = "question_id"), inverseJoinColumns = @JoinColumn(name = "tag_id"))
     private Set<Tag> tags;
 
@@ -0,0 +1,43 @@
+package com.stackit.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Content that was published without a moderation verdict because the
+ * moderation service was unavailable, waiting to be checked again.
+ */
+@Entity
+@Table(name = "remoderation_queue", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "content_type", "content_id" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RemoderationTask {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "content_type", nullable = false, length = 20)
+    private String contentType; // question, answer or comment
+
+    @Column(name = "content_id", nullable = false)
+    private Long contentId;
+
+    @Column(columnDefinition = "INTEGER DEFAULT 0")
+    private Integer attempts = 0;
+
+    @Column(name = "last_attempt_at")
+    private LocalDateTime lastAttemptAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -29,6 +29,10 @@ public class Tag {
     @Column(length = 7)
     private String color = "#007bff";
 
+    // Questions carrying this tag; only changed with SQL increments, never by saving the entity
+    @Column(name = "question_count", columnDefinition = "INTEGER DEFAULT 0", updatable = false)
+    private Integer questionCount = 0;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
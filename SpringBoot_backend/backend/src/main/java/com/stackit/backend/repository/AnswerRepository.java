@@ -1,10 +1,13 @@
 package com.stackit.backend.repository;
 
 import com.stackit.backend.entity.Answer;
+import com.stackit.backend.entity.ModerationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -13,11 +16,45 @@ public interface AnswerRepository extends JpaRepository<Answer, Long> {
 
     List<Answer> findByQuestionIdOrderByIsAcceptedDescCreatedAtAsc(Long questionId);
 
+    List<Answer> findByQuestionIdAndModerationStatusOrderByIsAcceptedDescCreatedAtAsc(Long questionId,
+            ModerationStatus moderationStatus);
+
     List<Answer> findByUserIdOrderByCreatedAtDesc(Long userId);
 
+    /**
+     * Answers of a question with their authors, accepted first then oldest first
+     */
+    @Query("SELECT a FROM Answer a JOIN FETCH a.user WHERE a.question.id = :questionId "
+            + "AND a.moderationStatus = :status ORDER BY a.isAccepted DESC, a.createdAt ASC, a.id ASC")
+    List<Answer> findThreadAnswers(@Param("questionId") Long questionId, @Param("status") ModerationStatus status);
+
     @Query("SELECT a FROM Answer a WHERE a.question.id = :questionId AND a.isAccepted = true")
     Answer findAcceptedAnswerByQuestionId(@Param("questionId") Long questionId);
 
     @Query("SELECT COUNT(a) FROM Answer a WHERE a.user.id = :userId AND a.isAccepted = true")
     Long countAcceptedAnswersByUserId(@Param("userId") Long userId);
+
+    // Counter updates are native SQL increments so concurrent writes never lose a change
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE answers SET vote_score = COALESCE(vote_score, 0) + :delta WHERE id = :id",
+            nativeQuery = true)
+    int adjustVoteScore(@Param("id") Long id, @Param("delta") int delta);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE answers SET comment_count = COALESCE(comment_count, 0) + :delta WHERE id = :id",
+            nativeQuery = true)
+    int adjustCommentCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Query("SELECT a.question.id FROM Answer a WHERE a.id = :id")
+    Long findQuestionIdById(@Param("id") Long id);
+
+    @Query("SELECT a.voteScore FROM Answer a WHERE a.id = :id")
+    Integer findVoteScoreById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Answer a SET a.moderationStatus = :status WHERE a.id = :id")
+    int updateModerationStatus(@Param("id") Long id, @Param("status") ModerationStatus status);
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package com.stackit.backend.repository;
 
 import com.stackit.backend.entity.Comment;
+import com.stackit.backend.entity.ModerationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,7 +17,26 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<Comment> findByAnswerIdOrderByCreatedAtAsc(Long answerId);
 
+    List<Comment> findByAnswerIdAndModerationStatusOrderByCreatedAtAsc(Long answerId,
+            ModerationStatus moderationStatus);
+
     List<Comment> findByUserIdOrderByCreatedAtDesc(Long userId);
 
     void deleteByAnswerId(Long answerId);
+
+    /**
+     * Comments of several answers with their authors in one statement, oldest first
+     */
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.answer.id IN :answerIds "
+            + "AND c.moderationStatus = :status ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findThreadComments(@Param("answerIds") Collection<Long> answerIds,
+            @Param("status") ModerationStatus status);
+
+    @Query("SELECT c.answer.question.id FROM Comment c WHERE c.id = :id")
+    Long findQuestionIdById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Comment c SET c.moderationStatus = :status WHERE c.id = :id")
+    int updateModerationStatus(@Param("id") Long id, @Param("status") ModerationStatus status);
 }
\ No newline at end of file
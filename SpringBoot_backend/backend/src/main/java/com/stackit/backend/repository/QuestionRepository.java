@@ -1,27 +1,151 @@
 package com.stackit.backend.repository;
 
+import com.stackit.backend.dto.QuestionFeedRow;
+import com.stackit.backend.entity.ModerationStatus;
 import com.stackit.backend.entity.Question;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface QuestionRepository extends JpaRepository<Question, Long> {
 
-    Page<Question> findAllByOrderByCreatedAtDesc(Pageable pageable);
+    // Feed row with author and maintained counters, selected from "Question q JOIN q.user u"
+    String FEED_ROW = "SELECT new com.stackit.backend.dto.QuestionFeedRow("
+            + "q.id, q.title, q.excerpt, q.viewCount, q.isClosed, q.createdAt, q.updatedAt, u.id, u.username, u.email, u.role, u.avatarUrl, u.bio, u.reputation, u.createdAt, "
+            + "q.answerCount, q.hasAcceptedAnswer, q.voteScore) ";
 
-    Page<Question> findByTagsNameInOrderByCreatedAtDesc(List<String> tagNames, Pageable pageable);
+    // Keyset condition: strictly after the cursor in (createdAt DESC, id DESC) order
+    String AFTER_CURSOR = "AND (q.createdAt < :createdAt OR (q.createdAt = :createdAt AND q.id < :id)) "
+            + "ORDER BY q.createdAt DESC, q.id DESC";
 
-    @Query("SELECT q FROM Question q WHERE q.title LIKE %:searchTerm% OR q.description LIKE %:searchTerm%")
+    /**
+     * Feed page with author and counters in a single statement
+     */
+    @Query(value = FEED_ROW + "FROM Question q JOIN q.user u WHERE q.moderationStatus = :status "
+            + "ORDER BY q.createdAt DESC, q.id DESC",
+            countQuery = "SELECT COUNT(q) FROM Question q WHERE q.moderationStatus = :status")
+    Page<QuestionFeedRow> findFeedByModerationStatus(@Param("status") ModerationStatus status, Pageable pageable);
+
+    @Query(FEED_ROW + "FROM Question q JOIN q.user u WHERE q.id IN :ids AND q.moderationStatus = :status")
+    List<QuestionFeedRow> findFeedByIds(@Param("ids") Collection<Long> ids, @Param("status") ModerationStatus status);
+
+    @Query(FEED_ROW + "FROM Question q JOIN q.user u WHERE q.moderationStatus = :status " + AFTER_CURSOR)
+    List<QuestionFeedRow> findFeedAfter(@Param("status") ModerationStatus status,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
+    @Query(FEED_ROW + "FROM Question q JOIN q.user u "
+            + "WHERE q.moderationStatus = com.stackit.backend.entity.ModerationStatus.VISIBLE "
+            + "AND (q.title LIKE %:searchTerm% OR q.description LIKE %:searchTerm%) " + AFTER_CURSOR)
+    List<QuestionFeedRow> findBySearchTermAfter(@Param("searchTerm") String searchTerm,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
+    @Query(FEED_ROW + "FROM Question q JOIN q.user u JOIN q.tags t WHERE t.name = :tagName "
+            + "AND q.moderationStatus = com.stackit.backend.entity.ModerationStatus.VISIBLE " + AFTER_CURSOR)
+    List<QuestionFeedRow> findByTagNameAfter(@Param("tagName") String tagName,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
+    @Query(FEED_ROW + "FROM Question q JOIN q.user u WHERE u.id = :userId "
+            + "AND q.moderationStatus = com.stackit.backend.entity.ModerationStatus.VISIBLE " + AFTER_CURSOR)
+    List<QuestionFeedRow> findByUserIdAfter(@Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
+    long countByModerationStatus(ModerationStatus moderationStatus);
+
+    long countByUserIdAndModerationStatus(Long userId, ModerationStatus moderationStatus);
+
+    @Query("SELECT COUNT(q) FROM Question q WHERE q.moderationStatus = com.stackit.backend.entity.ModerationStatus.VISIBLE "
+            + "AND (q.title LIKE %:searchTerm% OR q.description LIKE %:searchTerm%)")
+    long countBySearchTerm(@Param("searchTerm") String searchTerm);
+
+    @Query("SELECT COUNT(q) FROM Question q JOIN q.tags t WHERE t.name = :tagName "
+            + "AND q.moderationStatus = com.stackit.backend.entity.ModerationStatus.VISIBLE")
+    long countByTagName(@Param("tagName") String tagName);
+
+    /**
+     * (question id, tag name) pairs for a batch of questions
+     */
+    @Query("SELECT q.id, t.name FROM Question q JOIN q.tags t WHERE q.id IN :questionIds")
+    List<Object[]> findTagNamesByQuestionIds(@Param("questionIds") Collection<Long> questionIds);
+
+    @Query("SELECT t.id FROM Question q JOIN q.tags t WHERE q.id = :id")
+    List<Long> findTagIdsById(@Param("id") Long id);
+
+    @Query("SELECT q FROM Question q WHERE q.moderationStatus = com.stackit.backend.entity.ModerationStatus.VISIBLE "
+            + "AND (q.title LIKE %:searchTerm% OR q.description LIKE %:searchTerm%)")
     Page<Question> findBySearchTerm(@Param("searchTerm") String searchTerm, Pageable pageable);
 
-    List<Question> findByUserIdOrderByCreatedAtDesc(Long userId);
+    // Rows fetched per round-trip when streaming; MySQL needs useCursorFetch=true to honour it
+    String STREAM_FETCH_SIZE = "500";
+
+    /**
+     * All visible questions with a tag, newest first, read row by row.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT q FROM Question q JOIN FETCH q.user JOIN q.tags t WHERE t.name = :tagName "
+            + "AND q.moderationStatus = com.stackit.backend.entity.ModerationStatus.VISIBLE "
+            + "ORDER BY q.createdAt DESC, q.id DESC")
+    Stream<Question> streamByTagName(@Param("tagName") String tagName);
+
+    /**
+     * All visible questions of a user, newest first, read row by row.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT q FROM Question q JOIN FETCH q.user WHERE q.user.id = :userId "
+            + "AND q.moderationStatus = com.stackit.backend.entity.ModerationStatus.VISIBLE "
+            + "ORDER BY q.createdAt DESC, q.id DESC")
+    Stream<Question> streamByUserId(@Param("userId") Long userId);
+
+    // Counter updates are native SQL increments so concurrent writes never lose a change
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE questions SET answer_count = COALESCE(answer_count, 0) + :delta WHERE id = :id",
+            nativeQuery = true)
+    int adjustAnswerCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE questions SET has_accepted_answer = :accepted WHERE id = :id",
+            nativeQuery = true)
+    int updateHasAcceptedAnswer(@Param("id") Long id, @Param("accepted") boolean accepted);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE questions SET vote_score = COALESCE(vote_score, 0) + :delta WHERE id = :id",
+            nativeQuery = true)
+    int adjustVoteScore(@Param("id") Long id, @Param("delta") int delta);
+
+    /**
+     * Question with its author and tags, for assembling a thread
+     */
+    @Query("SELECT DISTINCT q FROM Question q JOIN FETCH q.user LEFT JOIN FETCH q.tags WHERE q.id = :id")
+    Optional<Question> findThreadQuestion(@Param("id") Long id);
+
+    @Query("SELECT q.voteScore FROM Question q WHERE q.id = :id")
+    Integer findVoteScoreById(@Param("id") Long id);
 
-    @Query("SELECT q FROM Question q JOIN q.tags t WHERE t.name = :tagName ORDER BY q.createdAt DESC")
-    List<Question> findByTagName(@Param("tagName") String tagName);
+    @Transactional
+    @Modifying
+    @Query("UPDATE Question q SET q.moderationStatus = :status WHERE q.id = :id")
+    int updateModerationStatus(@Param("id") Long id, @Param("status") ModerationStatus status);
 }
\ No newline at end of file
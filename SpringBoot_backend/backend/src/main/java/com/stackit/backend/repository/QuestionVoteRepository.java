@@ -0,0 +1,22 @@
+package com.stackit.backend.repository;
+
+import com.stackit.backend.entity.QuestionVote;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface QuestionVoteRepository extends JpaRepository<QuestionVote, Long> {
+
+    Optional<QuestionVote> findByUserIdAndQuestionId(Long userId, Long questionId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM QuestionVote v WHERE v.question.id = :questionId")
+    int deleteByQuestionId(@Param("questionId") Long questionId);
+}
@@ -0,0 +1,25 @@
+package com.stackit.backend.repository;
+
+import com.stackit.backend.entity.RemoderationTask;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RemoderationTaskRepository extends JpaRepository<RemoderationTask, Long> {
+
+    /**
+     * Tasks still under the attempt cap, never-tried first, then least recently tried
+     */
+    @Query("SELECT t FROM RemoderationTask t WHERE t.attempts < :maxAttempts "
+            + "ORDER BY t.lastAttemptAt ASC NULLS FIRST, t.id ASC")
+    List<RemoderationTask> findDue(@Param("maxAttempts") int maxAttempts, Pageable pageable);
+
+    long countByAttemptsGreaterThanEqual(int attempts);
+
+    boolean existsByContentTypeAndContentId(String contentType, Long contentId);
+}
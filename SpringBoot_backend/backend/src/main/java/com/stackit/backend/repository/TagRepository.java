@@ -2,10 +2,12 @@ package com.stackit.backend.repository;
 
 import com.stackit.backend.entity.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,9 +18,10 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
 
     boolean existsByName(String name);
 
-    @Query("SELECT t FROM Tag t WHERE t.name LIKE %:searchTerm%")
-    List<Tag> findByNameContaining(@Param("searchTerm") String searchTerm);
+    List<Tag> findByNameIn(Collection<String> names);
 
-    @Query("SELECT t FROM Tag t ORDER BY (SELECT COUNT(qt) FROM Question q JOIN q.tags qt WHERE qt.id = t.id) DESC")
-    List<Tag> findMostPopularTags();
+    @Modifying
+    @Query(value = "UPDATE tags SET question_count = COALESCE(question_count, 0) + :delta WHERE id IN (:ids)",
+            nativeQuery = true)
+    int adjustQuestionCount(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
 }
\ No newline at end of file
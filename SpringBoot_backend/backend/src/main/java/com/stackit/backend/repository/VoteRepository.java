@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,13 @@ public interface VoteRepository extends JpaRepository<Vote, Long> {
 
     List<Vote> findByAnswerId(Long answerId);
 
+    /**
+     * A user's votes on several answers as (answerId, voteType) pairs
+     */
+    @Query("SELECT v.answer.id, v.voteType FROM Vote v WHERE v.user.id = :userId AND v.answer.id IN :answerIds")
+    List<Object[]> findVoteTypesByUserIdAndAnswerIds(@Param("userId") Long userId,
+            @Param("answerIds") Collection<Long> answerIds);
+
     @Query("SELECT COUNT(v) FROM Vote v WHERE v.answer.id = :answerId AND v.voteType = 1")
     Long countUpvotesByAnswerId(@Param("answerId") Long answerId);
 
@@ -3,18 +3,21 @@ package com.stackit.backend.service;
 import com.stackit.backend.dto.AnswerDto;
 import com.stackit.backend.dto.request.CreateAnswerRequest;
 import com.stackit.backend.entity.Answer;
+import com.stackit.backend.entity.ModerationStatus;
 import com.stackit.backend.entity.Question;
 import com.stackit.backend.entity.User;
+import com.stackit.backend.entity.Vote;
 import com.stackit.backend.repository.AnswerRepository;
 import com.stackit.backend.repository.QuestionRepository;
 import com.stackit.backend.repository.UserRepository;
-import com.stackit.backend.exception.ContentModerationException;
-import com.stackit.backend.dto.ModerationDto;
+import com.stackit.backend.repository.VoteRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class AnswerService {
@@ -28,61 +31,49 @@ public class AnswerService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Autowired
     private ImageService imageService;
 
     @Autowired
-    private ContentModerationService contentModerationService;
+    private ContentSubmissionPipeline submissionPipeline;
+
+    @Autowired
+    private AsyncModerationService asyncModerationService;
+
+    @Autowired
+    private QuestionThreadService questionThreadService;
+
+    @Autowired
+    private QuestionThreadCache threadCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public List<AnswerDto> getAnswersByQuestion(Long questionId) {
-        List<Answer> answers = answerRepository.findByQuestionIdOrderByIsAcceptedDescCreatedAtAsc(questionId);
-        return answers.stream()
-                .map(answer -> {
-                    AnswerDto dto = AnswerDto.fromEntity(answer);
-                    dto.setImageUrls(imageService.convertToFullUrls(answer.getImageUrls()));
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return questionThreadService.getThread(questionId).getAnswers();
     }
 
     public AnswerDto createAnswer(CreateAnswerRequest request, Long questionId, Long userId) {
+        List<String> imageUrlsList = request.getImageUrls() != null
+                ? new java.util.ArrayList<>(request.getImageUrls())
+                : List.of();
+        ContentSubmissionPipeline.PendingModeration moderation = submissionPipeline
+                .moderateNewContent("Answer", "answer", request.getDescription(), imageUrlsList);
+
         Question question = questionRepository.findById(questionId)
+                .filter(q -> ModerationStatus.isVisible(q.getModerationStatus()))
                 .orElseThrow(() -> new RuntimeException("Question not found"));
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Moderate text content
-        ModerationDto.ModerationResponse textModeration = contentModerationService
-                .moderateText(request.getDescription(), "answer");
-
-        if (contentModerationService.isContentBlocked(textModeration)) {
-            throw new ContentModerationException(
-                    "Answer content violates community guidelines: "
-                            + String.join(", ", textModeration.getFlaggedReasons()),
-                    request.getDescription(),
-                    "answer",
-                    textModeration.getModerationAction());
-        }
-
-        // Moderate images if present
-        if (request.getImageUrls() != null && !request.getImageUrls().isEmpty()) {
-            List<String> imageUrlsList = new java.util.ArrayList<>(request.getImageUrls());
-            List<ModerationDto.ModerationResponse> imageModerations = contentModerationService
-                    .moderateImages(imageUrlsList);
-
-            for (int i = 0; i < imageModerations.size(); i++) {
-                ModerationDto.ModerationResponse imageModeration = imageModerations.get(i);
-                if (contentModerationService.isContentBlocked(imageModeration)) {
-                    throw new ContentModerationException(
-                            "Answer image violates community guidelines: "
-                                    + String.join(", ", imageModeration.getFlaggedReasons()),
-                            imageUrlsList.get(i),
-                            "image",
-                            imageModeration.getModerationAction());
-                }
-            }
-        }
+        moderation.await();
 
         Answer answer = new Answer();
         answer.setQuestion(question);
@@ -96,12 +87,32 @@ public class AnswerService {
             answer.setImageUrls(imageUrlsString);
         }
 
-        Answer savedAnswer = answerRepository.save(answer);
+        if (moderation.isDeferred()) {
+            answer.setModerationStatus(ModerationStatus.PENDING);
+        }
+
+        // Insert and counter update commit together, after moderation has been awaited
+        Answer savedAnswer = transactionTemplate.execute(status -> {
+            Answer saved = answerRepository.save(answer);
+            // A pending answer is counted once its verdict makes it visible
+            if (ModerationStatus.isVisible(saved.getModerationStatus())) {
+                questionRepository.adjustAnswerCount(questionId, 1);
+            }
+            eventPublisher.publishEvent(QuestionChangedEvent.of(questionId));
+            moderation.queueIfFailedOpen(saved.getId());
+            return saved;
+        });
+        threadCache.evictQuestion(questionId);
+        if (moderation.isDeferred()) {
+            asyncModerationService.submitAnswer(savedAnswer.getId(), userId, request.getDescription(),
+                    imageService.convertToFullUrls(savedAnswer.getImageUrls()));
+        }
         AnswerDto dto = AnswerDto.fromEntity(savedAnswer);
         dto.setImageUrls(imageService.convertToFullUrls(savedAnswer.getImageUrls()));
         return dto;
     }
 
+    @Transactional
     public AnswerDto acceptAnswer(Long answerId, Long userId) {
         Answer answer = answerRepository.findById(answerId)
                 .orElseThrow(() -> new RuntimeException("Answer not found"));
@@ -110,6 +121,9 @@ public class AnswerService {
         if (!question.getUser().getId().equals(userId)) {
             throw new RuntimeException("Only question owner can accept answers");
         }
+        if (!ModerationStatus.isVisible(answer.getModerationStatus())) {
+            throw new RuntimeException("Answer is not visible");
+        }
 
         // Unaccept other answers for this question
         List<Answer> otherAnswers = answerRepository
@@ -123,70 +137,96 @@ public class AnswerService {
 
         answer.setIsAccepted(true);
         Answer savedAnswer = answerRepository.save(answer);
+        questionRepository.updateHasAcceptedAnswer(question.getId(), true);
+        threadCache.evictQuestion(question.getId());
         AnswerDto dto = AnswerDto.fromEntity(savedAnswer);
         dto.setImageUrls(imageService.convertToFullUrls(savedAnswer.getImageUrls()));
         return dto;
     }
 
     public AnswerDto updateAnswer(Long id, Long userId, String description, List<String> imageUrls) {
+        ContentSubmissionPipeline.PendingModeration moderation = submissionPipeline
+                .moderateEdit("Updated answer", "answer", description, imageUrls);
+
         Answer answer = answerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Answer not found"));
         if (!answer.getUser().getId().equals(userId)) {
             throw new RuntimeException("Only the answer owner can update the answer");
         }
 
-        // Moderate text content
-        ModerationDto.ModerationResponse textModeration = contentModerationService.moderateText(description, "answer");
-
-        if (contentModerationService.isContentBlocked(textModeration)) {
-            throw new ContentModerationException(
-                    "Updated answer content violates community guidelines: "
-                            + String.join(", ", textModeration.getFlaggedReasons()),
-                    description,
-                    "answer",
-                    textModeration.getModerationAction());
-        }
-
-        // Moderate images if present
-        if (imageUrls != null && !imageUrls.isEmpty()) {
-            List<ModerationDto.ModerationResponse> imageModerations = contentModerationService
-                    .moderateImages(imageUrls);
-
-            for (int i = 0; i < imageModerations.size(); i++) {
-                ModerationDto.ModerationResponse imageModeration = imageModerations.get(i);
-                if (contentModerationService.isContentBlocked(imageModeration)) {
-                    throw new ContentModerationException(
-                            "Updated answer image violates community guidelines: "
-                                    + String.join(", ", imageModeration.getFlaggedReasons()),
-                            imageUrls.get(i),
-                            "image",
-                            imageModeration.getModerationAction());
-                }
-            }
-        }
+        moderation.await();
 
         answer.setDescription(description);
         if (imageUrls != null) {
             answer.setImageUrls(imageService.convertToString(new java.util.ArrayList<>(imageUrls)));
         }
-        Answer saved = answerRepository.save(answer);
+        Answer saved = transactionTemplate.execute(status -> {
+            Answer updated = answerRepository.save(answer);
+            eventPublisher.publishEvent(QuestionChangedEvent.of(answer.getQuestion().getId()));
+            moderation.queueIfFailedOpen(id);
+            return updated;
+        });
+        threadCache.evictQuestion(answer.getQuestion().getId());
         AnswerDto dto = AnswerDto.fromEntity(saved);
         dto.setImageUrls(imageService.convertToFullUrls(saved.getImageUrls()));
         return dto;
     }
 
+    @Transactional
     public void deleteAnswer(Long id, Long userId) {
         Answer answer = answerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Answer not found"));
         if (!answer.getUser().getId().equals(userId)) {
             throw new RuntimeException("Only the answer owner can delete the answer");
         }
+        Long questionId = answer.getQuestion().getId();
+        boolean wasAccepted = Boolean.TRUE.equals(answer.getIsAccepted());
         answerRepository.delete(answer);
+        if (ModerationStatus.isVisible(answer.getModerationStatus())) {
+            questionRepository.adjustAnswerCount(questionId, -1);
+        }
+        if (wasAccepted) {
+            questionRepository.updateHasAcceptedAnswer(questionId, false);
+        }
+        threadCache.evictQuestion(questionId);
+        eventPublisher.publishEvent(QuestionChangedEvent.of(questionId));
     }
 
+    /**
+     * Cast, change or withdraw (vote 0) a user's vote on an answer
+     *
+     * @return the answer's score after the vote
+     */
+    @Transactional
     public int voteAnswer(Long id, Long userId, int vote) {
-        // TODO: Implement voting logic (e.g., upvote/downvote, store in Vote entity)
-        // For now, just return 0
-        return 0;
+        if (vote < -1 || vote > 1) {
+            throw new RuntimeException("Vote must be 1, -1 or 0");
+        }
+        Answer answer = answerRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Answer not found"));
+
+        Vote existing = voteRepository.findByUserIdAndAnswerId(userId, id).orElse(null);
+        int previous = existing != null ? existing.getVoteType() : 0;
+        if (vote == previous) {
+            return answerRepository.findVoteScoreById(id);
+        }
+
+        if (vote == 0) {
+            voteRepository.delete(existing);
+        } else if (existing != null) {
+            existing.setVoteType(vote);
+            voteRepository.save(existing);
+        } else {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            Vote newVote = new Vote();
+            newVote.setUser(user);
+            newVote.setAnswer(answer);
+            newVote.setVoteType(vote);
+            voteRepository.save(newVote);
+        }
+        answerRepository.adjustVoteScore(id, vote - previous);
+        threadCache.evictQuestion(answer.getQuestion().getId());
+        return answerRepository.findVoteScoreById(id);
     }
 }
\ No newline at end of file
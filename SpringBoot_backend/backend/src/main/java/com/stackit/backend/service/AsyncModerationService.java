@@ -0,0 +1,164 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.ModerationDto;
+import com.stackit.backend.entity.ModerationStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publish-then-moderate mode.
+ * When enabled, new questions, answers and comments are saved as PENDING and
+ * moderated by a background worker pool, which then makes them visible or
+ * blocks them and notifies the author over STOMP.
+ */
+@Service
+public class AsyncModerationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncModerationService.class);
+
+    private static final String NOTIFICATION_DESTINATION = "/queue/notifications";
+
+    @Value("${moderation.async.enabled:false}")
+    private boolean asyncEnabled;
+
+    @Value("${moderation.async.pool-size:4}")
+    private int poolSize;
+
+    @Value("${moderation.async.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Autowired
+    private ContentModerationService contentModerationService;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private RemoderationQueue remoderationQueue;
+
+    @Autowired
+    private QuestionThreadCache threadCache;
+
+    @Autowired
+    private ModerationStatusUpdater statusUpdater;
+
+    private ExecutorService worker;
+
+    @PostConstruct
+    void startWorker() {
+        AtomicInteger threadCount = new AtomicInteger();
+        // When the queue is full the submitting request thread moderates the content itself
+        this.worker = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "async-moderation-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void stopWorker() throws InterruptedException {
+        worker.shutdown();
+        if (!worker.awaitTermination(10, TimeUnit.SECONDS)) {
+            logger.warn("Async moderation worker did not drain before shutdown, pending items stay hidden");
+            worker.shutdownNow();
+        }
+    }
+
+    /**
+     * Whether new content should be published as PENDING and moderated in the background
+     */
+    public boolean isEnabled() {
+        return asyncEnabled;
+    }
+
+    public void submitQuestion(Long questionId, Long authorId, String textContent, List<String> imageUrls) {
+        submit("question", questionId, authorId, textContent, imageUrls);
+    }
+
+    public void submitAnswer(Long answerId, Long authorId, String textContent, List<String> imageUrls) {
+        submit("answer", answerId, authorId, textContent, imageUrls);
+    }
+
+    public void submitComment(Long commentId, Long authorId, String textContent, List<String> imageUrls) {
+        submit("comment", commentId, authorId, textContent, imageUrls);
+    }
+
+    private void submit(String contentType, Long id, Long authorId, String textContent, List<String> imageUrls) {
+        worker.execute(() -> {
+            try {
+                moderate(contentType, id, authorId, textContent, imageUrls);
+            } catch (Exception e) {
+                // Leave the item PENDING rather than publishing content nobody checked
+                logger.error("Background moderation of {} {} failed: {}", contentType, id, e.getMessage());
+            }
+        });
+    }
+
+    private void moderate(String contentType, Long id, Long authorId, String textContent, List<String> imageUrls) {
+        ModerationDto.ModerationResponse verdict = contentModerationService.moderateText(textContent, contentType);
+        boolean failOpen = verdict.isFailOpen();
+
+        if (!contentModerationService.isContentBlocked(verdict) && imageUrls != null && !imageUrls.isEmpty()) {
+            for (ModerationDto.ModerationResponse imageVerdict : contentModerationService.moderateImages(imageUrls)) {
+                failOpen |= imageVerdict.isFailOpen();
+                if (contentModerationService.isContentBlocked(imageVerdict)) {
+                    verdict = imageVerdict;
+                    break;
+                }
+            }
+        }
+
+        ModerationStatus status = contentModerationService.isContentBlocked(verdict)
+                ? ModerationStatus.BLOCKED
+                : ModerationStatus.VISIBLE;
+
+        statusUpdater.setStatus(contentType, id, status);
+        threadCache.evictContent(contentType, id);
+        logger.debug("Background moderation of {} {} finished: {}", contentType, id, status);
+        if (failOpen && status == ModerationStatus.VISIBLE) {
+            remoderationQueue.enqueue(contentType, id);
+        }
+
+        notifyAuthor(contentType, id, authorId, status, verdict);
+    }
+
+    private void notifyAuthor(String contentType, Long id, Long authorId, ModerationStatus status,
+            ModerationDto.ModerationResponse verdict) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("type", "moderation");
+        payload.put("contentType", contentType);
+        payload.put("contentId", id);
+        payload.put("moderationStatus", status.name());
+        if (status == ModerationStatus.BLOCKED && verdict.getFlaggedReasons() != null) {
+            payload.put("reasons", verdict.getFlaggedReasons());
+        }
+
+        try {
+            messagingTemplate.convertAndSendToUser(authorId.toString(), NOTIFICATION_DESTINATION, payload);
+        } catch (Exception e) {
+            logger.warn("Could not notify user {} about moderation of {} {}: {}", authorId, contentType, id,
+                    e.getMessage());
+        }
+    }
+}
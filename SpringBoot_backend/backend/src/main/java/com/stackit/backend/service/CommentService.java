@@ -4,14 +4,15 @@ import com.stackit.backend.dto.CommentDto;
 import com.stackit.backend.dto.request.CreateCommentRequest;
 import com.stackit.backend.entity.Answer;
 import com.stackit.backend.entity.Comment;
+import com.stackit.backend.entity.ModerationStatus;
 import com.stackit.backend.entity.User;
 import com.stackit.backend.repository.AnswerRepository;
 import com.stackit.backend.repository.CommentRepository;
 import com.stackit.backend.repository.UserRepository;
-import com.stackit.backend.exception.ContentModerationException;
-import com.stackit.backend.dto.ModerationDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -32,10 +33,32 @@ public class CommentService {
     private ImageService imageService;
 
     @Autowired
-    private ContentModerationService contentModerationService;
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ContentSubmissionPipeline submissionPipeline;
+
+    @Autowired
+    private AsyncModerationService asyncModerationService;
+
+    @Autowired
+    private QuestionThreadService questionThreadService;
+
+    @Autowired
+    private QuestionThreadCache threadCache;
 
     public List<CommentDto> getCommentsByAnswer(Long answerId) {
-        List<Comment> comments = commentRepository.findByAnswerIdOrderByCreatedAtAsc(answerId);
+        // Served from the cached thread when the answer is part of one
+        Long questionId = threadCache.findCachedQuestionId(answerId);
+        if (questionId != null) {
+            List<CommentDto> cached = questionThreadService.getThread(questionId).getComments().get(answerId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        List<Comment> comments = commentRepository.findByAnswerIdAndModerationStatusOrderByCreatedAtAsc(answerId,
+                ModerationStatus.VISIBLE);
         return comments.stream()
                 .map(comment -> {
                     CommentDto dto = CommentDto.fromEntity(comment);
@@ -46,43 +69,20 @@ public class CommentService {
     }
 
     public CommentDto createComment(CreateCommentRequest request, Long answerId, Long userId) {
+        List<String> imageUrlsList = request.getImageUrls() != null
+                ? new java.util.ArrayList<>(request.getImageUrls())
+                : List.of();
+        ContentSubmissionPipeline.PendingModeration moderation = submissionPipeline
+                .moderateNewContent("Comment", "comment", request.getContent(), imageUrlsList);
+
         Answer answer = answerRepository.findById(answerId)
+                .filter(a -> ModerationStatus.isVisible(a.getModerationStatus()))
                 .orElseThrow(() -> new RuntimeException("Answer not found"));
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Moderate text content
-        ModerationDto.ModerationResponse textModeration = contentModerationService.moderateText(request.getContent(),
-                "comment");
-
-        if (contentModerationService.isContentBlocked(textModeration)) {
-            throw new ContentModerationException(
-                    "Comment content violates community guidelines: "
-                            + String.join(", ", textModeration.getFlaggedReasons()),
-                    request.getContent(),
-                    "comment",
-                    textModeration.getModerationAction());
-        }
-
-        // Moderate images if present
-        if (request.getImageUrls() != null && !request.getImageUrls().isEmpty()) {
-            List<String> imageUrlsList = new java.util.ArrayList<>(request.getImageUrls());
-            List<ModerationDto.ModerationResponse> imageModerations = contentModerationService
-                    .moderateImages(imageUrlsList);
-
-            for (int i = 0; i < imageModerations.size(); i++) {
-                ModerationDto.ModerationResponse imageModeration = imageModerations.get(i);
-                if (contentModerationService.isContentBlocked(imageModeration)) {
-                    throw new ContentModerationException(
-                            "Comment image violates community guidelines: "
-                                    + String.join(", ", imageModeration.getFlaggedReasons()),
-                            imageUrlsList.get(i),
-                            "image",
-                            imageModeration.getModerationAction());
-                }
-            }
-        }
+        moderation.await();
 
         Comment comment = new Comment();
         comment.setAnswer(answer);
@@ -96,12 +96,31 @@ public class CommentService {
             comment.setImageUrls(imageUrlsString);
         }
 
-        Comment savedComment = commentRepository.save(comment);
+        if (moderation.isDeferred()) {
+            comment.setModerationStatus(ModerationStatus.PENDING);
+        }
+
+        // Insert and counter update commit together, after moderation has been awaited
+        Comment savedComment = transactionTemplate.execute(status -> {
+            Comment saved = commentRepository.save(comment);
+            // A pending comment is counted once its verdict makes it visible
+            if (ModerationStatus.isVisible(saved.getModerationStatus())) {
+                answerRepository.adjustCommentCount(answerId, 1);
+            }
+            moderation.queueIfFailedOpen(saved.getId());
+            return saved;
+        });
+        threadCache.evictQuestion(answer.getQuestion().getId());
+        if (moderation.isDeferred()) {
+            asyncModerationService.submitComment(savedComment.getId(), userId, request.getContent(),
+                    imageService.convertToFullUrls(savedComment.getImageUrls()));
+        }
         CommentDto dto = CommentDto.fromEntity(savedComment);
         dto.setImageUrls(imageService.convertToFullUrls(savedComment.getImageUrls()));
         return dto;
     }
 
+    @Transactional
     public void deleteComment(Long commentId, Long userId) {
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
@@ -110,51 +129,36 @@ public class CommentService {
             throw new RuntimeException("Only comment owner can delete comments");
         }
 
+        Long answerId = comment.getAnswer().getId();
         commentRepository.delete(comment);
+        if (ModerationStatus.isVisible(comment.getModerationStatus())) {
+            answerRepository.adjustCommentCount(answerId, -1);
+        }
+        threadCache.evictQuestion(comment.getAnswer().getQuestion().getId());
     }
 
     public CommentDto updateComment(Long id, Long userId, String content, List<String> imageUrls) {
+        ContentSubmissionPipeline.PendingModeration moderation = submissionPipeline
+                .moderateEdit("Updated comment", "comment", content, imageUrls);
+
         Comment comment = commentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
         if (!comment.getUser().getId().equals(userId)) {
             throw new RuntimeException("Only the comment owner can update the comment");
         }
 
-        // Moderate text content
-        ModerationDto.ModerationResponse textModeration = contentModerationService.moderateText(content, "comment");
-
-        if (contentModerationService.isContentBlocked(textModeration)) {
-            throw new ContentModerationException(
-                    "Updated comment content violates community guidelines: "
-                            + String.join(", ", textModeration.getFlaggedReasons()),
-                    content,
-                    "comment",
-                    textModeration.getModerationAction());
-        }
-
-        // Moderate images if present
-        if (imageUrls != null && !imageUrls.isEmpty()) {
-            List<ModerationDto.ModerationResponse> imageModerations = contentModerationService
-                    .moderateImages(imageUrls);
-
-            for (int i = 0; i < imageModerations.size(); i++) {
-                ModerationDto.ModerationResponse imageModeration = imageModerations.get(i);
-                if (contentModerationService.isContentBlocked(imageModeration)) {
-                    throw new ContentModerationException(
-                            "Updated comment image violates community guidelines: "
-                                    + String.join(", ", imageModeration.getFlaggedReasons()),
-                            imageUrls.get(i),
-                            "image",
-                            imageModeration.getModerationAction());
-                }
-            }
-        }
+        moderation.await();
 
         comment.setContent(content);
         if (imageUrls != null) {
             comment.setImageUrls(imageService.convertToString(new java.util.ArrayList<>(imageUrls)));
         }
-        Comment saved = commentRepository.save(comment);
+        Comment saved = transactionTemplate.execute(status -> {
+            Comment updated = commentRepository.save(comment);
+            moderation.queueIfFailedOpen(id);
+            return updated;
+        });
+        threadCache.evictQuestion(comment.getAnswer().getQuestion().getId());
         CommentDto dto = CommentDto.fromEntity(saved);
         dto.setImageUrls(imageService.convertToFullUrls(saved.getImageUrls()));
         return dto;
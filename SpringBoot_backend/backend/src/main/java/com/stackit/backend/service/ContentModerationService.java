@@ -1,8 +1,12 @@
 package com.stackit.backend.service;
 
 import com.stackit.backend.dto.ModerationDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -12,27 +16,82 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.ResourceAccessException;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class ContentModerationService {
 
     private static final Logger logger = LoggerFactory.getLogger(ContentModerationService.class);
 
-    @Value("${moderation.api.base-url:http://localhost:8000}")
-    private String moderationApiBaseUrl;
-
     @Value("${moderation.api.enabled:true}")
     private boolean moderationEnabled;
 
-    @Value("${moderation.api.timeout:30000}")
-    private int timeout;
+    @Value("${moderation.images.parallel:true}")
+    private boolean parallelImageModeration;
+
+    @Value("${moderation.images.max-concurrency:8}")
+    private int imageMaxConcurrency;
+
+    @Value("${moderation.images.deadline-ms:10000}")
+    private long imageDeadlineMs;
+
+    @Autowired
+    private ModerationVerdictCache verdictCache;
+
+    @Autowired
+    private ModerationCircuitBreaker circuitBreaker;
+
+    @Autowired
+    private ModerationBatcher moderationBatcher;
+
+    @Autowired
+    private ModerationPreFilter moderationPreFilter;
+
+    @Autowired
+    private ModerationEndpoints moderationEndpoints;
+
+    @Autowired
+    private ModerationMetrics metrics;
 
     private final RestTemplate restTemplate;
 
-    public ContentModerationService() {
-        this.restTemplate = new RestTemplate();
+    private ExecutorService imageExecutor;
+
+    public ContentModerationService(@Qualifier("moderationRestTemplate") RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    @PostConstruct
+    void startImageExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        // Bounded pool and queue; when saturated the image is rejected and allowed like one past the deadline
+        this.imageExecutor = new ThreadPoolExecutor(
+                imageMaxConcurrency,
+                imageMaxConcurrency,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(imageMaxConcurrency * 16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-moderation-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stopImageExecutor() {
+        imageExecutor.shutdownNow();
     }
 
     /**
@@ -44,38 +103,77 @@ public class ContentModerationService {
             return createAllowResponse();
         }
 
-        try {
-            ModerationDto.ModerationRequest request = new ModerationDto.ModerationRequest(content, contentType);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+        ModerationPreFilter.Result preFilter = moderationPreFilter.evaluate(content);
+        if (preFilter.getDecision() == ModerationPreFilter.Decision.BLOCK) {
+            logger.debug("Text blocked by local pre-filter: {}", preFilter.getCategories());
+            metrics.recordVerdict("text", "block", "prefilter");
+            return createBlockResponse(preFilter.getCategories());
+        }
+        if (preFilter.getDecision() == ModerationPreFilter.Decision.ALLOW) {
+            logger.debug("Short clean text allowed by local pre-filter");
+            metrics.recordVerdict("text", "allow", "prefilter");
+            return createAllowResponse();
+        }
 
-            HttpEntity<ModerationDto.ModerationRequest> entity = new HttpEntity<>(request, headers);
+        String cacheKey = verdictCache.textKey(content, contentType);
+        ModerationDto.ModerationResponse cached = verdictCache.get(cacheKey);
+        if (cached != null) {
+            logger.debug("Text moderation cache hit: {}", cached.getModerationAction());
+            metrics.recordVerdict("text", cached.getModerationAction(), "cache");
+            return cached;
+        }
 
-            String url = moderationApiBaseUrl + "/moderate/text";
-            logger.debug("Sending text moderation request to: {}", url);
+        if (!circuitBreaker.allowRequest()) {
+            logger.warn("Moderation circuit open, allowing text content without calling the service");
+            metrics.recordFailOpen("text", "CircuitOpen");
+            return createFailOpenResponse();
+        }
 
-            ResponseEntity<ModerationDto.ModerationResponse> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    ModerationDto.ModerationResponse.class);
+        try {
+            ModerationDto.ModerationResponse result;
+            if (moderationBatcher.isEnabled()) {
+                result = metrics.time("text", () -> moderationBatcher.moderateText(content, contentType));
+            } else {
+                ModerationDto.ModerationRequest request = new ModerationDto.ModerationRequest(content, contentType);
+
+                HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(MediaType.APPLICATION_JSON);
+
+                HttpEntity<ModerationDto.ModerationRequest> entity = new HttpEntity<>(request, headers);
+
+                result = metrics.time("text", () -> moderationEndpoints.executeHedged("/moderate/text", url -> {
+                    logger.debug("Sending text moderation request to: {}", url);
+                    return restTemplate.exchange(
+                            url,
+                            HttpMethod.POST,
+                            entity,
+                            ModerationDto.ModerationResponse.class).getBody();
+                }));
+            }
 
-            ModerationDto.ModerationResponse result = response.getBody();
-            logger.info("Text moderation result: {} (confidence: {})",
+            circuitBreaker.recordSuccess();
+            logger.debug("Text moderation result: {} (confidence: {})",
                     result.getModerationAction(), result.getConfidence());
+            metrics.recordVerdict("text", result.getModerationAction(), "remote");
 
+            verdictCache.put(cacheKey, result);
             return result;
 
         } catch (HttpClientErrorException e) {
             logger.error("HTTP error during text moderation: {}", e.getMessage());
-            return createAllowResponse(); // Allow content on API errors
+            metrics.recordFailOpen("text", e);
+            circuitBreaker.recordSuccess(); // The service answered, only the request was rejected
+            return createFailOpenResponse(); // Allow content on API errors
         } catch (ResourceAccessException e) {
             logger.error("Connection error during text moderation: {}", e.getMessage());
-            return createAllowResponse(); // Allow content on connection errors
+            metrics.recordFailOpen("text", e);
+            circuitBreaker.recordFailure();
+            return createFailOpenResponse(); // Allow content on connection errors
         } catch (Exception e) {
             logger.error("Unexpected error during text moderation: {}", e.getMessage());
-            return createAllowResponse(); // Allow content on unexpected errors
+            metrics.recordFailOpen("text", e);
+            circuitBreaker.recordFailure();
+            return createFailOpenResponse(); // Allow content on unexpected errors
         }
     }
 
@@ -93,6 +191,20 @@ public class ContentModerationService {
             return createAllowResponse();
         }
 
+        String cacheKey = verdictCache.imageKey(imageUrl);
+        ModerationDto.ModerationResponse cached = verdictCache.get(cacheKey);
+        if (cached != null) {
+            logger.debug("Image moderation cache hit: {}", cached.getModerationAction());
+            metrics.recordVerdict("image", cached.getModerationAction(), "cache");
+            return cached;
+        }
+
+        if (!circuitBreaker.allowRequest()) {
+            logger.warn("Moderation circuit open, allowing image content without calling the service");
+            metrics.recordFailOpen("image", "CircuitOpen");
+            return createFailOpenResponse();
+        }
+
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
@@ -102,35 +214,46 @@ public class ContentModerationService {
 
             HttpEntity<MultiValueMap<String, String>> entity = new HttpEntity<>(body, headers);
 
-            String url = moderationApiBaseUrl + "/moderate/image";
-            logger.debug("Sending image moderation request to: {}", url);
-
-            ResponseEntity<ModerationDto.ModerationResponse> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    ModerationDto.ModerationResponse.class);
-
-            ModerationDto.ModerationResponse result = response.getBody();
-            logger.info("Image moderation result: {} (confidence: {})",
+            ModerationDto.ModerationResponse result = metrics.time("image",
+                    () -> moderationEndpoints.executeHedged("/moderate/image", url -> {
+                        logger.debug("Sending image moderation request to: {}", url);
+                        return restTemplate.exchange(
+                                url,
+                                HttpMethod.POST,
+                                entity,
+                                ModerationDto.ModerationResponse.class).getBody();
+                    }));
+
+            circuitBreaker.recordSuccess();
+            logger.debug("Image moderation result: {} (confidence: {})",
                     result.getModerationAction(), result.getConfidence());
+            metrics.recordVerdict("image", result.getModerationAction(), "remote");
 
+            verdictCache.put(cacheKey, result);
             return result;
 
         } catch (HttpClientErrorException e) {
             logger.error("HTTP error during image moderation: {}", e.getMessage());
-            return createAllowResponse(); // Allow content on API errors
+            metrics.recordFailOpen("image", e);
+            circuitBreaker.recordSuccess(); // The service answered, only the request was rejected
+            return createFailOpenResponse(); // Allow content on API errors
         } catch (ResourceAccessException e) {
             logger.error("Connection error during image moderation: {}", e.getMessage());
-            return createAllowResponse(); // Allow content on connection errors
+            metrics.recordFailOpen("image", e);
+            circuitBreaker.recordFailure();
+            return createFailOpenResponse(); // Allow content on connection errors
         } catch (Exception e) {
             logger.error("Unexpected error during image moderation: {}", e.getMessage());
-            return createAllowResponse(); // Allow content on unexpected errors
+            metrics.recordFailOpen("image", e);
+            circuitBreaker.recordFailure();
+            return createFailOpenResponse(); // Allow content on unexpected errors
         }
     }
 
     /**
-     * Moderate multiple images
+     * Moderate multiple images.
+     * Images are checked concurrently and results are returned in the original
+     * order; any image that has not been moderated by the deadline is allowed.
      */
     public List<ModerationDto.ModerationResponse> moderateImages(List<String> imageUrls) {
         if (!moderationEnabled) {
@@ -140,9 +263,55 @@ public class ContentModerationService {
                     .toList();
         }
 
-        return imageUrls.stream()
-                .map(this::moderateImage)
+        if (!parallelImageModeration || imageUrls.size() < 2) {
+            return imageUrls.stream()
+                    .map(this::moderateImage)
+                    .toList();
+        }
+
+        List<CompletableFuture<ModerationDto.ModerationResponse>> futures = imageUrls.stream()
+                .map(this::submitImage)
                 .toList();
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                    .get(imageDeadlineMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.error("Image moderation deadline of {} ms exceeded for {} images", imageDeadlineMs,
+                    imageUrls.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while waiting for image moderation");
+        } catch (ExecutionException e) {
+            logger.error("Unexpected error during image moderation: {}", e.getMessage());
+        }
+
+        List<ModerationDto.ModerationResponse> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<ModerationDto.ModerationResponse> future : futures) {
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                results.add(future.join());
+            } else {
+                future.cancel(true);
+                metrics.recordFailOpen("image", "DeadlineExceeded");
+                results.add(createFailOpenResponse()); // Allow images that missed the deadline
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Queue an image on the moderation pool. A saturated pool fails the image
+     * open straight away rather than moderating it on the request thread,
+     * which would not be bounded by the deadline.
+     */
+    private CompletableFuture<ModerationDto.ModerationResponse> submitImage(String imageUrl) {
+        try {
+            return CompletableFuture.supplyAsync(() -> moderateImage(imageUrl), imageExecutor);
+        } catch (RejectedExecutionException e) {
+            logger.error("Image moderation pool is saturated, allowing image without moderation");
+            metrics.recordFailOpen("image", "Rejected");
+            return CompletableFuture.completedFuture(createFailOpenResponse());
+        }
     }
 
     /**
@@ -154,6 +323,12 @@ public class ContentModerationService {
             return createAllowBatchResponse();
         }
 
+        if (!circuitBreaker.allowRequest()) {
+            logger.warn("Moderation circuit open, allowing batch content without calling the service");
+            metrics.recordFailOpen("batch", "CircuitOpen");
+            return createAllowBatchResponse();
+        }
+
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
@@ -170,28 +345,36 @@ public class ContentModerationService {
 
             HttpEntity<MultiValueMap<String, String>> entity = new HttpEntity<>(body, headers);
 
-            String url = moderationApiBaseUrl + "/moderate/batch";
-            logger.debug("Sending batch moderation request to: {}", url);
+            ModerationDto.BatchModerationResponse result = metrics.time("batch",
+                    () -> moderationEndpoints.execute("/moderate/batch", url -> {
+                        logger.debug("Sending batch moderation request to: {}", url);
+                        return restTemplate.exchange(
+                                url,
+                                HttpMethod.POST,
+                                entity,
+                                ModerationDto.BatchModerationResponse.class).getBody();
+                    }));
 
-            ResponseEntity<ModerationDto.BatchModerationResponse> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    ModerationDto.BatchModerationResponse.class);
-
-            ModerationDto.BatchModerationResponse result = response.getBody();
-            logger.info("Batch moderation result: {}", result.getOverallDecision());
+            circuitBreaker.recordSuccess();
+            logger.debug("Batch moderation result: {}", result.getOverallDecision());
+            metrics.recordVerdict("batch", result.getOverallDecision(), "remote");
 
             return result;
 
         } catch (HttpClientErrorException e) {
             logger.error("HTTP error during batch moderation: {}", e.getMessage());
+            metrics.recordFailOpen("batch", e);
+            circuitBreaker.recordSuccess(); // The service answered, only the request was rejected
             return createAllowBatchResponse(); // Allow content on API errors
         } catch (ResourceAccessException e) {
             logger.error("Connection error during batch moderation: {}", e.getMessage());
+            metrics.recordFailOpen("batch", e);
+            circuitBreaker.recordFailure();
             return createAllowBatchResponse(); // Allow content on connection errors
         } catch (Exception e) {
             logger.error("Unexpected error during batch moderation: {}", e.getMessage());
+            metrics.recordFailOpen("batch", e);
+            circuitBreaker.recordFailure();
             return createAllowBatchResponse(); // Allow content on unexpected errors
         }
     }
@@ -244,6 +427,30 @@ public class ContentModerationService {
         return response;
     }
 
+    /**
+     * Create an "allow" response for content let through because moderation failed,
+     * marked so the content can be queued for re-moderation
+     */
+    private ModerationDto.ModerationResponse createFailOpenResponse() {
+        ModerationDto.ModerationResponse response = createAllowResponse();
+        response.setFailOpen(true);
+        return response;
+    }
+
+    /**
+     * Create a "block" response for violations caught by the local pre-filter
+     */
+    private ModerationDto.ModerationResponse createBlockResponse(List<String> categories) {
+        ModerationDto.ModerationResponse response = new ModerationDto.ModerationResponse();
+        response.setAppropriate(false);
+        response.setConfidence(1.0);
+        response.setModerationAction("block");
+        response.setFlaggedReasons(categories);
+        response.setCategories(categories.stream()
+                .collect(java.util.stream.Collectors.toMap(category -> category, category -> 1.0)));
+        return response;
+    }
+
     /**
      * Create a default "allow" batch response
      */
@@ -257,20 +464,30 @@ public class ContentModerationService {
     }
 
     /**
-     * Check if the moderation service is healthy
+     * Current state of the moderation circuit breaker
+     */
+    public ModerationCircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * Check if the moderation service is healthy, i.e. at least one endpoint answers its health check
      */
     public boolean isServiceHealthy() {
         if (!moderationEnabled) {
             return true;
         }
 
-        try {
-            String url = moderationApiBaseUrl + "/health";
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-            return response.getStatusCode() == HttpStatus.OK;
-        } catch (Exception e) {
-            logger.warn("Moderation service health check failed: {}", e.getMessage());
-            return false;
+        for (String baseUrl : moderationEndpoints.getBaseUrls()) {
+            try {
+                ResponseEntity<String> response = restTemplate.getForEntity(baseUrl + "/health", String.class);
+                if (response.getStatusCode() == HttpStatus.OK) {
+                    return true;
+                }
+            } catch (Exception e) {
+                logger.warn("Moderation service health check failed for {}: {}", baseUrl, e.getMessage());
+            }
         }
+        return false;
     }
 }
\ No newline at end of file
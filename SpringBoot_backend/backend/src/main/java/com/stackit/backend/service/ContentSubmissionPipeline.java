@@ -0,0 +1,204 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.ModerationDto;
+import com.stackit.backend.exception.ContentModerationException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared write path for questions, answers and comments.
+ * Text and image moderation are started in the background so the caller can
+ * run its user/parent lookups at the same time, then {@link PendingModeration#await()}
+ * joins both checks before anything is persisted. Lookups stay on the request
+ * thread so the loaded entities belong to the request's persistence context.
+ */
+@Component
+public class ContentSubmissionPipeline {
+
+    @Value("${submission.pipeline.enabled:true}")
+    private boolean concurrent;
+
+    @Value("${submission.pipeline.threads:16}")
+    private int threads;
+
+    @Autowired
+    private ContentModerationService contentModerationService;
+
+    @Autowired
+    private AsyncModerationService asyncModerationService;
+
+    @Autowired
+    private RemoderationQueue remoderationQueue;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void startExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        // When saturated the request thread runs the moderation call itself
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(threads * 16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "submission-pipeline-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Start moderating newly submitted content.
+     * In publish-then-moderate mode nothing is checked here and the returned
+     * moderation is deferred to {@link AsyncModerationService}.
+     *
+     * @param label       prefix for violation messages, e.g. "Question"
+     * @param contentType moderation content type, e.g. "question"
+     */
+    public PendingModeration moderateNewContent(String label, String contentType, String textContent,
+            List<String> imageUrls) {
+        if (asyncModerationService.isEnabled()) {
+            return new PendingModeration(label, contentType, textContent, imageUrls, null, null);
+        }
+        return start(label, contentType, textContent, imageUrls);
+    }
+
+    /**
+     * Start moderating an edit. Edits are always checked before they are saved.
+     *
+     * @param label       prefix for violation messages, e.g. "Updated question"
+     * @param contentType moderation content type, e.g. "question"
+     */
+    public PendingModeration moderateEdit(String label, String contentType, String textContent,
+            List<String> imageUrls) {
+        return start(label, contentType, textContent, imageUrls);
+    }
+
+    private PendingModeration start(String label, String contentType, String textContent, List<String> imageUrls) {
+        List<String> images = imageUrls != null ? imageUrls : List.of();
+
+        CompletableFuture<ModerationDto.ModerationResponse> textModeration;
+        CompletableFuture<List<ModerationDto.ModerationResponse>> imageModerations;
+        if (concurrent) {
+            textModeration = CompletableFuture.supplyAsync(
+                    () -> contentModerationService.moderateText(textContent, contentType), executor);
+            imageModerations = images.isEmpty()
+                    ? CompletableFuture.completedFuture(List.of())
+                    : CompletableFuture.supplyAsync(() -> contentModerationService.moderateImages(images), executor);
+        } else {
+            textModeration = CompletableFuture.completedFuture(
+                    contentModerationService.moderateText(textContent, contentType));
+            imageModerations = CompletableFuture.completedFuture(
+                    images.isEmpty() ? List.of() : contentModerationService.moderateImages(images));
+        }
+
+        return new PendingModeration(label, contentType, textContent, images, textModeration, imageModerations);
+    }
+
+    /**
+     * Moderation started by the pipeline that the caller joins before saving
+     */
+    public class PendingModeration {
+        private final String label;
+        private final String contentType;
+        private final String textContent;
+        private final List<String> imageUrls;
+        private final CompletableFuture<ModerationDto.ModerationResponse> textModeration;
+        private final CompletableFuture<List<ModerationDto.ModerationResponse>> imageModerations;
+        private boolean failOpen;
+
+        private PendingModeration(String label, String contentType, String textContent, List<String> imageUrls,
+                CompletableFuture<ModerationDto.ModerationResponse> textModeration,
+                CompletableFuture<List<ModerationDto.ModerationResponse>> imageModerations) {
+            this.label = label;
+            this.contentType = contentType;
+            this.textContent = textContent;
+            this.imageUrls = imageUrls;
+            this.textModeration = textModeration;
+            this.imageModerations = imageModerations;
+        }
+
+        /**
+         * Whether moderation was handed to the background worker, in which case
+         * the content must be saved as PENDING
+         */
+        public boolean isDeferred() {
+            return textModeration == null;
+        }
+
+        /**
+         * Wait for the text and image checks and reject the submission if either is blocked
+         */
+        public void await() {
+            if (isDeferred()) {
+                return;
+            }
+
+            ModerationDto.ModerationResponse textVerdict = join(textModeration);
+            failOpen = textVerdict.isFailOpen();
+            if (contentModerationService.isContentBlocked(textVerdict)) {
+                throw new ContentModerationException(
+                        label + " content violates community guidelines: "
+                                + String.join(", ", textVerdict.getFlaggedReasons()),
+                        textContent,
+                        contentType,
+                        textVerdict.getModerationAction());
+            }
+
+            List<ModerationDto.ModerationResponse> imageVerdicts = join(imageModerations);
+            for (int i = 0; i < imageVerdicts.size(); i++) {
+                ModerationDto.ModerationResponse imageVerdict = imageVerdicts.get(i);
+                failOpen |= imageVerdict.isFailOpen();
+                if (contentModerationService.isContentBlocked(imageVerdict)) {
+                    throw new ContentModerationException(
+                            label + " image violates community guidelines: "
+                                    + String.join(", ", imageVerdict.getFlaggedReasons()),
+                            imageUrls.get(i),
+                            "image",
+                            imageVerdict.getModerationAction());
+                }
+            }
+        }
+
+        /**
+         * Queue the content for re-moderation if any check was allowed only
+         * because the moderation service was unavailable. Call it inside the
+         * transaction that saves the content.
+         */
+        public void queueIfFailedOpen(Long contentId) {
+            if (failOpen) {
+                remoderationQueue.enqueue(contentType, contentId);
+            }
+        }
+
+        private <T> T join(CompletableFuture<T> future) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.stackit.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Repairs drift in the denormalized counters on questions, answers and tags.
+ * Writes keep the counters in step with SQL increments; this job recomputes
+ * them from the child tables and only rewrites rows that disagree. Answer,
+ * comment and tag counts only count content readers can see.
+ */
+@Component
+public class CounterReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(CounterReconciler.class);
+
+    // Counter name -> UPDATE that rewrites only the rows whose stored value is wrong
+    private static final Map<String, String> REPAIRS = new LinkedHashMap<>();
+
+    // Rows written before moderation status existed have none and are visible
+    private static String visible(String alias) {
+        return "COALESCE(" + alias + ".moderation_status, 'VISIBLE') = 'VISIBLE'";
+    }
+
+    static {
+        REPAIRS.put("questions.answer_count",
+                "UPDATE questions q SET answer_count = (SELECT COUNT(*) FROM answers a WHERE a.question_id = q.id "
+                        + "AND " + visible("a") + ") "
+                        + "WHERE COALESCE(q.answer_count, -1) <> (SELECT COUNT(*) FROM answers a WHERE a.question_id = q.id "
+                        + "AND " + visible("a") + ")");
+        REPAIRS.put("questions.has_accepted_answer",
+                "UPDATE questions q SET has_accepted_answer = CASE WHEN EXISTS "
+                        + "(SELECT 1 FROM answers a WHERE a.question_id = q.id AND a.is_accepted = TRUE "
+                        + "AND " + visible("a") + ") "
+                        + "THEN TRUE ELSE FALSE END "
+                        + "WHERE q.has_accepted_answer IS NULL OR q.has_accepted_answer <> CASE WHEN EXISTS "
+                        + "(SELECT 1 FROM answers a WHERE a.question_id = q.id AND a.is_accepted = TRUE "
+                        + "AND " + visible("a") + ") "
+                        + "THEN TRUE ELSE FALSE END");
+        REPAIRS.put("questions.vote_score",
+                "UPDATE questions q SET vote_score = "
+                        + "(SELECT COALESCE(SUM(v.vote_type), 0) FROM question_votes v WHERE v.question_id = q.id) "
+                        + "WHERE COALESCE(q.vote_score, -2147483648) <> "
+                        + "(SELECT COALESCE(SUM(v.vote_type), 0) FROM question_votes v WHERE v.question_id = q.id)");
+        REPAIRS.put("tags.question_count",
+                "UPDATE tags t SET question_count = (SELECT COUNT(*) FROM question_tags qt "
+                        + "JOIN questions q ON q.id = qt.question_id WHERE qt.tag_id = t.id AND " + visible("q") + ") "
+                        + "WHERE COALESCE(t.question_count, -1) <> (SELECT COUNT(*) FROM question_tags qt "
+                        + "JOIN questions q ON q.id = qt.question_id WHERE qt.tag_id = t.id AND " + visible("q") + ")");
+        REPAIRS.put("answers.vote_score",
+                "UPDATE answers a SET vote_score = "
+                        + "(SELECT COALESCE(SUM(v.vote_type), 0) FROM votes v WHERE v.answer_id = a.id) "
+                        + "WHERE COALESCE(a.vote_score, -2147483648) <> "
+                        + "(SELECT COALESCE(SUM(v.vote_type), 0) FROM votes v WHERE v.answer_id = a.id)");
+        REPAIRS.put("answers.comment_count",
+                "UPDATE answers a SET comment_count = (SELECT COUNT(*) FROM comments c WHERE c.answer_id = a.id "
+                        + "AND " + visible("c") + ") "
+                        + "WHERE COALESCE(a.comment_count, -1) <> (SELECT COUNT(*) FROM comments c WHERE c.answer_id = a.id "
+                        + "AND " + visible("c") + ")");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Recompute every counter and fix the rows that drifted
+     *
+     * @return number of rows repaired per counter
+     */
+    @Scheduled(fixedDelayString = "${counters.reconcile-interval-ms:3600000}",
+            initialDelayString = "${counters.reconcile-initial-delay-ms:60000}")
+    public synchronized Map<String, Integer> reconcile() {
+        Map<String, Integer> repaired = new LinkedHashMap<>();
+        REPAIRS.keySet().forEach(counter -> {
+            try {
+                repaired.put(counter, reconcile(counter));
+            } catch (Exception e) {
+                logger.error("Could not reconcile {}: {}", counter, e.getMessage());
+            }
+        });
+        return repaired;
+    }
+
+    /**
+     * Recompute a single counter, e.g. "tags.question_count"
+     *
+     * @return number of rows repaired
+     */
+    public synchronized int reconcile(String counter) {
+        String sql = REPAIRS.get(counter);
+        if (sql == null) {
+            throw new RuntimeException("Unknown counter " + counter);
+        }
+        int rows = jdbcTemplate.update(sql);
+        if (rows > 0) {
+            logger.warn("Repaired {} drifted {} values", rows, counter);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,69 @@
+package com.stackit.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills in the excerpt of questions written before excerpts were stored.
+ * New and edited questions get theirs at write time, so this only has work
+ * to do once, after the column is added.
+ */
+@Component
+public class ExcerptBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExcerptBackfill.class);
+
+    @Value("${question.excerpt.backfill-batch-size:500}")
+    private int batchSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread worker = new Thread(() -> {
+            try {
+                int filled = backfill();
+                if (filled > 0) {
+                    logger.info("Backfilled excerpts for {} questions", filled);
+                }
+            } catch (Exception e) {
+                logger.error("Could not backfill question excerpts: {}", e.getMessage());
+            }
+        }, "excerpt-backfill");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * @return number of questions given an excerpt
+     */
+    public int backfill() {
+        int filled = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT id, description FROM questions WHERE excerpt IS NULL ORDER BY id LIMIT ?", batchSize);
+            if (rows.isEmpty()) {
+                return filled;
+            }
+            jdbcTemplate.batchUpdate("UPDATE questions SET excerpt = ? WHERE id = ? AND excerpt IS NULL",
+                    rows.stream()
+                            .map(row -> new Object[] { TextExcerpt.fromHtml((String) row.get("description")),
+                                    row.get("id") })
+                            .toList());
+            filled += rows.size();
+            if (rows.size() < batchSize) {
+                return filled;
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.stackit.backend.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick multi-pattern matcher.
+ * All keywords are found in a single pass over the text regardless of how many
+ * there are. Matching is case-insensitive and only whole words count.
+ */
+public class KeywordMatcher {
+
+    private final Node root = new Node();
+
+    public KeywordMatcher(List<Keyword> keywords) {
+        for (Keyword keyword : keywords) {
+            String term = normalize(keyword.getTerm());
+            if (term.isEmpty()) {
+                continue;
+            }
+            Node node = root;
+            for (int i = 0; i < term.length(); i++) {
+                node = node.children.computeIfAbsent(term.charAt(i), c -> new Node());
+            }
+            node.outputs.add(new Keyword(term, keyword.getList(), keyword.getCategory()));
+        }
+        buildFailureLinks();
+    }
+
+    /**
+     * Lower-case the text and collapse whitespace, the form both keywords and input are matched in
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").trim();
+    }
+
+    /**
+     * Find every whole-word keyword occurrence in already normalized text
+     */
+    public List<Match> findAll(String normalizedText) {
+        List<Match> matches = new ArrayList<>();
+        Node node = root;
+        for (int i = 0; i < normalizedText.length(); i++) {
+            char c = normalizedText.charAt(i);
+            while (node != root && !node.children.containsKey(c)) {
+                node = node.fail;
+            }
+            node = node.children.getOrDefault(c, root);
+
+            for (Keyword keyword : node.outputs) {
+                int start = i - keyword.getTerm().length() + 1;
+                if (isWordBoundary(normalizedText, start, i + 1, keyword.getTerm())) {
+                    matches.add(new Match(start, i + 1, keyword));
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void buildFailureLinks() {
+        Queue<Node> queue = new ArrayDeque<>();
+        for (Node child : root.children.values()) {
+            child.fail = root;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+                char c = entry.getKey();
+                Node child = entry.getValue();
+
+                Node fail = node.fail;
+                while (fail != root && !fail.children.containsKey(c)) {
+                    fail = fail.fail;
+                }
+                Node target = fail.children.get(c);
+                child.fail = target != null && target != child ? target : root;
+                child.outputs.addAll(child.fail.outputs);
+                queue.add(child);
+            }
+        }
+    }
+
+    private boolean isWordBoundary(String text, int start, int end, String term) {
+        boolean startOk = start == 0 || !isWordChar(term.charAt(0)) || !isWordChar(text.charAt(start - 1));
+        boolean endOk = end == text.length() || !isWordChar(term.charAt(term.length() - 1))
+                || !isWordChar(text.charAt(end));
+        return startOk && endOk;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final List<Keyword> outputs = new ArrayList<>();
+        private Node fail;
+    }
+
+    public enum ListType {
+        BLOCK, REVIEW, ALLOW
+    }
+
+    public static class Keyword {
+        private final String term;
+        private final ListType list;
+        private final String category;
+
+        public Keyword(String term, ListType list, String category) {
+            this.term = term;
+            this.list = list;
+            this.category = category;
+        }
+
+        public String getTerm() {
+            return term;
+        }
+
+        public ListType getList() {
+            return list;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+    }
+
+    public static class Match {
+        private final int start;
+        private final int end;
+        private final Keyword keyword;
+
+        public Match(int start, int end, Keyword keyword) {
+            this.start = start;
+            this.end = end;
+            this.keyword = keyword;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        public Keyword getKeyword() {
+            return keyword;
+        }
+
+        public boolean isInside(Match other) {
+            return start >= other.start && end <= other.end;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.ModerationDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Micro-batcher for text moderation.
+ * Concurrent moderateText calls are collected for up to max-delay-ms or
+ * max-size items, sent to the sidecar as one /moderate/text/batch request,
+ * and each verdict is routed back to the caller waiting for it.
+ */
+@Component
+public class ModerationBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModerationBatcher.class);
+
+    @Value("${moderation.api.timeout:30000}")
+    private long timeoutMs;
+
+    @Value("${moderation.batch.enabled:false}")
+    private boolean enabled;
+
+    @Value("${moderation.batch.max-size:16}")
+    private int maxBatchSize;
+
+    @Value("${moderation.batch.max-delay-ms:5}")
+    private long maxDelayMs;
+
+    @Value("${moderation.batch.senders:4}")
+    private int senderCount;
+
+    private final RestTemplate restTemplate;
+
+    @Autowired
+    private ModerationEndpoints moderationEndpoints;
+
+    private final BlockingQueue<PendingText> queue = new LinkedBlockingQueue<>();
+
+    private ExecutorService senders;
+
+    private Thread dispatcher;
+
+    private volatile boolean running;
+
+    public ModerationBatcher(@Qualifier("moderationRestTemplate") RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderCount, runnable -> {
+            Thread thread = new Thread(runnable, "moderation-batch-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.running = true;
+        this.dispatcher = new Thread(this::dispatchLoop, "moderation-batch-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (!enabled) {
+            return;
+        }
+
+        running = false;
+        dispatcher.interrupt();
+        senders.shutdownNow();
+        PendingText pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(new ResourceAccessException("Moderation batcher stopped"));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Number of texts waiting to be dispatched
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Moderate one text as part of the next batch, blocking until its verdict arrives.
+     * Transport failures are rethrown as the original RestTemplate exceptions.
+     */
+    public ModerationDto.ModerationResponse moderateText(String content, String contentType) {
+        PendingText pending = new PendingText(new ModerationDto.ModerationRequest(content, contentType));
+        queue.add(pending);
+
+        try {
+            return pending.future.get(timeoutMs + maxDelayMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ResourceAccessException("Batched text moderation failed: " + e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            throw new ResourceAccessException("Batched text moderation timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while waiting for batched text moderation");
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                PendingText first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                List<PendingText> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingText next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                senders.execute(() -> send(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void send(List<PendingText> batch) {
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+
+            List<ModerationDto.ModerationRequest> items = batch.stream()
+                    .map(pending -> pending.request)
+                    .toList();
+            HttpEntity<ModerationDto.TextBatchModerationRequest> entity = new HttpEntity<>(
+                    new ModerationDto.TextBatchModerationRequest(items), headers);
+
+            ModerationDto.TextBatchModerationResponse response = moderationEndpoints.execute("/moderate/text/batch",
+                    url -> {
+                        logger.debug("Sending batch of {} texts for moderation to: {}", batch.size(), url);
+                        return restTemplate.exchange(
+                                url,
+                                HttpMethod.POST,
+                                entity,
+                                ModerationDto.TextBatchModerationResponse.class).getBody();
+                    });
+
+            List<ModerationDto.ModerationResponse> results = response.getResults();
+            if (results == null || results.size() != batch.size()) {
+                throw new IllegalStateException("Expected " + batch.size() + " batch results but got "
+                        + (results == null ? 0 : results.size()));
+            }
+
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(results.get(i));
+            }
+        } catch (Exception e) {
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+        }
+    }
+
+    private static class PendingText {
+        private final ModerationDto.ModerationRequest request;
+        private final CompletableFuture<ModerationDto.ModerationResponse> future = new CompletableFuture<>();
+
+        private PendingText(ModerationDto.ModerationRequest request) {
+            this.request = request;
+        }
+    }
+}
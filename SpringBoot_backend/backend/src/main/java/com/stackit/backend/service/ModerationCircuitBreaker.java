@@ -0,0 +1,95 @@
+package com.stackit.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Circuit breaker guarding calls to the moderation sidecar.
+ * After a run of consecutive failures the circuit opens and callers fail fast
+ * to the allow fallback; once the open period has elapsed a single trial call
+ * is let through to decide whether to close the circuit again.
+ */
+@Component
+public class ModerationCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModerationCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    @Value("${moderation.circuit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${moderation.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${moderation.circuit.open-ms:30000}")
+    private long openMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    /**
+     * Whether a call to the sidecar may be attempted now
+     */
+    public synchronized boolean allowRequest() {
+        if (!enabled) {
+            return true;
+        }
+
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() - openedAt < openMs) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                logger.info("Moderation circuit half-open, sending trial request");
+                return true;
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            logger.info("Moderation circuit closed");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                logger.warn("Moderation circuit opened after {} consecutive failures", consecutiveFailures);
+            }
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized void reset() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+}
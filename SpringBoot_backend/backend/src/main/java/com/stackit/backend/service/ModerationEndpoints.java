@@ -0,0 +1,315 @@
+package com.stackit.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Client-side load balancing across moderation sidecar instances.
+ * Each call goes to the healthy endpoint with the fewest requests in flight;
+ * endpoints that fail repeatedly are ejected for a while, and write-path calls
+ * can be hedged to a second endpoint once the first passes its p95 latency.
+ */
+@Component
+public class ModerationEndpoints {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModerationEndpoints.class);
+
+    private static final int LATENCY_WINDOW = 128;
+
+    private static final int MIN_HEDGE_SAMPLES = 20;
+
+    @Value("${moderation.api.base-urls:${moderation.api.base-url:http://localhost:8000}}")
+    private String baseUrls;
+
+    @Value("${moderation.endpoints.eject-after-failures:3}")
+    private int ejectAfterFailures;
+
+    @Value("${moderation.endpoints.eject-ms:30000}")
+    private long ejectMs;
+
+    @Value("${moderation.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    @Value("${moderation.hedge.min-delay-ms:20}")
+    private long hedgeMinDelayMs;
+
+    @Value("${moderation.hedge.max-concurrency:32}")
+    private int hedgeMaxConcurrency;
+
+    private List<Endpoint> endpoints = List.of();
+
+    private ExecutorService hedgeExecutor;
+
+    private final AtomicLong hedgesSent = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        this.endpoints = Arrays.stream(baseUrls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .map(url -> url.endsWith("/") ? url.substring(0, url.length() - 1) : url)
+                .map(Endpoint::new)
+                .toList();
+        if (endpoints.isEmpty()) {
+            throw new IllegalStateException("No moderation endpoints configured in moderation.api.base-urls");
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        // No queue: when every thread is busy the caller runs the request itself and is not hedged
+        this.hedgeExecutor = new ThreadPoolExecutor(
+                0,
+                hedgeMaxConcurrency,
+                60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "moderation-hedge-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        logger.info("Moderation endpoints: {}", endpoints.stream().map(endpoint -> endpoint.baseUrl).toList());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    /**
+     * Base URLs of all configured endpoints, ejected or not
+     */
+    public List<String> getBaseUrls() {
+        return endpoints.stream().map(endpoint -> endpoint.baseUrl).toList();
+    }
+
+    /**
+     * Send one request to the least loaded healthy endpoint.
+     * The call receives the full URL for the given path; its exceptions are rethrown.
+     */
+    public <T> T execute(String path, Function<String, T> call) {
+        return invoke(pick(null), path, call);
+    }
+
+    /**
+     * Like {@link #execute}, but if the first endpoint has not answered within its
+     * recent p95 a duplicate request is sent to a second endpoint and whichever
+     * succeeds first wins.
+     */
+    public <T> T executeHedged(String path, Function<String, T> call) {
+        if (!hedgeEnabled || endpoints.size() < 2) {
+            return execute(path, call);
+        }
+
+        Endpoint primary = pick(null);
+        long hedgeDelayMs = primary.hedgeDelayMs();
+        if (hedgeDelayMs < 0) {
+            return invoke(primary, path, call);
+        }
+
+        CompletableFuture<T> first = CompletableFuture.supplyAsync(() -> invoke(primary, path, call), hedgeExecutor);
+        try {
+            return first.get(hedgeDelayMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Fall through and hedge
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while waiting for moderation response");
+        }
+
+        Endpoint secondary = pick(primary);
+        if (secondary == primary) {
+            return join(first);
+        }
+
+        hedgesSent.incrementAndGet();
+        CompletableFuture<T> second = CompletableFuture.supplyAsync(() -> invoke(secondary, path, call), hedgeExecutor);
+
+        // First success wins; fail only if both requests fail
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        first.whenComplete((result, error) -> complete(winner, result, error, failures, false));
+        second.whenComplete((result, error) -> complete(winner, result, error, failures, true));
+        return join(winner);
+    }
+
+    private <T> void complete(CompletableFuture<T> winner, T result, Throwable error, AtomicInteger failures,
+            boolean hedge) {
+        if (error == null) {
+            if (winner.complete(result) && hedge) {
+                hedgesWon.incrementAndGet();
+            }
+        } else if (failures.incrementAndGet() == 2) {
+            winner.completeExceptionally(error);
+        }
+    }
+
+    private <T> T invoke(Endpoint endpoint, String path, Function<String, T> call) {
+        endpoint.outstanding.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            T result = call.apply(endpoint.baseUrl + path);
+            endpoint.recordSuccess((System.nanoTime() - start) / 1_000_000);
+            return result;
+        } catch (HttpClientErrorException e) {
+            // The endpoint answered, only the request was rejected
+            endpoint.recordSuccess((System.nanoTime() - start) / 1_000_000);
+            throw e;
+        } catch (RuntimeException e) {
+            endpoint.recordFailure();
+            throw e;
+        } finally {
+            endpoint.outstanding.decrementAndGet();
+        }
+    }
+
+    /**
+     * Healthy endpoint with the fewest requests in flight, other than the excluded one.
+     * When every endpoint is ejected the one closest to re-admission is used.
+     */
+    private Endpoint pick(Endpoint excluded) {
+        long now = System.currentTimeMillis();
+        Endpoint best = null;
+        Endpoint soonest = null;
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint == excluded) {
+                continue;
+            }
+            if (endpoint.ejectedUntil > now) {
+                if (soonest == null || endpoint.ejectedUntil < soonest.ejectedUntil) {
+                    soonest = endpoint;
+                }
+                continue;
+            }
+            if (best == null || endpoint.outstanding.get() < best.outstanding.get()) {
+                best = endpoint;
+            }
+        }
+        if (best != null) {
+            return best;
+        }
+        return soonest != null ? soonest : excluded;
+    }
+
+    private <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new ResourceAccessException("Moderation request failed: " + cause.getMessage());
+    }
+
+    public Map<String, Object> getStats() {
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> endpointStats = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("url", endpoint.baseUrl);
+            stats.put("outstanding", endpoint.outstanding.get());
+            stats.put("ejected", endpoint.ejectedUntil > now);
+            stats.put("requests", endpoint.requests.get());
+            stats.put("failures", endpoint.failures.get());
+            stats.put("p95Ms", endpoint.p95());
+            endpointStats.add(stats);
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("endpoints", endpointStats);
+        stats.put("hedgeEnabled", hedgeEnabled);
+        stats.put("hedgesSent", hedgesSent.get());
+        stats.put("hedgesWon", hedgesWon.get());
+        return stats;
+    }
+
+    private class Endpoint {
+        private final String baseUrl;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final long[] latencies = new long[LATENCY_WINDOW];
+        private int latencyCount;
+        private int consecutiveFailures;
+        private volatile long ejectedUntil;
+
+        private Endpoint(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        private synchronized void recordSuccess(long latencyMs) {
+            requests.incrementAndGet();
+            latencies[latencyCount % LATENCY_WINDOW] = latencyMs;
+            latencyCount++;
+            consecutiveFailures = 0;
+            ejectedUntil = 0;
+        }
+
+        private synchronized void recordFailure() {
+            requests.incrementAndGet();
+            failures.incrementAndGet();
+            consecutiveFailures++;
+            if (consecutiveFailures >= ejectAfterFailures) {
+                ejectedUntil = System.currentTimeMillis() + ejectMs;
+                logger.warn("Ejecting moderation endpoint {} for {} ms after {} consecutive failures",
+                        baseUrl, ejectMs, consecutiveFailures);
+            }
+        }
+
+        /**
+         * 95th percentile of recent successful calls, or -1 without enough samples
+         */
+        private synchronized long p95() {
+            int size = Math.min(latencyCount, LATENCY_WINDOW);
+            if (size == 0) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(size * 0.95) - 1];
+        }
+
+        /**
+         * How long to wait before hedging, or -1 when not enough is known to hedge
+         */
+        private long hedgeDelayMs() {
+            synchronized (this) {
+                if (latencyCount < MIN_HEDGE_SAMPLES) {
+                    return -1;
+                }
+            }
+            return Math.max(p95(), hedgeMinDelayMs);
+        }
+    }
+}
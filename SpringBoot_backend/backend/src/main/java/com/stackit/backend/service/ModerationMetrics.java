@@ -0,0 +1,119 @@
+package com.stackit.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer instrumentation for the moderation client, exposed through
+ * /actuator/metrics under the moderation.* names.
+ */
+@Component
+public class ModerationMetrics {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ModerationVerdictCache verdictCache;
+
+    @Autowired
+    private ModerationCircuitBreaker circuitBreaker;
+
+    @Autowired
+    private ModerationBatcher moderationBatcher;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("moderation.client.in.flight", inFlight, AtomicInteger::get)
+                .description("Moderation requests currently waiting on the sidecar")
+                .register(registry);
+
+        Gauge.builder("moderation.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Moderation circuit state: 0 closed, 1 open, 2 half-open")
+                .register(registry);
+
+        Gauge.builder("moderation.cache.size", verdictCache, ModerationVerdictCache::size)
+                .description("Cached moderation verdicts")
+                .register(registry);
+        FunctionCounter.builder("moderation.cache.requests", verdictCache, ModerationVerdictCache::getHits)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("moderation.cache.requests", verdictCache, ModerationVerdictCache::getMisses)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("moderation.cache.evictions", verdictCache, ModerationVerdictCache::getEvictions)
+                .register(registry);
+
+        Gauge.builder("moderation.batch.queue.size", moderationBatcher, ModerationBatcher::getQueueSize)
+                .description("Texts waiting for the next moderation batch")
+                .register(registry);
+    }
+
+    /**
+     * Time one call to the sidecar and count it as in flight while it runs
+     *
+     * @param type text, image or batch
+     */
+    public <T> T time(String type, Supplier<T> call) {
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } finally {
+            inFlight.decrementAndGet();
+            Timer.builder("moderation.client.requests")
+                    .description("Latency of moderation sidecar calls")
+                    .tag("type", type)
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Count a verdict by action
+     *
+     * @param source remote, cache or prefilter
+     */
+    public void recordVerdict(String type, String action, String source) {
+        Counter.builder("moderation.verdicts")
+                .tag("type", type)
+                .tag("action", action != null ? action.toLowerCase() : "unknown")
+                .tag("source", source)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Count content allowed without a verdict
+     *
+     * @param reason exception class name, or CircuitOpen / DeadlineExceeded / Rejected
+     */
+    public void recordFailOpen(String type, String reason) {
+        Counter.builder("moderation.fail.open")
+                .description("Content allowed because the moderation service could not be used")
+                .tag("type", type)
+                .tag("exception", reason)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordFailOpen(String type, Throwable error) {
+        recordFailOpen(type, error.getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,189 @@
+package com.stackit.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local keyword pre-filter run before text is sent to the moderation sidecar.
+ * Definite violations from the block lexicon are rejected immediately, and
+ * short text with no risky terms can optionally skip the remote call.
+ */
+@Component
+public class ModerationPreFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModerationPreFilter.class);
+
+    public enum Decision {
+        BLOCK, ALLOW, REMOTE
+    }
+
+    @Value("${moderation.prefilter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${moderation.prefilter.lexicon:classpath:moderation/prefilter-lexicon.txt}")
+    private String lexiconLocation;
+
+    @Value("${moderation.prefilter.skip-remote-max-length:0}")
+    private int skipRemoteMaxLength;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    private volatile Lexicon lexicon = new Lexicon(new KeywordMatcher(List.of()), 0);
+
+    private final AtomicLong blocked = new AtomicLong();
+    private final AtomicLong allowed = new AtomicLong();
+    private final AtomicLong forwarded = new AtomicLong();
+
+    @PostConstruct
+    void loadLexicon() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    /**
+     * Re-read the lexicon and swap in a freshly compiled matcher.
+     * The previous lexicon stays active if the new one cannot be read.
+     */
+    public Map<String, Object> reload() {
+        Resource resource = resourceLoader.getResource(lexiconLocation);
+        List<KeywordMatcher.Keyword> keywords = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            KeywordMatcher.ListType list = null;
+            String category = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                if (line.startsWith("[") && line.endsWith("]")) {
+                    String[] section = line.substring(1, line.length() - 1).split(":", 2);
+                    list = KeywordMatcher.ListType.valueOf(section[0].trim().toUpperCase());
+                    category = section.length > 1 ? section[1].trim() : section[0].trim();
+                    continue;
+                }
+                if (list == null) {
+                    throw new IOException("Term '" + line + "' appears before any [section]");
+                }
+                keywords.add(new KeywordMatcher.Keyword(line, list, category));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new RuntimeException("Could not load moderation lexicon from " + lexiconLocation + ": "
+                    + e.getMessage(), e);
+        }
+
+        this.lexicon = new Lexicon(new KeywordMatcher(keywords), keywords.size());
+        logger.info("Loaded {} moderation pre-filter terms from {}", keywords.size(), lexiconLocation);
+        return getStats();
+    }
+
+    /**
+     * Decide locally whether text is a definite violation, safe to skip, or needs the sidecar
+     */
+    public Result evaluate(String content) {
+        if (!enabled) {
+            return new Result(Decision.REMOTE, List.of());
+        }
+
+        String text = KeywordMatcher.normalize(content);
+        List<KeywordMatcher.Match> matches = lexicon.matcher.findAll(text);
+
+        List<KeywordMatcher.Match> allowSpans = matches.stream()
+                .filter(match -> match.getKeyword().getList() == KeywordMatcher.ListType.ALLOW)
+                .toList();
+
+        Set<String> blockCategories = new LinkedHashSet<>();
+        boolean risky = false;
+        for (KeywordMatcher.Match match : matches) {
+            KeywordMatcher.ListType list = match.getKeyword().getList();
+            if (list == KeywordMatcher.ListType.ALLOW
+                    || allowSpans.stream().anyMatch(match::isInside)) {
+                continue;
+            }
+            if (list == KeywordMatcher.ListType.BLOCK) {
+                blockCategories.add(match.getKeyword().getCategory());
+            } else {
+                risky = true;
+            }
+        }
+
+        if (!blockCategories.isEmpty()) {
+            blocked.incrementAndGet();
+            return new Result(Decision.BLOCK, new ArrayList<>(blockCategories));
+        }
+
+        if (!risky && text.length() <= skipRemoteMaxLength && !containsLink(text)) {
+            allowed.incrementAndGet();
+            return new Result(Decision.ALLOW, List.of());
+        }
+
+        forwarded.incrementAndGet();
+        return new Result(Decision.REMOTE, List.of());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("lexicon", lexiconLocation);
+        stats.put("terms", lexicon.termCount);
+        stats.put("skipRemoteMaxLength", skipRemoteMaxLength);
+        stats.put("blocked", blocked.get());
+        stats.put("allowedLocally", allowed.get());
+        stats.put("forwarded", forwarded.get());
+        return stats;
+    }
+
+    private boolean containsLink(String text) {
+        return text.contains("http") || text.contains("www.") || text.contains("://");
+    }
+
+    public static class Result {
+        private final Decision decision;
+        private final List<String> categories;
+
+        public Result(Decision decision, List<String> categories) {
+            this.decision = decision;
+            this.categories = categories;
+        }
+
+        public Decision getDecision() {
+            return decision;
+        }
+
+        public List<String> getCategories() {
+            return categories;
+        }
+    }
+
+    private static class Lexicon {
+        private final KeywordMatcher matcher;
+        private final int termCount;
+
+        private Lexicon(KeywordMatcher matcher, int termCount) {
+            this.matcher = matcher;
+            this.termCount = termCount;
+        }
+    }
+}
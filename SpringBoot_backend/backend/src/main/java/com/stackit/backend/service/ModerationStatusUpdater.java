@@ -0,0 +1,131 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.entity.ModerationStatus;
+import com.stackit.backend.entity.Tag;
+import com.stackit.backend.repository.AnswerRepository;
+import com.stackit.backend.repository.CommentRepository;
+import com.stackit.backend.repository.QuestionRepository;
+import com.stackit.backend.repository.TagRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Changes the moderation status of a question, answer or comment after its
+ * verdict arrives. The denormalized counters only count visible content, so
+ * content that is shown or hidden moves its parent's answer or comment count,
+ * or its tags' question counts, in the same transaction.
+ */
+@Service
+public class ModerationStatusUpdater {
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private AnswerRepository answerRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @param contentType "question", "answer" or "comment"
+     */
+    public void setStatus(String contentType, Long id, ModerationStatus status) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            switch (contentType) {
+                case "question" -> setQuestionStatus(id, status);
+                case "answer" -> setAnswerStatus(id, status);
+                default -> setCommentStatus(id, status);
+            }
+        });
+    }
+
+    private void setQuestionStatus(Long id, ModerationStatus status) {
+        Map<String, Object> row = lockRow("SELECT moderation_status, created_at FROM questions WHERE id = ? FOR UPDATE",
+                id);
+        if (row == null) {
+            return;
+        }
+        questionRepository.updateModerationStatus(id, status);
+        int delta = visibilityDelta(row, status);
+        List<Long> tagIds = questionRepository.findTagIdsById(id);
+        if (delta == 0 || tagIds.isEmpty()) {
+            eventPublisher.publishEvent(QuestionChangedEvent.of(id));
+            return;
+        }
+        tagRepository.adjustQuestionCount(tagIds, delta);
+        Timestamp createdAt = (Timestamp) row.get("created_at");
+        List<Tag> tags = delta > 0 ? tagRepository.findAllById(tagIds) : List.of();
+        eventPublisher.publishEvent(QuestionChangedEvent.tagsChanged(id,
+                createdAt != null ? createdAt.toLocalDateTime() : null, delta < 0 ? tagIds : List.of(), tags));
+    }
+
+    private void setAnswerStatus(Long id, ModerationStatus status) {
+        Map<String, Object> row = lockRow(
+                "SELECT moderation_status, question_id, is_accepted FROM answers WHERE id = ? FOR UPDATE", id);
+        if (row == null) {
+            return;
+        }
+        answerRepository.updateModerationStatus(id, status);
+        Long questionId = ((Number) row.get("question_id")).longValue();
+        int delta = visibilityDelta(row, status);
+        if (delta != 0) {
+            questionRepository.adjustAnswerCount(questionId, delta);
+            // Only a visible accepted answer marks the question answered
+            if (Boolean.TRUE.equals(row.get("is_accepted"))) {
+                questionRepository.updateHasAcceptedAnswer(questionId, delta > 0);
+            }
+        }
+        eventPublisher.publishEvent(QuestionChangedEvent.of(questionId));
+    }
+
+    private void setCommentStatus(Long id, ModerationStatus status) {
+        Map<String, Object> row = lockRow("SELECT moderation_status, answer_id FROM comments WHERE id = ? FOR UPDATE",
+                id);
+        if (row == null) {
+            return;
+        }
+        commentRepository.updateModerationStatus(id, status);
+        int delta = visibilityDelta(row, status);
+        if (delta != 0) {
+            answerRepository.adjustCommentCount(((Number) row.get("answer_id")).longValue(), delta);
+        }
+    }
+
+    /**
+     * The row's current status and parent, locked until the status change commits
+     */
+    private Map<String, Object> lockRow(String sql, Long id) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, id);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * +1 when the content becomes visible, -1 when it stops being visible, else 0
+     */
+    private static int visibilityDelta(Map<String, Object> row, ModerationStatus status) {
+        String previous = (String) row.get("moderation_status");
+        boolean wasVisible = ModerationStatus.isVisible(previous != null ? ModerationStatus.valueOf(previous) : null);
+        boolean isVisible = ModerationStatus.isVisible(status);
+        return wasVisible == isVisible ? 0 : (isVisible ? 1 : -1);
+    }
+}
@@ -0,0 +1,176 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.ModerationDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-process cache of moderation verdicts.
+ * Entries are keyed by a SHA-256 hash of the moderated content so identical
+ * text or a reused image URL never pays the sidecar round-trip twice.
+ */
+@Component
+public class ModerationVerdictCache {
+
+    @Value("${moderation.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${moderation.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${moderation.cache.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Access-ordered so the eldest entry is always the least recently used one
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > maxSize) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Cache key for a piece of text of the given content type
+     */
+    public String textKey(String content, String contentType) {
+        return hash("text", contentType + "\u0000" + content);
+    }
+
+    /**
+     * Cache key for an image URL
+     */
+    public String imageKey(String imageUrl) {
+        return hash("image", imageUrl);
+    }
+
+    /**
+     * Look up a cached verdict, or null when absent, expired or caching is disabled
+     */
+    public ModerationDto.ModerationResponse get(String key) {
+        if (!enabled) {
+            return null;
+        }
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry.expiresAt < System.currentTimeMillis()) {
+                entries.remove(key);
+                evictions.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.response;
+        }
+    }
+
+    /**
+     * Store a verdict returned by the moderation service
+     */
+    public void put(String key, ModerationDto.ModerationResponse response) {
+        if (!enabled || response == null) {
+            return;
+        }
+
+        synchronized (entries) {
+            entries.put(key, new Entry(response, System.currentTimeMillis() + ttlSeconds * 1000));
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Snapshot of the cache counters
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", size());
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.get());
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        return stats;
+    }
+
+    private String hash(String namespace, String value) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(namespace.getBytes(StandardCharsets.UTF_8));
+            md.update((byte) 0);
+            byte[] digest = md.digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hexString = new StringBuilder();
+            for (byte b : digest) {
+                String hex = Integer.toHexString(0xff & b);
+                if (hex.length() == 1)
+                    hexString.append('0');
+                hexString.append(hex);
+            }
+            return hexString.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Error hashing moderation content", e);
+        }
+    }
+
+    private static class Entry {
+        private final ModerationDto.ModerationResponse response;
+        private final long expiresAt;
+
+        private Entry(ModerationDto.ModerationResponse response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.entity.Tag;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published whenever a question, its tags, its visibility or one of its
+ * answers changes, so the in-memory indexes can re-read it once the write
+ * commits. Listeners use
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT, fallbackExecution = true)}.
+ *
+ * When the tags counted for the question change (tags edited, or the question
+ * created, deleted, shown or hidden) the event also carries that difference,
+ * for indexes that keep counts rather than re-reading the question.
+ */
+public class QuestionChangedEvent {
+
+    private final Long questionId;
+    private final LocalDateTime createdAt;
+    private final List<Long> removedTagIds;
+    private final List<Tag> addedTags;
+    private final boolean scoreOnly;
+
+    private QuestionChangedEvent(Long questionId, LocalDateTime createdAt, Collection<Long> removedTagIds,
+            Collection<Tag> addedTags, boolean scoreOnly) {
+        this.questionId = questionId;
+        this.createdAt = createdAt;
+        this.removedTagIds = List.copyOf(removedTagIds);
+        this.addedTags = List.copyOf(addedTags);
+        this.scoreOnly = scoreOnly;
+    }
+
+    /**
+     * Title, body, answers or visibility changed; counted tags did not
+     */
+    public static QuestionChangedEvent of(Long questionId) {
+        return new QuestionChangedEvent(questionId, null, List.of(), List.of(), false);
+    }
+
+    /**
+     * The question stopped counting for removedTagIds and started counting for addedTags
+     *
+     * @param createdAt when the question was created, which dates the change for windowed counts
+     */
+    public static QuestionChangedEvent tagsChanged(Long questionId, LocalDateTime createdAt,
+            Collection<Long> removedTagIds, Collection<Tag> addedTags) {
+        return new QuestionChangedEvent(questionId, createdAt, removedTagIds, addedTags, false);
+    }
+
+    /**
+     * Only votes or views changed
+     */
+    public static QuestionChangedEvent scoreChanged(Long questionId) {
+        return new QuestionChangedEvent(questionId, null, List.of(), List.of(), true);
+    }
+
+    public Long getQuestionId() {
+        return questionId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public List<Long> getRemovedTagIds() {
+        return removedTagIds;
+    }
+
+    public List<Tag> getAddedTags() {
+        return addedTags;
+    }
+
+    public boolean isScoreOnly() {
+        return scoreOnly;
+    }
+
+    public boolean hasTagChanges() {
+        return !removedTagIds.isEmpty() || !addedTags.isEmpty();
+    }
+}
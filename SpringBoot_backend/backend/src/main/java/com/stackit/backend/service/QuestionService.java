@@ -1,30 +1,56 @@
 package com.stackit.backend.service;
 
+import com.stackit.backend.dto.CursorPage;
 import com.stackit.backend.dto.QuestionDto;
+import com.stackit.backend.dto.QuestionFeedRow;
+import com.stackit.backend.dto.QuestionSuggestionDto;
+import com.stackit.backend.dto.QuestionSummaryDto;
+import com.stackit.backend.dto.QuestionThreadDto;
 import com.stackit.backend.dto.request.CreateQuestionRequest;
+import com.stackit.backend.entity.ModerationStatus;
 import com.stackit.backend.entity.Question;
+import com.stackit.backend.entity.QuestionVote;
 import com.stackit.backend.entity.Tag;
 import com.stackit.backend.entity.User;
 import com.stackit.backend.repository.QuestionRepository;
+import com.stackit.backend.repository.QuestionVoteRepository;
 import com.stackit.backend.repository.TagRepository;
 import com.stackit.backend.repository.UserRepository;
-import com.stackit.backend.exception.ContentModerationException;
-import com.stackit.backend.dto.ModerationDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
 @Service
 public class QuestionService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    // Streamed questions are flushed and detached in chunks of this size, matching the tag batch size
+    private static final int STREAM_CHUNK_SIZE = 100;
+
     @Autowired
     private QuestionRepository questionRepository;
 
@@ -34,53 +60,66 @@ public class QuestionService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private QuestionVoteRepository questionVoteRepository;
+
     @Autowired
     private ImageService imageService;
 
     @Autowired
-    private ContentModerationService contentModerationService;
+    private ContentSubmissionPipeline submissionPipeline;
 
-    public QuestionDto createQuestion(CreateQuestionRequest request, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    @Autowired
+    private AsyncModerationService asyncModerationService;
 
-        // Moderate text content
+    @Autowired
+    private QuestionThreadService questionThreadService;
+
+    @Autowired
+    private QuestionThreadCache threadCache;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private TitleSuggester titleSuggester;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private TagBitmapIndex tagBitmapIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public QuestionDto createQuestion(CreateQuestionRequest request, Long userId) {
         String textContent = request.getTitle() + " " + request.getDescription();
-        ModerationDto.ModerationResponse textModeration = contentModerationService.moderateText(textContent,
-                "question");
+        List<String> imageUrlsList = request.getImageUrls() != null
+                ? new java.util.ArrayList<>(request.getImageUrls())
+                : List.of();
+        ContentSubmissionPipeline.PendingModeration moderation = submissionPipeline
+                .moderateNewContent("Question", "question", textContent, imageUrlsList);
 
-        if (contentModerationService.isContentBlocked(textModeration)) {
-            throw new ContentModerationException(
-                    "Question content violates community guidelines: "
-                            + String.join(", ", textModeration.getFlaggedReasons()),
-                    textContent,
-                    "question",
-                    textModeration.getModerationAction());
-        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Moderate images if present
-        if (request.getImageUrls() != null && !request.getImageUrls().isEmpty()) {
-            List<String> imageUrlsList = new java.util.ArrayList<>(request.getImageUrls());
-            List<ModerationDto.ModerationResponse> imageModerations = contentModerationService
-                    .moderateImages(imageUrlsList);
-
-            for (int i = 0; i < imageModerations.size(); i++) {
-                ModerationDto.ModerationResponse imageModeration = imageModerations.get(i);
-                if (contentModerationService.isContentBlocked(imageModeration)) {
-                    throw new ContentModerationException(
-                            "Question image violates community guidelines: "
-                                    + String.join(", ", imageModeration.getFlaggedReasons()),
-                            imageUrlsList.get(i),
-                            "image",
-                            imageModeration.getModerationAction());
-                }
-            }
-        }
+        moderation.await();
 
         Question question = new Question();
         question.setUser(user);
         question.setTitle(request.getTitle());
         question.setDescription(request.getDescription());
+        question.setExcerpt(TextExcerpt.fromHtml(request.getDescription()));
 
         // Handle image URLs
         if (request.getImageUrls() != null && !request.getImageUrls().isEmpty()) {
@@ -89,157 +128,379 @@ public class QuestionService {
         }
 
         // Handle tags
-        Set<Tag> tags = new HashSet<>();
-        if (request.getTags() != null) {
-            for (String tagName : request.getTags()) {
-                Tag tag = tagRepository.findByName(tagName)
-                        .orElseGet(() -> {
-                            Tag newTag = new Tag();
-                            newTag.setName(tagName);
-                            return tagRepository.save(newTag);
-                        });
-                tags.add(tag);
-            }
-        }
+        Set<Tag> tags = tagService.resolveTags(request.getTags());
         question.setTags(tags);
+        if (moderation.isDeferred()) {
+            question.setModerationStatus(ModerationStatus.PENDING);
+        }
 
-        Question savedQuestion = questionRepository.save(question);
+        Question savedQuestion = transactionTemplate.execute(status -> {
+            Question saved = questionRepository.save(question);
+            // A pending question is counted once its verdict makes it visible
+            if (ModerationStatus.isVisible(saved.getModerationStatus())) {
+                adjustTagCounts(tags, 1);
+                eventPublisher.publishEvent(QuestionChangedEvent.tagsChanged(saved.getId(), saved.getCreatedAt(),
+                        List.of(), tags));
+            } else {
+                eventPublisher.publishEvent(QuestionChangedEvent.of(saved.getId()));
+            }
+            moderation.queueIfFailedOpen(saved.getId());
+            return saved;
+        });
+        if (moderation.isDeferred()) {
+            asyncModerationService.submitQuestion(savedQuestion.getId(), userId, textContent,
+                    imageService.convertToFullUrls(savedQuestion.getImageUrls()));
+        }
         QuestionDto dto = QuestionDto.fromEntity(savedQuestion);
         dto.setImageUrls(imageService.convertToFullUrls(savedQuestion.getImageUrls()));
         return dto;
     }
 
-    public Page<QuestionDto> getAllQuestions(Pageable pageable) {
-        return questionRepository.findAllByOrderByCreatedAtDesc(pageable)
-                .map(question -> {
-                    QuestionDto dto = QuestionDto.fromEntity(question);
-                    dto.setImageUrls(imageService.convertToFullUrls(question.getImageUrls()));
-                    return dto;
-                });
+    public Page<QuestionSummaryDto> getAllQuestions(Pageable pageable) {
+        Page<QuestionFeedRow> rows = questionRepository.findFeedByModerationStatus(ModerationStatus.VISIBLE,
+                pageable);
+        Map<Long, Set<String>> tagsByQuestion = findTagNames(rows.map(QuestionFeedRow::getId).getContent());
+
+        return rows.map(row -> {
+            QuestionSummaryDto dto = row.toSummary();
+            dto.setTags(tagsByQuestion.getOrDefault(row.getId(), new HashSet<>()));
+            return dto;
+        });
     }
 
-    public QuestionDto getQuestionById(Long id) {
-        Question question = questionRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Question not found"));
+    /**
+     * Keyset-paginated feed; cost stays flat however deep the cursor is.
+     * The total is only counted when includeTotal is set.
+     */
+    public CursorPage<QuestionSummaryDto> getQuestionsAfter(String cursor, int size, boolean includeTotal) {
+        QuestionCursor position = QuestionCursor.decode(cursor);
+        List<QuestionFeedRow> rows = questionRepository.findFeedAfter(ModerationStatus.VISIBLE,
+                position.getCreatedAt(), position.getId(), cursorLimit(size));
+        Long total = includeTotal ? questionRepository.countByModerationStatus(ModerationStatus.VISIBLE) : null;
+        return toCursorPage(rows, size, total);
+    }
 
-        // Increment view count
-        question.setViewCount(question.getViewCount() + 1);
-        questionRepository.save(question);
+    /**
+     * Visible questions filtered by several tags, newest first
+     *
+     * @param mode all (every tag), any (at least one) or none (no listed tag)
+     */
+    public Page<QuestionSummaryDto> getQuestionsByTags(List<String> tagNames, String mode, Pageable pageable) {
+        TagBitmapIndex.Hits hits = tagBitmapIndex.filter(tagNames, TagBitmapIndex.Mode.parse(mode),
+                pageable.getOffset(), pageable.getPageSize());
+        if (hits.getQuestionIds().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.getTotalHits());
+        }
+        Map<Long, QuestionFeedRow> rows = questionRepository
+                .findFeedByIds(hits.getQuestionIds(), ModerationStatus.VISIBLE).stream()
+                .collect(Collectors.toMap(QuestionFeedRow::getId, row -> row));
+        List<QuestionFeedRow> newestFirst = hits.getQuestionIds().stream()
+                .map(rows::get)
+                .filter(row -> row != null)
+                .toList();
+        return new PageImpl<>(toSummaries(newestFirst), pageable, hits.getTotalHits());
+    }
 
-        QuestionDto dto = QuestionDto.fromEntity(question);
-        dto.setImageUrls(imageService.convertToFullUrls(question.getImageUrls()));
-        return dto;
+    public CursorPage<QuestionSummaryDto> searchQuestionsAfter(String searchTerm, String cursor, int size,
+            boolean includeTotal) {
+        QuestionCursor position = QuestionCursor.decode(cursor);
+        List<QuestionFeedRow> rows = questionRepository.findBySearchTermAfter(searchTerm,
+                position.getCreatedAt(), position.getId(), cursorLimit(size));
+        Long total = includeTotal ? questionRepository.countBySearchTerm(searchTerm) : null;
+        return toCursorPage(rows, size, total);
     }
 
-    public List<QuestionDto> getQuestionsByTag(String tagName) {
-        return questionRepository.findByTagName(tagName)
-                .stream()
-                .map(question -> {
-                    QuestionDto dto = QuestionDto.fromEntity(question);
-                    dto.setImageUrls(imageService.convertToFullUrls(question.getImageUrls()));
-                    return dto;
-                })
-                .collect(Collectors.toList());
+    public CursorPage<QuestionSummaryDto> getQuestionsByTagAfter(String tagName, String cursor, int size,
+            boolean includeTotal) {
+        QuestionCursor position = QuestionCursor.decode(cursor);
+        List<QuestionFeedRow> rows = questionRepository.findByTagNameAfter(tagName,
+                position.getCreatedAt(), position.getId(), cursorLimit(size));
+        Long total = includeTotal ? questionRepository.countByTagName(tagName) : null;
+        return toCursorPage(rows, size, total);
     }
 
-    public Page<QuestionDto> searchQuestions(String searchTerm, Pageable pageable) {
-        return questionRepository.findBySearchTerm(searchTerm, pageable)
-                .map(question -> {
-                    QuestionDto dto = QuestionDto.fromEntity(question);
-                    dto.setImageUrls(imageService.convertToFullUrls(question.getImageUrls()));
-                    return dto;
-                });
+    public CursorPage<QuestionSummaryDto> getQuestionsByUserAfter(Long userId, String cursor, int size,
+            boolean includeTotal) {
+        QuestionCursor position = QuestionCursor.decode(cursor);
+        List<QuestionFeedRow> rows = questionRepository.findByUserIdAfter(userId,
+                position.getCreatedAt(), position.getId(), cursorLimit(size));
+        Long total = includeTotal
+                ? questionRepository.countByUserIdAndModerationStatus(userId, ModerationStatus.VISIBLE)
+                : null;
+        return toCursorPage(rows, size, total);
     }
 
-    public List<QuestionDto> getQuestionsByUser(Long userId) {
-        return questionRepository.findByUserIdOrderByCreatedAtDesc(userId)
-                .stream()
-                .map(question -> {
-                    QuestionDto dto = QuestionDto.fromEntity(question);
-                    dto.setImageUrls(imageService.convertToFullUrls(question.getImageUrls()));
+    // One extra row tells whether another page follows
+    private Pageable cursorLimit(int size) {
+        return PageRequest.of(0, Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE) + 1);
+    }
+
+    private CursorPage<QuestionSummaryDto> toCursorPage(List<QuestionFeedRow> rows, int size, Long total) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        boolean hasNext = rows.size() > pageSize;
+        List<QuestionFeedRow> page = hasNext ? rows.subList(0, pageSize) : rows;
+        List<QuestionSummaryDto> content = toSummaries(page);
+
+        String nextCursor = null;
+        if (hasNext) {
+            QuestionFeedRow last = page.get(page.size() - 1);
+            nextCursor = QuestionCursor.encode(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPage<>(content, content.size(), hasNext, nextCursor, total);
+    }
+
+    private List<QuestionSummaryDto> toSummaries(List<QuestionFeedRow> rows) {
+        Map<Long, Set<String>> tagsByQuestion = findTagNames(rows.stream().map(QuestionFeedRow::getId).toList());
+        return rows.stream()
+                .map(row -> {
+                    QuestionSummaryDto dto = row.toSummary();
+                    dto.setTags(tagsByQuestion.getOrDefault(row.getId(), new HashSet<>()));
                     return dto;
                 })
                 .collect(Collectors.toList());
     }
 
-    public QuestionDto updateQuestion(Long id, Long userId, CreateQuestionRequest request) {
-        Question question = questionRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Question not found"));
-        if (!question.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Only the question owner can update the question");
+    /**
+     * Tag names for a page of questions, loaded with one IN query
+     */
+    private Map<Long, Set<String>> findTagNames(List<Long> questionIds) {
+        Map<Long, Set<String>> tagsByQuestion = new HashMap<>();
+        if (questionIds.isEmpty()) {
+            return tagsByQuestion;
         }
+        for (Object[] row : questionRepository.findTagNamesByQuestionIds(questionIds)) {
+            tagsByQuestion.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((String) row[1]);
+        }
+        return tagsByQuestion;
+    }
 
-        // Moderate text content
-        String textContent = request.getTitle() + " " + request.getDescription();
-        ModerationDto.ModerationResponse textModeration = contentModerationService.moderateText(textContent,
-                "question");
+    public QuestionDto getQuestionById(Long id) {
+        return questionThreadService.getQuestionForViewer(id);
+    }
+
+    /**
+     * Question, answers and comments for a question page in one call
+     */
+    public QuestionThreadDto getQuestionThread(Long id, Long userId) {
+        return questionThreadService.getThreadForViewer(id, userId);
+    }
 
-        if (contentModerationService.isContentBlocked(textModeration)) {
-            throw new ContentModerationException(
-                    "Updated question content violates community guidelines: "
-                            + String.join(", ", textModeration.getFlaggedReasons()),
-                    textContent,
-                    "question",
-                    textModeration.getModerationAction());
+    /**
+     * The newest visible questions with a tag as a plain list, for clients that
+     * do not pass a cursor; the NDJSON stream serves every question
+     */
+    public List<QuestionSummaryDto> getQuestionsByTag(String tagName, int size) {
+        return getQuestionsByTagAfter(tagName, null, size, false).getContent();
+    }
+
+    /**
+     * The newest visible questions of a user as a plain list, for clients that
+     * do not pass a cursor; the NDJSON stream serves every question
+     */
+    public List<QuestionSummaryDto> getQuestionsByUser(Long userId, int size) {
+        return getQuestionsByUserAfter(userId, null, size, false).getContent();
+    }
+
+    /**
+     * Write every visible question with a tag as NDJSON
+     *
+     * @return number of questions written
+     */
+    @Transactional(readOnly = true)
+    public int streamQuestionsByTag(String tagName, OutputStream out) throws IOException {
+        try (Stream<Question> questions = questionRepository.streamByTagName(tagName)) {
+            return writeNdjson(questions, out);
         }
+    }
 
-        // Moderate images if present
-        if (request.getImageUrls() != null && !request.getImageUrls().isEmpty()) {
-            List<String> imageUrlsList = new java.util.ArrayList<>(request.getImageUrls());
-            List<ModerationDto.ModerationResponse> imageModerations = contentModerationService
-                    .moderateImages(imageUrlsList);
-
-            for (int i = 0; i < imageModerations.size(); i++) {
-                ModerationDto.ModerationResponse imageModeration = imageModerations.get(i);
-                if (contentModerationService.isContentBlocked(imageModeration)) {
-                    throw new ContentModerationException(
-                            "Updated question image violates community guidelines: "
-                                    + String.join(", ", imageModeration.getFlaggedReasons()),
-                            imageUrlsList.get(i),
-                            "image",
-                            imageModeration.getModerationAction());
+    /**
+     * Write every visible question of a user as NDJSON
+     *
+     * @return number of questions written
+     */
+    @Transactional(readOnly = true)
+    public int streamQuestionsByUser(Long userId, OutputStream out) throws IOException {
+        try (Stream<Question> questions = questionRepository.streamByUserId(userId)) {
+            return writeNdjson(questions, out);
+        }
+    }
+
+    /**
+     * One JSON object per line. Questions are read in chunks so each chunk's tags
+     * load in one batch, then flushed and detached so memory stays flat however
+     * many questions are streamed.
+     */
+    private int writeNdjson(Stream<Question> questions, OutputStream out) throws IOException {
+        int written = 0;
+        List<Question> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        Iterator<Question> iterator = questions.iterator();
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == STREAM_CHUNK_SIZE || !iterator.hasNext()) {
+                for (Question question : chunk) {
+                    out.write(objectMapper.writeValueAsBytes(QuestionSummaryDto.fromEntity(question)));
+                    out.write('\n');
                 }
+                written += chunk.size();
+                chunk.clear();
+                out.flush();
+                entityManager.clear();
+            }
+        }
+        out.flush();
+        return written;
+    }
+
+    /**
+     * Titles similar to what is being typed in the ask box
+     */
+    public List<QuestionSuggestionDto> suggestQuestions(String query, int limit) {
+        return titleSuggester.suggest(query, limit);
+    }
+
+    /**
+     * Questions ranked by relevance from the search index. Until the index has
+     * loaded, falls back to a LIKE match on title and description.
+     */
+    public Page<QuestionSummaryDto> searchQuestions(String searchTerm, Pageable pageable) {
+        if (searchIndex.isReady()) {
+            SearchIndex.Hits hits = searchIndex.search(searchTerm, (int) pageable.getOffset(),
+                    pageable.getPageSize());
+            if (hits.getQuestionIds().isEmpty()) {
+                return new PageImpl<>(List.of(), pageable, hits.getTotalHits());
             }
+            // Hits for questions deleted or hidden since they were indexed are dropped here
+            Map<Long, QuestionFeedRow> rows = questionRepository
+                    .findFeedByIds(hits.getQuestionIds(), ModerationStatus.VISIBLE).stream()
+                    .collect(Collectors.toMap(QuestionFeedRow::getId, row -> row));
+            List<QuestionFeedRow> ranked = hits.getQuestionIds().stream()
+                    .map(rows::get)
+                    .filter(row -> row != null)
+                    .toList();
+            return new PageImpl<>(toSummaries(ranked), pageable, hits.getTotalHits());
+        }
+        return questionRepository.findBySearchTerm(searchTerm, pageable).map(QuestionSummaryDto::fromEntity);
+    }
+
+    public QuestionDto updateQuestion(Long id, Long userId, CreateQuestionRequest request) {
+        String textContent = request.getTitle() + " " + request.getDescription();
+        List<String> imageUrlsList = request.getImageUrls() != null
+                ? new java.util.ArrayList<>(request.getImageUrls())
+                : List.of();
+        ContentSubmissionPipeline.PendingModeration moderation = submissionPipeline
+                .moderateEdit("Updated question", "question", textContent, imageUrlsList);
+
+        Question question = questionRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Question not found"));
+        if (!question.getUser().getId().equals(userId)) {
+            throw new RuntimeException("Only the question owner can update the question");
         }
+        // Read before the entity is touched, so a flush cannot show the new tags
+        Set<Long> previousTagIds = new HashSet<>(questionRepository.findTagIdsById(id));
+
+        moderation.await();
 
         question.setTitle(request.getTitle());
         question.setDescription(request.getDescription());
+        question.setExcerpt(TextExcerpt.fromHtml(request.getDescription()));
         // Handle image URLs
         if (request.getImageUrls() != null) {
             question.setImageUrls(imageService.convertToString(new java.util.ArrayList<>(request.getImageUrls())));
         }
         // Handle tags
-        Set<Tag> tags = new HashSet<>();
-        if (request.getTags() != null) {
-            for (String tagName : request.getTags()) {
-                Tag tag = tagRepository.findByName(tagName)
-                        .orElseGet(() -> {
-                            Tag newTag = new Tag();
-                            newTag.setName(tagName);
-                            return tagRepository.save(newTag);
-                        });
-                tags.add(tag);
-            }
-        }
+        Set<Tag> tags = tagService.resolveTags(request.getTags());
         question.setTags(tags);
-        Question saved = questionRepository.save(question);
+        Set<Long> removedTagIds = new HashSet<>(previousTagIds);
+        tags.forEach(tag -> removedTagIds.remove(tag.getId()));
+        Set<Tag> addedTags = tags.stream()
+                .filter(tag -> !previousTagIds.contains(tag.getId()))
+                .collect(Collectors.toSet());
+        boolean counted = ModerationStatus.isVisible(question.getModerationStatus());
+        Question saved = transactionTemplate.execute(status -> {
+            Question updated = questionRepository.save(question);
+            moderation.queueIfFailedOpen(id);
+            if (!counted) {
+                eventPublisher.publishEvent(QuestionChangedEvent.of(id));
+                return updated;
+            }
+            if (!removedTagIds.isEmpty()) {
+                tagRepository.adjustQuestionCount(removedTagIds, -1);
+            }
+            adjustTagCounts(addedTags, 1);
+            eventPublisher.publishEvent(QuestionChangedEvent.tagsChanged(id, updated.getCreatedAt(),
+                    removedTagIds, addedTags));
+            return updated;
+        });
+        threadCache.evictQuestion(id);
         QuestionDto dto = QuestionDto.fromEntity(saved);
         dto.setImageUrls(imageService.convertToFullUrls(saved.getImageUrls()));
         return dto;
     }
 
+    @Transactional
     public void deleteQuestion(Long id, Long userId) {
         Question question = questionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Question not found"));
         if (!question.getUser().getId().equals(userId)) {
             throw new RuntimeException("Only the question owner can delete the question");
         }
+        List<Long> tagIds = questionRepository.findTagIdsById(id);
+        questionVoteRepository.deleteByQuestionId(id);
         questionRepository.delete(question);
+        threadCache.evictQuestion(id);
+        if (ModerationStatus.isVisible(question.getModerationStatus())) {
+            if (!tagIds.isEmpty()) {
+                tagRepository.adjustQuestionCount(tagIds, -1);
+            }
+            eventPublisher.publishEvent(QuestionChangedEvent.tagsChanged(id, question.getCreatedAt(), tagIds,
+                    List.of()));
+        } else {
+            eventPublisher.publishEvent(QuestionChangedEvent.of(id));
+        }
+    }
+
+    private void adjustTagCounts(Set<Tag> tags, int delta) {
+        if (!tags.isEmpty()) {
+            tagRepository.adjustQuestionCount(tags.stream().map(Tag::getId).toList(), delta);
+        }
     }
 
+    /**
+     * Cast, change or withdraw (vote 0) a user's vote on a question
+     *
+     * @return the question's score after the vote
+     */
+    @Transactional
     public int voteQuestion(Long id, Long userId, int vote) {
-        // TODO: Implement voting logic (e.g., upvote/downvote, store in Vote entity)
-        // For now, just return 0
-        return 0;
+        if (vote < -1 || vote > 1) {
+            throw new RuntimeException("Vote must be 1, -1 or 0");
+        }
+        Question question = questionRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Question not found"));
+
+        QuestionVote existing = questionVoteRepository.findByUserIdAndQuestionId(userId, id).orElse(null);
+        int previous = existing != null ? existing.getVoteType() : 0;
+        if (vote == previous) {
+            return questionRepository.findVoteScoreById(id);
+        }
+
+        if (vote == 0) {
+            questionVoteRepository.delete(existing);
+        } else if (existing != null) {
+            existing.setVoteType(vote);
+            questionVoteRepository.save(existing);
+        } else {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            QuestionVote newVote = new QuestionVote();
+            newVote.setUser(user);
+            newVote.setQuestion(question);
+            newVote.setVoteType(vote);
+            questionVoteRepository.save(newVote);
+        }
+        questionRepository.adjustVoteScore(id, vote - previous);
+        threadCache.evictQuestion(id);
+        eventPublisher.publishEvent(QuestionChangedEvent.scoreChanged(id));
+        return questionRepository.findVoteScoreById(id);
     }
 }
\ No newline at end of file
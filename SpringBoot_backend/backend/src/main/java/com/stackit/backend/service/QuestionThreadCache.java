@@ -0,0 +1,270 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.AnswerDto;
+import com.stackit.backend.dto.QuestionThreadDto;
+import com.stackit.backend.repository.AnswerRepository;
+import com.stackit.backend.repository.CommentRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of assembled question threads.
+ * Entries are evicted by the writes that change a thread rather than by age;
+ * the TTL is only a backstop for updates made outside the services, such as
+ * the counter reconciler. An answer id to question id index lets comment
+ * reads find the cached thread they belong to without a query.
+ */
+@Component
+public class QuestionThreadCache {
+
+    @Value("${question.thread.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${question.thread.cache.max-size:1000}")
+    private int maxSize;
+
+    @Value("${question.thread.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private AnswerRepository answerRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    // Answer id -> question id for every answer in a cached thread
+    private final Map<Long, Long> threadByAnswer = new HashMap<>();
+
+    // Question id -> token of the newest load in progress; an eviction removes it so the load is not stored
+    private final Map<Long, Object> loading = new HashMap<>();
+
+    // Access-ordered so the eldest entry is always the least recently used one
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            if (size() > maxSize) {
+                unindex(eldest.getValue());
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("question.thread.cache.size", this, QuestionThreadCache::size)
+                .description("Cached question threads")
+                .register(registry);
+        FunctionCounter.builder("question.thread.cache.requests", this, QuestionThreadCache::getHits)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("question.thread.cache.requests", this, QuestionThreadCache::getMisses)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("question.thread.cache.evictions", this, QuestionThreadCache::getEvictions)
+                .register(registry);
+        Gauge.builder("question.thread.cache.hit.ratio", this, QuestionThreadCache::getHitRatio)
+                .description("Share of thread lookups served from the cache")
+                .register(registry);
+    }
+
+    /**
+     * Cached thread of a question, assembled with the loader on a miss.
+     * A load that overlaps an eviction of the same question is returned but not stored.
+     */
+    public QuestionThreadDto get(Long questionId, Supplier<QuestionThreadDto> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        Object token = new Object();
+        synchronized (entries) {
+            Entry entry = entries.get(questionId);
+            if (entry != null && entry.expiresAt >= System.currentTimeMillis()) {
+                hits++;
+                return entry.thread;
+            }
+            if (entry != null) {
+                remove(questionId);
+                evictions++;
+            }
+            misses++;
+            loading.put(questionId, token);
+        }
+
+        QuestionThreadDto thread;
+        try {
+            thread = loader.get();
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                loading.remove(questionId, token);
+            }
+            throw e;
+        }
+
+        synchronized (entries) {
+            if (loading.remove(questionId, token)) {
+                Entry entry = new Entry(questionId, thread, System.currentTimeMillis() + ttlSeconds * 1000);
+                entries.put(questionId, entry);
+                for (AnswerDto answer : thread.getAnswers()) {
+                    threadByAnswer.put(answer.getId(), questionId);
+                }
+            }
+        }
+        return thread;
+    }
+
+    /**
+     * Question whose cached thread contains the answer, or null if none does
+     */
+    public Long findCachedQuestionId(Long answerId) {
+        synchronized (entries) {
+            return threadByAnswer.get(answerId);
+        }
+    }
+
+    /**
+     * Evict a question's thread now and, inside a transaction, again after commit
+     * so a read racing the write cannot cache the old state.
+     */
+    public void evictQuestion(Long questionId) {
+        if (questionId == null) {
+            return;
+        }
+        evictNow(questionId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(questionId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Evict the thread of a moderated piece of content whose visibility changed.
+     * Newly visible answers are not in the index yet, so their thread is looked up.
+     */
+    public void evictContent(String contentType, Long id) {
+        switch (contentType) {
+            case "question" -> evictQuestion(id);
+            case "answer" -> evictQuestion(answerRepository.findQuestionIdById(id));
+            default -> evictQuestion(commentRepository.findQuestionIdById(id));
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            threadByAnswer.clear();
+            loading.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        synchronized (entries) {
+            return hits;
+        }
+    }
+
+    public long getMisses() {
+        synchronized (entries) {
+            return misses;
+        }
+    }
+
+    public long getEvictions() {
+        synchronized (entries) {
+            return evictions;
+        }
+    }
+
+    public double getHitRatio() {
+        synchronized (entries) {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    /**
+     * Snapshot of the cache counters
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (entries) {
+            stats.put("enabled", enabled);
+            stats.put("size", entries.size());
+            stats.put("maxSize", maxSize);
+            stats.put("ttlSeconds", ttlSeconds);
+            stats.put("hits", hits);
+            stats.put("misses", misses);
+            stats.put("evictions", evictions);
+            stats.put("indexedAnswers", threadByAnswer.size());
+        }
+        stats.put("hitRatio", getHitRatio());
+        return stats;
+    }
+
+    private void evictNow(Long questionId) {
+        synchronized (entries) {
+            loading.remove(questionId);
+            if (remove(questionId)) {
+                evictions++;
+            }
+        }
+    }
+
+    private boolean remove(Long questionId) {
+        Entry entry = entries.remove(questionId);
+        if (entry == null) {
+            return false;
+        }
+        unindex(entry);
+        return true;
+    }
+
+    private void unindex(Entry entry) {
+        for (AnswerDto answer : entry.thread.getAnswers()) {
+            threadByAnswer.remove(answer.getId(), entry.questionId);
+        }
+    }
+
+    private static class Entry {
+        private final Long questionId;
+        private final QuestionThreadDto thread;
+        private final long expiresAt;
+
+        private Entry(Long questionId, QuestionThreadDto thread, long expiresAt) {
+            this.questionId = questionId;
+            this.thread = thread;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
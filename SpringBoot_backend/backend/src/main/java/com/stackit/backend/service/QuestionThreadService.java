@@ -0,0 +1,139 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.AnswerDto;
+import com.stackit.backend.dto.CommentDto;
+import com.stackit.backend.dto.QuestionDto;
+import com.stackit.backend.dto.QuestionThreadDto;
+import com.stackit.backend.entity.Answer;
+import com.stackit.backend.entity.Comment;
+import com.stackit.backend.entity.ModerationStatus;
+import com.stackit.backend.entity.Question;
+import com.stackit.backend.repository.AnswerRepository;
+import com.stackit.backend.repository.CommentRepository;
+import com.stackit.backend.repository.QuestionRepository;
+import com.stackit.backend.repository.VoteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assembles question threads and serves them through {@link QuestionThreadCache}.
+ * A thread is loaded with a fixed number of statements however many answers
+ * and comments it has: the question, the answers, and one IN-list batch for
+ * all comments, each with its authors fetched in the same statement.
+ * Cached threads are shared between requests, so callers must not modify them.
+ */
+@Service
+public class QuestionThreadService {
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private AnswerRepository answerRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private QuestionThreadCache threadCache;
+
+    @Autowired
+    private ViewCountBuffer viewCountBuffer;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public QuestionThreadDto getThread(Long questionId) {
+        return threadCache.get(questionId, () -> transactionTemplate.execute(status -> assemble(questionId)));
+    }
+
+    /**
+     * Thread as shown to one reader: counts the view, applies the live view count
+     * and, when a user is given, fills in that user's votes with one batched query.
+     */
+    public QuestionThreadDto getThreadForViewer(Long questionId, Long userId) {
+        QuestionThreadDto cached = getThread(questionId);
+        QuestionDto question = view(questionId, cached.getQuestion());
+
+        List<AnswerDto> answers = cached.getAnswers();
+        if (userId != null && !answers.isEmpty()) {
+            Map<Long, Integer> votes = new HashMap<>();
+            for (Object[] row : voteRepository.findVoteTypesByUserIdAndAnswerIds(userId,
+                    answers.stream().map(AnswerDto::getId).toList())) {
+                votes.put((Long) row[0], (Integer) row[1]);
+            }
+            answers = answers.stream()
+                    .map(answer -> {
+                        AnswerDto dto = answer.copy();
+                        dto.setUserVote(votes.getOrDefault(answer.getId(), 0));
+                        return dto;
+                    })
+                    .toList();
+        }
+        return new QuestionThreadDto(question, answers, cached.getComments());
+    }
+
+    /**
+     * Just the question from the cached thread, with the view counted
+     */
+    public QuestionDto getQuestionForViewer(Long questionId) {
+        return view(questionId, getThread(questionId).getQuestion());
+    }
+
+    /**
+     * Count a view and return a copy of the cached question with the live view count
+     */
+    private QuestionDto view(Long questionId, QuestionDto cached) {
+        // Buffered and written back in batches by ViewCountBuffer
+        viewCountBuffer.recordView(questionId);
+
+        QuestionDto question = cached.copy();
+        question.setViewCount(cached.getViewCount()
+                + (int) (viewCountBuffer.getFlushedViews(questionId) + viewCountBuffer.getPendingViews(questionId)));
+        return question;
+    }
+
+    private QuestionThreadDto assemble(Long questionId) {
+        Question question = questionRepository.findThreadQuestion(questionId)
+                .filter(q -> ModerationStatus.isVisible(q.getModerationStatus()))
+                .orElseThrow(() -> new RuntimeException("Question not found"));
+        QuestionDto questionDto = QuestionDto.fromEntity(question);
+        // Read after the row, so views flushed since are not counted twice; readers add them back
+        questionDto.setViewCount(questionDto.getViewCount() - (int) viewCountBuffer.getFlushedViews(questionId));
+        questionDto.setImageUrls(imageService.convertToFullUrls(question.getImageUrls()));
+
+        List<Answer> answers = answerRepository.findThreadAnswers(questionId, ModerationStatus.VISIBLE);
+        List<AnswerDto> answerDtos = new ArrayList<>(answers.size());
+        Map<Long, List<CommentDto>> comments = new HashMap<>();
+        for (Answer answer : answers) {
+            AnswerDto dto = AnswerDto.fromEntity(answer);
+            dto.setImageUrls(imageService.convertToFullUrls(answer.getImageUrls()));
+            answerDtos.add(dto);
+            comments.put(answer.getId(), new ArrayList<>());
+        }
+
+        if (!answers.isEmpty()) {
+            for (Comment comment : commentRepository.findThreadComments(comments.keySet(), ModerationStatus.VISIBLE)) {
+                CommentDto dto = CommentDto.fromEntity(comment);
+                dto.setImageUrls(imageService.convertToFullUrls(comment.getImageUrls()));
+                comments.get(comment.getAnswer().getId()).add(dto);
+            }
+        }
+
+        Map<Long, List<CommentDto>> frozen = new HashMap<>();
+        comments.forEach((answerId, list) -> frozen.put(answerId, List.copyOf(list)));
+        return new QuestionThreadDto(questionDto, List.copyOf(answerDtos), Map.copyOf(frozen));
+    }
+}
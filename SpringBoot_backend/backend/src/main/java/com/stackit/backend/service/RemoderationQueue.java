@@ -0,0 +1,228 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.ModerationDto;
+import com.stackit.backend.entity.Answer;
+import com.stackit.backend.entity.Comment;
+import com.stackit.backend.entity.ModerationStatus;
+import com.stackit.backend.entity.Question;
+import com.stackit.backend.entity.RemoderationTask;
+import com.stackit.backend.repository.AnswerRepository;
+import com.stackit.backend.repository.CommentRepository;
+import com.stackit.backend.repository.QuestionRepository;
+import com.stackit.backend.repository.RemoderationTaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable queue of content that was allowed without a verdict while the
+ * moderation service was unavailable.
+ * Once the service reports healthy again, queued items are re-checked at most
+ * batch-size per interval, least recently tried first, and anything now blocked
+ * is hidden. An item that still gets no verdict is retried in a later round and
+ * given up on after max-attempts, so it cannot hold up the rest of the queue.
+ */
+@Service
+public class RemoderationQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoderationQueue.class);
+
+    @Value("${moderation.remoderation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${moderation.remoderation.batch-size:20}")
+    private int batchSize;
+
+    @Value("${moderation.remoderation.interval-ms:10000}")
+    private long intervalMs;
+
+    @Value("${moderation.remoderation.max-attempts:10}")
+    private int maxAttempts;
+
+    @Autowired
+    private RemoderationTaskRepository taskRepository;
+
+    @Autowired
+    private ContentModerationService contentModerationService;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private AnswerRepository answerRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private QuestionThreadCache threadCache;
+
+    @Autowired
+    private ModerationStatusUpdater statusUpdater;
+
+    private final AtomicLong rechecked = new AtomicLong();
+    private final AtomicLong blocked = new AtomicLong();
+
+    /**
+     * Record that a question, answer or comment was published on a fail-open verdict.
+     * Must run in the transaction that saves the content, so the content is
+     * never committed without its task; a failure here rolls the save back.
+     */
+    public void enqueue(String contentType, Long contentId) {
+        if (!enabled || contentId == null) {
+            return;
+        }
+
+        if (!taskRepository.existsByContentTypeAndContentId(contentType, contentId)) {
+            RemoderationTask task = new RemoderationTask();
+            task.setContentType(contentType);
+            task.setContentId(contentId);
+            taskRepository.save(task);
+            logger.info("Queued {} {} for re-moderation", contentType, contentId);
+        }
+    }
+
+    /**
+     * Re-check the least recently tried items if the moderation service is healthy.
+     * Items that still cannot get a verdict are skipped and their attempt recorded.
+     *
+     * @return number of items removed from the queue
+     */
+    @Scheduled(fixedDelayString = "${moderation.remoderation.interval-ms:10000}",
+            initialDelayString = "${moderation.remoderation.interval-ms:10000}")
+    public synchronized int drain() {
+        if (!enabled) {
+            return 0;
+        }
+
+        List<RemoderationTask> tasks = taskRepository.findDue(maxAttempts, PageRequest.of(0, batchSize));
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+
+        if (!contentModerationService.isServiceHealthy()) {
+            logger.debug("Moderation service unhealthy, {} or more items wait for re-moderation", tasks.size());
+            return 0;
+        }
+
+        int done = 0;
+        for (RemoderationTask task : tasks) {
+            if (!recheck(task)) {
+                task.setAttempts(task.getAttempts() + 1);
+                task.setLastAttemptAt(LocalDateTime.now());
+                taskRepository.save(task);
+                if (task.getAttempts() >= maxAttempts) {
+                    logger.warn("Giving up re-moderating {} {} after {} attempts", task.getContentType(),
+                            task.getContentId(), task.getAttempts());
+                }
+                continue;
+            }
+            taskRepository.delete(task);
+            done++;
+        }
+
+        if (done > 0) {
+            logger.info("Re-moderated {} queued items", done);
+        }
+        return done;
+    }
+
+    /**
+     * @return false when the content still could not get a verdict
+     */
+    private boolean recheck(RemoderationTask task) {
+        String text;
+        String imageUrls;
+        ModerationStatus status;
+
+        switch (task.getContentType()) {
+            case "question" -> {
+                Question question = questionRepository.findById(task.getContentId()).orElse(null);
+                if (question == null) {
+                    return true;
+                }
+                text = question.getTitle() + " " + question.getDescription();
+                imageUrls = question.getImageUrls();
+                status = question.getModerationStatus();
+            }
+            case "answer" -> {
+                Answer answer = answerRepository.findById(task.getContentId()).orElse(null);
+                if (answer == null) {
+                    return true;
+                }
+                text = answer.getDescription();
+                imageUrls = answer.getImageUrls();
+                status = answer.getModerationStatus();
+            }
+            default -> {
+                Comment comment = commentRepository.findById(task.getContentId()).orElse(null);
+                if (comment == null) {
+                    return true;
+                }
+                text = comment.getContent();
+                imageUrls = comment.getImageUrls();
+                status = comment.getModerationStatus();
+            }
+        }
+
+        // Already blocked, or still waiting for publish-then-moderate
+        if (!ModerationStatus.isVisible(status)) {
+            return true;
+        }
+
+        ModerationDto.ModerationResponse verdict = contentModerationService.moderateText(text, task.getContentType());
+        if (verdict.isFailOpen()) {
+            return false;
+        }
+
+        List<String> images = imageService.convertToFullUrls(imageUrls);
+        if (!contentModerationService.isContentBlocked(verdict) && !images.isEmpty()) {
+            for (ModerationDto.ModerationResponse imageVerdict : contentModerationService.moderateImages(images)) {
+                if (imageVerdict.isFailOpen()) {
+                    return false;
+                }
+                if (contentModerationService.isContentBlocked(imageVerdict)) {
+                    verdict = imageVerdict;
+                    break;
+                }
+            }
+        }
+
+        rechecked.incrementAndGet();
+        if (contentModerationService.isContentBlocked(verdict)) {
+            statusUpdater.setStatus(task.getContentType(), task.getContentId(), ModerationStatus.BLOCKED);
+            threadCache.evictContent(task.getContentType(), task.getContentId());
+            blocked.incrementAndGet();
+            logger.info("Re-moderation blocked {} {}: {}", task.getContentType(), task.getContentId(),
+                    verdict.getFlaggedReasons());
+        }
+        return true;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        long exhausted = taskRepository.countByAttemptsGreaterThanEqual(maxAttempts);
+        stats.put("pending", taskRepository.count() - exhausted);
+        stats.put("exhausted", exhausted);
+        stats.put("maxAttempts", maxAttempts);
+        stats.put("batchSize", batchSize);
+        stats.put("intervalMs", intervalMs);
+        stats.put("rechecked", rechecked.get());
+        stats.put("blocked", blocked.get());
+        return stats;
+    }
+}
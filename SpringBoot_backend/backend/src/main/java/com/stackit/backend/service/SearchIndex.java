@@ -0,0 +1,604 @@
+package com.stackit.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Embedded full-text index over question titles, descriptions, tags and answer
+ * text, ranked with BM25.
+ *
+ * The index is one immutable memory-mapped {@link SearchSegment} on local disk
+ * plus an in-memory delta of questions changed since the segment was written.
+ * A delta entry hides the segment's copy of that question, so updates and
+ * deletes take effect immediately. When the delta grows past
+ * search.index.max-delta-docs it is merged into a new segment; a full rebuild
+ * from the database goes through the same swap.
+ *
+ * On startup the newest segment is mapped and questions changed after its
+ * watermark are re-indexed; without a segment the index is rebuilt. Until then
+ * {@link #isReady()} is false and searches fall back to the database.
+ */
+@Component
+public class SearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndex.class);
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Term weight per field; a question's length is the sum of its weights
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float TAG_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float ANSWER_WEIGHT = 0.5f;
+
+    // Only text readers can see is indexed, so hidden words never match and hits count only visible questions
+    private static final String VISIBLE = "COALESCE(moderation_status, 'VISIBLE') = 'VISIBLE'";
+
+    // Changes committed this close to a snapshot may not be indexed yet, so the watermark sits before it
+    private static final long WATERMARK_MARGIN_MS = 5000;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".idx";
+
+    @Value("${search.index.enabled:true}")
+    private boolean enabled;
+
+    // Blank keeps segments in a temporary directory, for in-memory databases
+    @Value("${search.index.dir:data/search-index}")
+    private String indexDir;
+
+    @Value("${search.index.max-delta-docs:10000}")
+    private int maxDeltaDocs;
+
+    @Value("${search.index.fetch-size:1000}")
+    private int fetchSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong searchNanos = new AtomicLong();
+
+    private volatile boolean ready;
+    private volatile String lastError;
+    private Path directory;
+    private boolean temporaryDirectory;
+    private long generation;
+
+    // Guarded by lock
+    private SearchSegment segment = SearchSegment.empty();
+    private final Map<Long, DeltaDoc> delta = new HashMap<>();
+    private final Map<String, Map<Long, Float>> deltaPostings = new HashMap<>();
+    private int deltaLive;
+    private double deltaLength;
+    private int maskedInSegment;
+    private double maskedLength;
+
+    /**
+     * Load or build the index off the startup thread
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread loader = new Thread(() -> {
+            try {
+                open();
+            } catch (Exception e) {
+                lastError = e.getMessage();
+                logger.error("Could not open the search index: {}", e.getMessage());
+            }
+        }, "search-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Re-index a question once the write that changed it commits
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onQuestionChanged(QuestionChangedEvent event) {
+        if (!enabled || event.isScoreOnly()) {
+            return;
+        }
+        try {
+            apply(event.getQuestionId(), loadDocument(event.getQuestionId()));
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            logger.error("Could not update the search index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Ranked question ids for a query; multi-word queries match any term and
+     * rank questions matching more (and rarer) terms higher
+     */
+    public Hits search(String query, int offset, int limit) {
+        long start = System.nanoTime();
+        Set<String> terms = new LinkedHashSet<>(SearchTokenizer.tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return new Hits(List.of(), 0);
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int docCount = segment.getDocCount() - maskedInSegment + deltaLive;
+            if (docCount <= 0) {
+                return new Hits(List.of(), 0);
+            }
+            double avgLength = Math.max((segment.getTotalLength() - maskedLength + deltaLength) / docCount, 1e-6);
+
+            for (String term : terms) {
+                int termIndex = segment.findTerm(term);
+                Map<Long, Float> deltaHits = deltaPostings.getOrDefault(term, Map.of());
+                int df = (termIndex >= 0 ? segment.docFrequency(termIndex) : 0) + deltaHits.size();
+                if (df == 0) {
+                    continue;
+                }
+                double idf = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+
+                if (termIndex >= 0) {
+                    segment.forEachPosting(termIndex, (questionId, length, weight) -> {
+                        if (!delta.containsKey(questionId)) {
+                            scores.merge(questionId, bm25(idf, weight, length, avgLength), Double::sum);
+                        }
+                    });
+                }
+                deltaHits.forEach((questionId, weight) -> scores.merge(questionId,
+                        bm25(idf, weight, delta.get(questionId).length, avgLength), Double::sum));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Best offset + limit, highest score first and newer questions first on ties
+        Comparator<Map.Entry<Long, Double>> rank = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey());
+        int wanted = offset + limit;
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(rank);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (top.size() < wanted) {
+                top.add(entry);
+            } else if (rank.compare(entry, top.peek()) > 0) {
+                top.poll();
+                top.add(entry);
+            }
+        }
+        List<Long> ranked = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ranked.add(top.poll().getKey());
+        }
+        Collections.reverse(ranked);
+
+        searches.incrementAndGet();
+        searchNanos.addAndGet(System.nanoTime() - start);
+        List<Long> page = offset < ranked.size() ? ranked.subList(offset, ranked.size()) : List.of();
+        return new Hits(List.copyOf(page), scores.size());
+    }
+
+    /**
+     * Rebuild the whole index from the database. Changes made while it runs
+     * stay in the delta and are kept.
+     *
+     * @return number of questions indexed
+     */
+    public synchronized int rebuild() throws IOException {
+        ensureDirectory();
+        long snapshotSequence = sequence.get();
+        long snapshotTime = System.currentTimeMillis();
+
+        Map<Long, Map<String, Float>> documents = new HashMap<>();
+        streamRows("SELECT id, title, description FROM questions WHERE " + VISIBLE, rs -> {
+            Map<String, Float> weights = new HashMap<>();
+            addField(weights, rs.getString("title"), TITLE_WEIGHT);
+            addField(weights, rs.getString("description"), DESCRIPTION_WEIGHT);
+            documents.put(rs.getLong("id"), weights);
+        });
+        streamRows("SELECT qt.question_id, t.name FROM question_tags qt JOIN tags t ON t.id = qt.tag_id", rs -> {
+            Map<String, Float> weights = documents.get(rs.getLong(1));
+            if (weights != null) {
+                addField(weights, rs.getString(2), TAG_WEIGHT);
+            }
+        });
+        streamRows("SELECT question_id, description FROM answers WHERE " + VISIBLE, rs -> {
+            Map<String, Float> weights = documents.get(rs.getLong(1));
+            if (weights != null) {
+                addField(weights, rs.getString(2), ANSWER_WEIGHT);
+            }
+        });
+
+        SearchSegment.Builder builder = new SearchSegment.Builder();
+        documents.forEach(builder::add);
+        documents.clear();
+
+        install(SearchSegment.write(nextSegmentFile(), snapshotTime - WATERMARK_MARGIN_MS, builder),
+                snapshotSequence);
+        logger.info("Rebuilt search index with {} questions", builder.size());
+        return builder.size();
+    }
+
+    /**
+     * Merge the delta into a new segment once it has grown large enough
+     */
+    @Scheduled(fixedDelayString = "${search.index.compact-interval-ms:60000}",
+            initialDelayString = "${search.index.compact-interval-ms:60000}")
+    public void compactIfNeeded() {
+        if (!isReady()) {
+            return;
+        }
+        int pending;
+        lock.readLock().lock();
+        try {
+            pending = delta.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (pending >= maxDeltaDocs) {
+            try {
+                compact();
+            } catch (IOException e) {
+                lastError = e.getMessage();
+                logger.error("Could not compact the search index: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Write the segment and the delta as one new segment
+     */
+    public synchronized void compact() throws IOException {
+        ensureDirectory();
+        SearchSegment base;
+        Map<Long, DeltaDoc> snapshot;
+        long snapshotSequence;
+        long snapshotTime = System.currentTimeMillis();
+        lock.readLock().lock();
+        try {
+            base = segment;
+            snapshot = new HashMap<>(delta);
+            snapshotSequence = sequence.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        SearchSegment.Builder builder = new SearchSegment.Builder();
+        for (int ordinal = 0; ordinal < base.getDocCount(); ordinal++) {
+            long questionId = base.docId(ordinal);
+            if (!snapshot.containsKey(questionId)) {
+                builder.addLength(questionId, base.docLengthAt(ordinal));
+            }
+        }
+        for (int termIndex = 0; termIndex < base.getTermCount(); termIndex++) {
+            String term = base.term(termIndex);
+            base.forEachPosting(termIndex, (questionId, length, weight) -> {
+                if (!snapshot.containsKey(questionId)) {
+                    builder.addPosting(term, questionId, weight);
+                }
+            });
+        }
+        snapshot.forEach((questionId, doc) -> {
+            if (doc.weights != null) {
+                builder.add(questionId, doc.weights);
+            }
+        });
+
+        install(SearchSegment.write(nextSegmentFile(), snapshotTime - WATERMARK_MARGIN_MS, builder),
+                snapshotSequence);
+        logger.debug("Compacted search index to {} questions", builder.size());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            stats.put("segmentDocs", segment.getDocCount());
+            stats.put("segmentTerms", segment.getTermCount());
+            stats.put("segmentFile", segment.getFile() != null ? segment.getFile().toString() : null);
+            stats.put("deltaDocs", delta.size());
+            stats.put("indexedQuestions", segment.getDocCount() - maskedInSegment + deltaLive);
+        } finally {
+            lock.readLock().unlock();
+        }
+        long count = searches.get();
+        stats.put("enabled", enabled);
+        stats.put("ready", ready);
+        stats.put("searches", count);
+        stats.put("avgSearchMs", count == 0 ? 0.0 : searchNanos.get() / 1_000_000.0 / count);
+        stats.put("lastError", lastError);
+        return stats;
+    }
+
+    /**
+     * Map the newest segment and catch up on changes after its watermark, or rebuild
+     */
+    synchronized void open() throws IOException {
+        ensureDirectory();
+        SearchSegment latest = null;
+        for (Path file : segmentFiles()) {
+            try {
+                latest = SearchSegment.open(file);
+                generation = Math.max(generation, generationOf(file));
+            } catch (IOException e) {
+                logger.warn("Ignoring unreadable search segment {}: {}", file, e.getMessage());
+            }
+        }
+
+        if (latest == null) {
+            rebuild();
+        } else {
+            install(latest, sequence.get());
+            Timestamp since = new Timestamp(latest.getWatermark());
+            List<Long> changed = jdbcTemplate.queryForList(
+                    "SELECT id FROM questions WHERE created_at >= ? OR updated_at >= ? "
+                            + "UNION SELECT question_id FROM answers WHERE created_at >= ? OR updated_at >= ?",
+                    Long.class, since, since, since, since);
+            for (Long questionId : changed) {
+                apply(questionId, loadDocument(questionId));
+            }
+            logger.info("Opened search index with {} questions, {} re-indexed since the last segment",
+                    latest.getDocCount(), changed.size());
+        }
+        ready = true;
+    }
+
+    @PreDestroy
+    void close() {
+        if (temporaryDirectory && directory != null) {
+            for (Path file : segmentFiles()) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    logger.debug("Could not delete {}", file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Weighted terms of a question, or null if it no longer exists or is hidden
+     */
+    private Map<String, Float> loadDocument(Long questionId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT title, description FROM questions WHERE id = ? AND " + VISIBLE, questionId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, (String) rows.get(0).get("title"), TITLE_WEIGHT);
+        addField(weights, (String) rows.get(0).get("description"), DESCRIPTION_WEIGHT);
+        for (String tag : jdbcTemplate.queryForList("SELECT t.name FROM question_tags qt "
+                + "JOIN tags t ON t.id = qt.tag_id WHERE qt.question_id = ?", String.class, questionId)) {
+            addField(weights, tag, TAG_WEIGHT);
+        }
+        for (String answer : jdbcTemplate.queryForList(
+                "SELECT description FROM answers WHERE question_id = ? AND " + VISIBLE, String.class, questionId)) {
+            addField(weights, answer, ANSWER_WEIGHT);
+        }
+        return weights;
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float weight) {
+        for (String term : SearchTokenizer.tokenize(text)) {
+            weights.merge(term, weight, Float::sum);
+        }
+    }
+
+    private static double bm25(double idf, float weight, float length, double avgLength) {
+        return idf * (weight * (K1 + 1)) / (weight + K1 * (1 - B + B * length / avgLength));
+    }
+
+    /**
+     * Put a question's new terms (null when deleted) into the delta
+     */
+    private void apply(Long questionId, Map<String, Float> weights) {
+        lock.writeLock().lock();
+        try {
+            DeltaDoc previous = delta.get(questionId);
+            if (previous != null) {
+                removePostings(questionId, previous);
+            } else {
+                float segmentLength = segment.docLength(questionId);
+                if (segmentLength >= 0) {
+                    maskedInSegment++;
+                    maskedLength += segmentLength;
+                }
+            }
+
+            DeltaDoc doc = new DeltaDoc(sequence.incrementAndGet(), weights);
+            delta.put(questionId, doc);
+            if (weights != null) {
+                weights.forEach((term, weight) -> deltaPostings
+                        .computeIfAbsent(term, t -> new HashMap<>()).put(questionId, weight));
+                deltaLive++;
+                deltaLength += doc.length;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removePostings(Long questionId, DeltaDoc doc) {
+        if (doc.weights == null) {
+            return;
+        }
+        for (String term : doc.weights.keySet()) {
+            Map<Long, Float> postings = deltaPostings.get(term);
+            if (postings != null) {
+                postings.remove(questionId);
+                if (postings.isEmpty()) {
+                    deltaPostings.remove(term);
+                }
+            }
+        }
+        deltaLive--;
+        deltaLength -= doc.length;
+    }
+
+    /**
+     * Swap in a new segment and drop the delta entries it already contains
+     */
+    private void install(SearchSegment next, long snapshotSequence) {
+        SearchSegment previous;
+        lock.writeLock().lock();
+        try {
+            previous = segment;
+            segment = next;
+            delta.entrySet().removeIf(entry -> {
+                if (entry.getValue().sequence <= snapshotSequence) {
+                    removePostings(entry.getKey(), entry.getValue());
+                    return true;
+                }
+                return false;
+            });
+            maskedInSegment = 0;
+            maskedLength = 0;
+            for (Long questionId : delta.keySet()) {
+                float length = next.docLength(questionId);
+                if (length >= 0) {
+                    maskedInSegment++;
+                    maskedLength += length;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (previous.getFile() != null && !previous.getFile().equals(next.getFile())) {
+            try {
+                Files.deleteIfExists(previous.getFile());
+            } catch (IOException e) {
+                logger.debug("Could not delete old search segment {}", previous.getFile());
+            }
+        }
+    }
+
+    private void streamRows(String sql, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, handler);
+    }
+
+    private synchronized void ensureDirectory() throws IOException {
+        if (directory != null) {
+            return;
+        }
+        if (indexDir == null || indexDir.isBlank()) {
+            directory = Files.createTempDirectory("stackit-search");
+            directory.toFile().deleteOnExit();
+            temporaryDirectory = true;
+        } else {
+            directory = Files.createDirectories(Paths.get(indexDir));
+        }
+    }
+
+    private synchronized Path nextSegmentFile() {
+        generation++;
+        return directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, generation, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Segment files, oldest generation first
+     */
+    private List<Path> segmentFiles() {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            logger.warn("Could not list search segments in {}: {}", directory, e.getMessage());
+        }
+        files.sort(Comparator.comparingLong(SearchIndex::generationOf));
+        return files;
+    }
+
+    private static long generationOf(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * One page of ranked results
+     */
+    public static class Hits {
+        private final List<Long> questionIds;
+        private final int totalHits;
+
+        Hits(List<Long> questionIds, int totalHits) {
+            this.questionIds = questionIds;
+            this.totalHits = totalHits;
+        }
+
+        public List<Long> getQuestionIds() {
+            return questionIds;
+        }
+
+        public int getTotalHits() {
+            return totalHits;
+        }
+    }
+
+    private static class DeltaDoc {
+        private final long sequence;
+        private final Map<String, Float> weights; // Null for a deleted question
+        private final float length;
+
+        private DeltaDoc(long sequence, Map<String, Float> weights) {
+            this.sequence = sequence;
+            this.weights = weights;
+            float sum = 0;
+            if (weights != null) {
+                for (float weight : weights.values()) {
+                    sum += weight;
+                }
+            }
+            this.length = sum;
+        }
+    }
+}
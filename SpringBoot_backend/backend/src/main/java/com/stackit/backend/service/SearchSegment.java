@@ -0,0 +1,300 @@
+package com.stackit.backend.service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, memory-mapped segment of the question search index.
+ *
+ * Layout (big-endian):
+ * header    magic, version, watermark, docCount, totalLength, termCount
+ * docs      docCount x (long questionId, float length), sorted by id
+ * terms     termCount x (int bytesOffset, int bytesLength, int docFrequency, long postingsOffset),
+ *           sorted by the unsigned UTF-8 bytes of the term
+ * termBytes UTF-8 term text
+ * postings  per term, docFrequency x (int docOrdinal, float weight)
+ *
+ * Only absolute reads are used on the mapped buffer, so one segment can be
+ * searched by any number of threads.
+ */
+final class SearchSegment {
+
+    static final int MAGIC = 0x53514958;
+    static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 32;
+    private static final int DOC_BYTES = 12;
+    private static final int TERM_BYTES = 20;
+    private static final int POSTING_BYTES = 8;
+
+    private static final SearchSegment EMPTY = new SearchSegment(null, null, 0L, 0, 0.0, 0);
+
+    /**
+     * Receives one posting of a term
+     */
+    interface PostingConsumer {
+        void accept(long questionId, float docLength, float weight);
+    }
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final long watermark;
+    private final int docCount;
+    private final double totalLength;
+    private final int termCount;
+
+    private SearchSegment(Path file, ByteBuffer buffer, long watermark, int docCount, double totalLength,
+            int termCount) {
+        this.file = file;
+        this.buffer = buffer;
+        this.watermark = watermark;
+        this.docCount = docCount;
+        this.totalLength = totalLength;
+        this.termCount = termCount;
+    }
+
+    static SearchSegment empty() {
+        return EMPTY;
+    }
+
+    static SearchSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a search segment: " + file);
+            }
+            return new SearchSegment(file, buffer, buffer.getLong(8), buffer.getInt(16), buffer.getDouble(20),
+                    buffer.getInt(28));
+        }
+    }
+
+    /**
+     * Write the builder's documents to a new segment file and map it.
+     * The file is written beside the target and moved into place, so a crash
+     * never leaves a partial segment behind.
+     */
+    static SearchSegment write(Path file, long watermark, Builder builder) throws IOException {
+        long[] ids = builder.lengths.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        Map<Long, Integer> ordinals = new HashMap<>(ids.length * 2);
+        double totalLength = 0;
+        for (int i = 0; i < ids.length; i++) {
+            ordinals.put(ids[i], i);
+            totalLength += builder.lengths.get(ids[i]);
+        }
+
+        Map<String, byte[]> termBytes = new HashMap<>();
+        for (String term : builder.postings.keySet()) {
+            termBytes.put(term, term.getBytes(StandardCharsets.UTF_8));
+        }
+        List<String> terms = new ArrayList<>(termBytes.keySet());
+        terms.sort((a, b) -> Arrays.compareUnsigned(termBytes.get(a), termBytes.get(b)));
+
+        long termsOffset = HEADER_BYTES + (long) ids.length * DOC_BYTES;
+        long termBytesOffset = termsOffset + (long) terms.size() * TERM_BYTES;
+        long postingsOffset = termBytesOffset + termBytes.values().stream().mapToLong(bytes -> bytes.length).sum();
+        long postingCount = builder.postings.values().stream().mapToLong(Map::size).sum();
+        // One mapped buffer is addressed with int offsets
+        if (postingsOffset + postingCount * POSTING_BYTES > Integer.MAX_VALUE) {
+            throw new IOException("Search segment would exceed 2 GB");
+        }
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(watermark);
+            out.writeInt(ids.length);
+            out.writeDouble(totalLength);
+            out.writeInt(terms.size());
+
+            for (long id : ids) {
+                out.writeLong(id);
+                out.writeFloat(builder.lengths.get(id));
+            }
+
+            int bytesOffset = 0;
+            long nextPostings = postingsOffset;
+            for (String term : terms) {
+                byte[] bytes = termBytes.get(term);
+                int df = builder.postings.get(term).size();
+                out.writeInt(bytesOffset);
+                out.writeInt(bytes.length);
+                out.writeInt(df);
+                out.writeLong(nextPostings);
+                bytesOffset += bytes.length;
+                nextPostings += (long) df * POSTING_BYTES;
+            }
+
+            for (String term : terms) {
+                out.write(termBytes.get(term));
+            }
+
+            for (String term : terms) {
+                Map<Long, Float> postings = builder.postings.get(term);
+                long[] docIds = postings.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+                for (long id : docIds) {
+                    out.writeInt(ordinals.get(id));
+                    out.writeFloat(postings.get(id));
+                }
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return open(file);
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    long getWatermark() {
+        return watermark;
+    }
+
+    int getDocCount() {
+        return docCount;
+    }
+
+    double getTotalLength() {
+        return totalLength;
+    }
+
+    int getTermCount() {
+        return termCount;
+    }
+
+    /**
+     * Length of a document, or -1 if the segment does not contain it
+     */
+    float docLength(long questionId) {
+        int low = 0;
+        int high = docCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = docId(mid);
+            if (id < questionId) {
+                low = mid + 1;
+            } else if (id > questionId) {
+                high = mid - 1;
+            } else {
+                return buffer.getFloat(HEADER_BYTES + mid * DOC_BYTES + 8);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Index of a term in the term table, or -1 if absent
+     */
+    int findTerm(String term) {
+        byte[] key = term.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareTerm(mid, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    int docFrequency(int termIndex) {
+        return buffer.getInt(termEntry(termIndex) + 8);
+    }
+
+    String term(int termIndex) {
+        int entry = termEntry(termIndex);
+        byte[] bytes = new byte[buffer.getInt(entry + 4)];
+        buffer.get(termBytesOffset() + buffer.getInt(entry), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    void forEachPosting(int termIndex, PostingConsumer consumer) {
+        int entry = termEntry(termIndex);
+        int df = buffer.getInt(entry + 8);
+        int position = (int) buffer.getLong(entry + 12);
+        for (int i = 0; i < df; i++, position += POSTING_BYTES) {
+            int ordinal = buffer.getInt(position);
+            int doc = HEADER_BYTES + ordinal * DOC_BYTES;
+            consumer.accept(buffer.getLong(doc), buffer.getFloat(doc + 8), buffer.getFloat(position + 4));
+        }
+    }
+
+    long docId(int ordinal) {
+        return buffer.getLong(HEADER_BYTES + ordinal * DOC_BYTES);
+    }
+
+    float docLengthAt(int ordinal) {
+        return buffer.getFloat(HEADER_BYTES + ordinal * DOC_BYTES + 8);
+    }
+
+    private int termEntry(int termIndex) {
+        return HEADER_BYTES + docCount * DOC_BYTES + termIndex * TERM_BYTES;
+    }
+
+    private int termBytesOffset() {
+        return HEADER_BYTES + docCount * DOC_BYTES + termCount * TERM_BYTES;
+    }
+
+    private int compareTerm(int termIndex, byte[] key) {
+        int entry = termEntry(termIndex);
+        int offset = termBytesOffset() + buffer.getInt(entry);
+        int length = buffer.getInt(entry + 4);
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(buffer.get(offset + i) & 0xff, key[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    /**
+     * Documents and postings collected in memory before a segment is written
+     */
+    static final class Builder {
+        private final Map<Long, Float> lengths = new HashMap<>();
+        private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+
+        void add(long questionId, Map<String, Float> weights) {
+            float length = 0;
+            for (Map.Entry<String, Float> weight : weights.entrySet()) {
+                length += weight.getValue();
+                addPosting(weight.getKey(), questionId, weight.getValue());
+            }
+            lengths.put(questionId, length);
+        }
+
+        void addLength(long questionId, float length) {
+            lengths.put(questionId, length);
+        }
+
+        void addPosting(String term, long questionId, float weight) {
+            postings.computeIfAbsent(term, t -> new HashMap<>()).put(questionId, weight);
+        }
+
+        int size() {
+            return lengths.size();
+        }
+    }
+}
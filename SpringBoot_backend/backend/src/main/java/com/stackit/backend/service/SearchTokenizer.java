@@ -0,0 +1,59 @@
+package com.stackit.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits text into search terms: lower-cased runs of letters and digits, with
+ * '+' and '#' kept so that c++ and c# stay searchable. Stop words and single
+ * letters are dropped.
+ */
+public final class SearchTokenizer {
+
+    // Longest term kept; longer runs are usually hashes, URLs or base64
+    static final int MAX_TERM_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have", "how", "i",
+            "if", "in", "into", "is", "it", "its", "my", "no", "not", "of", "on", "or", "so", "such", "that",
+            "the", "their", "then", "there", "these", "they", "this", "to", "was", "we", "what", "when",
+            "which", "why", "will", "with", "you");
+
+    private SearchTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            char c = i < lower.length() ? lower.charAt(i) : ' ';
+            boolean termChar = Character.isLetterOrDigit(c) || (start >= 0 && (c == '+' || c == '#'));
+            if (termChar) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                addTerm(terms, lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerm(List<String> terms, String term) {
+        if (term.length() > MAX_TERM_LENGTH || STOP_WORDS.contains(term)) {
+            return;
+        }
+        if (term.length() == 1 && !Character.isDigit(term.charAt(0))) {
+            return;
+        }
+        terms.add(term);
+    }
+}
@@ -0,0 +1,350 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.entity.ModerationStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory tag filter for the question feed. Every question gets an ordinal
+ * in (createdAt, id) order, so the highest ordinal is the newest question,
+ * and each tag keeps an {@link OrdinalBitmap} of the questions carrying it.
+ * All/any/none filters are bitmap intersections, unions and differences with
+ * the set of visible questions, read back newest first.
+ *
+ * Writes re-read the changed question after commit. Deleted questions leave
+ * an unused ordinal behind until the next reload renumbers them.
+ */
+@Component
+public class TagBitmapIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagBitmapIndex.class);
+
+    public enum Mode {
+        ALL, ANY, NONE;
+
+        /**
+         * @param value "all", "any" or "none"
+         */
+        public static Mode parse(String value) {
+            if (value == null || value.isBlank() || value.equalsIgnoreCase("all")) {
+                return ALL;
+            }
+            if (value.equalsIgnoreCase("any")) {
+                return ANY;
+            }
+            if (value.equalsIgnoreCase("none")) {
+                return NONE;
+            }
+            throw new RuntimeException("Mode must be all, any or none");
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Questions changed while a reload reads the tables; re-read once it is installed
+    private final Set<Long> changedDuringReload = ConcurrentHashMap.newKeySet();
+
+    private State state = new State();
+    private volatile boolean reloading;
+    private volatile boolean ready;
+    private volatile LocalDateTime loadedAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread loader = new Thread(() -> {
+            try {
+                reload();
+            } catch (Exception e) {
+                logger.error("Could not load tag filter: {}", e.getMessage());
+            }
+        }, "tag-filter-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Visible questions matching the tags, newest first
+     *
+     * @param skip number of matching questions to pass over
+     */
+    public Hits filter(Collection<String> tagNames, Mode mode, long skip, int limit) {
+        loadIfNeeded();
+        lock.readLock().lock();
+        try {
+            List<OrdinalBitmap> tagged = new ArrayList<>();
+            for (String name : tagNames) {
+                Long tagId = state.tagIds.get(TagNameIndex.normalize(name));
+                OrdinalBitmap bitmap = tagId != null ? state.byTag.get(tagId) : null;
+                tagged.add(bitmap != null ? bitmap : new OrdinalBitmap());
+            }
+            OrdinalBitmap matches = switch (mode) {
+                case ALL -> intersect(tagged);
+                case ANY -> OrdinalBitmap.and(state.visible, union(tagged));
+                case NONE -> OrdinalBitmap.andNot(state.visible, union(tagged));
+            };
+            int[] ordinals = matches.selectDescending(skip, limit);
+            List<Long> questionIds = new ArrayList<>(ordinals.length);
+            for (int ordinal : ordinals) {
+                questionIds.add(state.questionIds[ordinal]);
+            }
+            return new Hits(questionIds, matches.cardinality());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Re-read a question's tags and visibility once the write that changed it commits
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onQuestionChanged(QuestionChangedEvent event) {
+        if (event.isScoreOnly()) {
+            return;
+        }
+        try {
+            refresh(event.getQuestionId());
+        } catch (Exception e) {
+            logger.error("Could not update tag filter: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${question.tag-filter.reload-interval-ms:3600000}",
+            initialDelayString = "${question.tag-filter.reload-interval-ms:3600000}")
+    public void scheduledReload() {
+        if (ready) {
+            reload();
+        }
+    }
+
+    /**
+     * Renumber every question and rebuild the tag bitmaps from the database
+     */
+    public synchronized void reload() {
+        changedDuringReload.clear();
+        reloading = true;
+        try {
+            State loaded = new State();
+            jdbcTemplate.query("SELECT id, moderation_status FROM questions ORDER BY created_at, id", rs -> {
+                loaded.place(rs.getLong("id"), isVisible(rs.getString(2)));
+            });
+            jdbcTemplate.query("SELECT question_id, tag_id FROM question_tags", rs -> {
+                loaded.tag(rs.getLong(1), rs.getLong(2));
+            });
+            jdbcTemplate.query("SELECT id, name FROM tags", rs -> {
+                loaded.tagIds.put(TagNameIndex.normalize(rs.getString(2)), rs.getLong(1));
+            });
+            lock.writeLock().lock();
+            try {
+                state = loaded;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            loadedAt = LocalDateTime.now();
+            ready = true;
+        } finally {
+            reloading = false;
+        }
+        for (Long questionId : List.copyOf(changedDuringReload)) {
+            refresh(questionId);
+        }
+        changedDuringReload.clear();
+    }
+
+    /**
+     * Build the bitmaps if the startup load has not finished yet. Re-checked
+     * under the reload monitor so concurrent first filters share one load.
+     */
+    private void loadIfNeeded() {
+        if (ready) {
+            return;
+        }
+        synchronized (this) {
+            if (!ready) {
+                reload();
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("ready", ready);
+            stats.put("questions", state.ordinals.size());
+            stats.put("visibleQuestions", state.visible.cardinality());
+            stats.put("unusedOrdinals", state.nextOrdinal - state.ordinals.size());
+            stats.put("tags", state.byTag.size());
+            stats.put("loadedAt", loadedAt);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private OrdinalBitmap intersect(List<OrdinalBitmap> tagged) {
+        // Smallest first keeps every intermediate result small
+        List<OrdinalBitmap> bySize = new ArrayList<>(tagged);
+        bySize.sort(Comparator.comparingLong(OrdinalBitmap::cardinality));
+        OrdinalBitmap result = bySize.isEmpty() ? state.visible : bySize.get(0);
+        for (int i = 1; i < bySize.size() && !result.isEmpty(); i++) {
+            result = OrdinalBitmap.and(result, bySize.get(i));
+        }
+        return OrdinalBitmap.and(result, state.visible);
+    }
+
+    // Rows written before moderation existed have no status and are visible
+    private static boolean isVisible(String status) {
+        return status == null || ModerationStatus.VISIBLE.name().equals(status);
+    }
+
+    private static OrdinalBitmap union(List<OrdinalBitmap> tagged) {
+        OrdinalBitmap result = new OrdinalBitmap();
+        for (OrdinalBitmap bitmap : tagged) {
+            result = OrdinalBitmap.or(result, bitmap);
+        }
+        return result;
+    }
+
+    private void refresh(Long questionId) {
+        if (reloading) {
+            changedDuringReload.add(questionId);
+        }
+        if (!ready) {
+            // The first load reads the question from the database
+            return;
+        }
+        List<String> status = jdbcTemplate.queryForList(
+                "SELECT moderation_status FROM questions WHERE id = ?", String.class, questionId);
+        List<Map<String, Object>> tags = jdbcTemplate.queryForList("SELECT qt.tag_id, t.name FROM question_tags qt "
+                + "JOIN tags t ON t.id = qt.tag_id WHERE qt.question_id = ?", questionId);
+        lock.writeLock().lock();
+        try {
+            if (status.isEmpty()) {
+                state.drop(questionId);
+                return;
+            }
+            state.untag(questionId);
+            state.place(questionId, isVisible(status.get(0)));
+            for (Map<String, Object> row : tags) {
+                long tagId = ((Number) row.get("tag_id")).longValue();
+                state.tagIds.putIfAbsent(TagNameIndex.normalize((String) row.get("name")), tagId);
+                state.tag(questionId, tagId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public static class Hits {
+        private final List<Long> questionIds;
+        private final long totalHits;
+
+        Hits(List<Long> questionIds, long totalHits) {
+            this.questionIds = questionIds;
+            this.totalHits = totalHits;
+        }
+
+        public List<Long> getQuestionIds() {
+            return questionIds;
+        }
+
+        public long getTotalHits() {
+            return totalHits;
+        }
+    }
+
+    private static class State {
+        // Ordinal -> question id; 0 once the question is deleted
+        private long[] questionIds = new long[1024];
+        private int nextOrdinal;
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private final Map<Integer, long[]> tagsByOrdinal = new HashMap<>();
+        private final Map<Long, OrdinalBitmap> byTag = new HashMap<>();
+        private final Map<String, Long> tagIds = new HashMap<>();
+        private final OrdinalBitmap visible = new OrdinalBitmap();
+
+        /**
+         * Give a question its ordinal (the next one if it is new) and set its visibility
+         */
+        private void place(long questionId, boolean isVisible) {
+            Integer ordinal = ordinals.get(questionId);
+            if (ordinal == null) {
+                if (nextOrdinal == questionIds.length) {
+                    questionIds = Arrays.copyOf(questionIds, questionIds.length * 2);
+                }
+                ordinal = nextOrdinal++;
+                questionIds[ordinal] = questionId;
+                ordinals.put(questionId, ordinal);
+            }
+            if (isVisible) {
+                visible.add(ordinal);
+            } else {
+                visible.remove(ordinal);
+            }
+        }
+
+        private void tag(long questionId, long tagId) {
+            Integer ordinal = ordinals.get(questionId);
+            if (ordinal == null) {
+                return;
+            }
+            byTag.computeIfAbsent(tagId, id -> new OrdinalBitmap()).add(ordinal);
+            long[] tags = tagsByOrdinal.get(ordinal);
+            tags = tags == null ? new long[1] : Arrays.copyOf(tags, tags.length + 1);
+            tags[tags.length - 1] = tagId;
+            tagsByOrdinal.put(ordinal, tags);
+        }
+
+        private void untag(long questionId) {
+            Integer ordinal = ordinals.get(questionId);
+            long[] tags = ordinal != null ? tagsByOrdinal.remove(ordinal) : null;
+            if (tags == null) {
+                return;
+            }
+            for (long tagId : tags) {
+                OrdinalBitmap bitmap = byTag.get(tagId);
+                if (bitmap != null) {
+                    bitmap.remove(ordinal);
+                }
+            }
+        }
+
+        private void drop(long questionId) {
+            untag(questionId);
+            Integer ordinal = ordinals.remove(questionId);
+            if (ordinal != null) {
+                visible.remove(ordinal);
+                questionIds[ordinal] = 0;
+            }
+        }
+    }
+}
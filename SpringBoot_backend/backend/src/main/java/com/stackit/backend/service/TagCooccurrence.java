@@ -0,0 +1,511 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.RelatedTagDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sparse tag-pair co-occurrence counts over visible questions, for related tags
+ * on tag pages and tag suggestions in the ask form. Each question's tag set
+ * is kept so a write can be applied as the difference between its old and
+ * new tags once it commits.
+ *
+ * The question tag sets are checkpointed to local disk. On startup the
+ * checkpoint is loaded, questions created or edited after its watermark are
+ * re-read and deleted or hidden questions dropped; if the per-tag totals then disagree
+ * with the stored tag question counts, or there is no checkpoint, everything
+ * is rebuilt from question_tags.
+ */
+@Component
+public class TagCooccurrence {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagCooccurrence.class);
+
+    private static final int MAX_LIMIT = 50;
+
+    private static final int CHECKPOINT_MAGIC = 0x54434f43; // "TCOC"
+    private static final int CHECKPOINT_VERSION = 1;
+    private static final String CHECKPOINT_FILE = "tag-cooccurrence.bin";
+
+    // Only questions readers can see are counted, as in tags.question_count
+    private static final String VISIBLE = "COALESCE(q.moderation_status, 'VISIBLE') = 'VISIBLE'";
+
+    // Changes committed this close to a snapshot may not be in it yet, so the watermark sits before it
+    private static final long WATERMARK_MARGIN_MS = 5000;
+
+    // Blank keeps the checkpoint in a temporary directory, for in-memory databases
+    @Value("${tag.cooccurrence.dir:data/tag-cooccurrence}")
+    private String checkpointDir;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Question id -> its tag ids, sorted
+    private final Map<Long, long[]> tagsByQuestion = new HashMap<>();
+    // Tag id -> co-occurring tag id -> questions carrying both
+    private final Map<Long, Map<Long, Integer>> pairs = new HashMap<>();
+    // Tag id -> questions carrying it
+    private final Map<Long, Integer> totals = new HashMap<>();
+    private final Map<Long, String> names = new HashMap<>();
+    private final Map<String, Long> idsByName = new HashMap<>();
+
+    // One checkpoint file write at a time; the counts are only locked while they are copied
+    private final Object checkpointLock = new Object();
+
+    // Questions changed while loading or while a rebuild reads the tables; re-read once installed
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private Path directory;
+    private boolean temporaryDirectory;
+    private long watermark;
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+    private boolean dirty;
+    private String loadedFrom;
+    private LocalDateTime lastCheckpointAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread loader = new Thread(() -> {
+            try {
+                open();
+            } catch (Exception e) {
+                logger.error("Could not load tag co-occurrence: {}", e.getMessage());
+            }
+        }, "tag-cooccurrence-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Tags most often used together with the given tag, strongest first
+     */
+    public synchronized List<RelatedTagDto> related(String tagName, int limit) {
+        ensureReady();
+        Long tagId = idsByName.get(TagNameIndex.normalize(tagName));
+        if (tagId == null) {
+            throw new RuntimeException("Tag not found");
+        }
+        Map<Long, Integer> row = pairs.getOrDefault(tagId, Map.of());
+        List<RelatedTagDto> related = new ArrayList<>(row.size());
+        row.forEach((other, shared) -> related.add(new RelatedTagDto(other, names.get(other), shared,
+                cosine(shared, tagId, other))));
+        return top(related, limit);
+    }
+
+    /**
+     * Tags to offer next for a question that already has the given tags
+     */
+    public synchronized List<RelatedTagDto> suggest(Collection<String> tagNames, int limit) {
+        ensureReady();
+        Set<Long> chosen = new HashSet<>();
+        for (String name : tagNames) {
+            Long tagId = idsByName.get(TagNameIndex.normalize(name));
+            if (tagId != null) {
+                chosen.add(tagId);
+            }
+        }
+        Map<Long, RelatedTagDto> candidates = new HashMap<>();
+        for (Long tagId : chosen) {
+            pairs.getOrDefault(tagId, Map.of()).forEach((other, shared) -> {
+                if (chosen.contains(other)) {
+                    return;
+                }
+                RelatedTagDto candidate = candidates.computeIfAbsent(other,
+                        id -> new RelatedTagDto(id, names.get(id), 0, 0.0));
+                candidate.setSharedQuestions(candidate.getSharedQuestions() + shared);
+                candidate.setScore(candidate.getScore() + cosine(shared, tagId, other));
+            });
+        }
+        return top(new ArrayList<>(candidates.values()), limit);
+    }
+
+    /**
+     * Re-read a question's tags once the write that changed it commits
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onQuestionChanged(QuestionChangedEvent event) {
+        if (event.isScoreOnly()) {
+            return;
+        }
+        try {
+            refresh(event.getQuestionId());
+        } catch (Exception e) {
+            logger.error("Could not update tag co-occurrence: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recount every pair from question_tags and checkpoint the result
+     *
+     * @return number of tagged questions counted
+     */
+    public int rebuild() throws IOException {
+        synchronized (changedDuringRebuild) {
+            changedDuringRebuild.clear();
+            rebuilding = true;
+            Map<Long, long[]> loaded;
+            long snapshotWatermark = System.currentTimeMillis() - WATERMARK_MARGIN_MS;
+            try {
+                Map<Long, List<Long>> rows = new HashMap<>();
+                jdbcTemplate.query("SELECT qt.question_id, qt.tag_id FROM question_tags qt "
+                        + "JOIN questions q ON q.id = qt.question_id WHERE " + VISIBLE, rs -> {
+                    rows.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getLong(2));
+                });
+                loaded = new HashMap<>();
+                rows.forEach((questionId, tagIds) -> loaded.put(questionId, sortedIds(tagIds)));
+                Map<Long, String> tagNames = readTagNames();
+                synchronized (this) {
+                    install(loaded, tagNames, snapshotWatermark);
+                    loadedFrom = "database";
+                }
+            } finally {
+                rebuilding = false;
+            }
+            replayChanged();
+            checkpoint();
+            return loaded.size();
+        }
+    }
+
+    /**
+     * Write the question tag sets to disk if they changed since the last checkpoint
+     */
+    @Scheduled(fixedDelayString = "${tag.cooccurrence.checkpoint-interval-ms:300000}",
+            initialDelayString = "${tag.cooccurrence.checkpoint-interval-ms:300000}")
+    public void scheduledCheckpoint() {
+        if (ready) {
+            try {
+                checkpoint();
+            } catch (IOException e) {
+                logger.error("Could not checkpoint tag co-occurrence: {}", e.getMessage());
+            }
+        }
+    }
+
+    public void checkpoint() throws IOException {
+        synchronized (checkpointLock) {
+            Map<Long, long[]> snapshot;
+            long snapshotWatermark;
+            synchronized (this) {
+                if (!dirty && lastCheckpointAt != null) {
+                    return;
+                }
+                // Tag arrays are replaced, never changed in place, so a shallow copy is enough
+                snapshot = new HashMap<>(tagsByQuestion);
+                snapshotWatermark = System.currentTimeMillis() - WATERMARK_MARGIN_MS;
+                dirty = false;
+            }
+            try {
+                write(snapshot, snapshotWatermark);
+            } catch (IOException e) {
+                synchronized (this) {
+                    dirty = true;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                watermark = snapshotWatermark;
+                lastCheckpointAt = LocalDateTime.now();
+            }
+        }
+    }
+
+    private void write(Map<Long, long[]> snapshot, long snapshotWatermark) throws IOException {
+        Path file = checkpointFile();
+        Path tmp = file.resolveSibling(CHECKPOINT_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeInt(CHECKPOINT_VERSION);
+            out.writeLong(snapshotWatermark);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<Long, long[]> entry : snapshot.entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeInt(entry.getValue().length);
+                for (long tagId : entry.getValue()) {
+                    out.writeLong(tagId);
+                }
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("loadedFrom", loadedFrom);
+        stats.put("taggedQuestions", tagsByQuestion.size());
+        stats.put("tags", totals.size());
+        stats.put("pairs", pairs.values().stream().mapToInt(Map::size).sum() / 2);
+        stats.put("dirty", dirty);
+        stats.put("lastCheckpointAt", lastCheckpointAt);
+        return stats;
+    }
+
+    /**
+     * Copy of the pair counts, keyed both ways round
+     */
+    synchronized Map<Long, Map<Long, Integer>> pairCounts() {
+        Map<Long, Map<Long, Integer>> copy = new HashMap<>();
+        pairs.forEach((tagId, row) -> copy.put(tagId, new HashMap<>(row)));
+        return copy;
+    }
+
+    synchronized Map<Long, Integer> tagTotals() {
+        return new HashMap<>(totals);
+    }
+
+    /**
+     * Load the checkpoint and catch up on changes after its watermark, or rebuild
+     */
+    void open() throws IOException {
+        Map<Long, long[]> loaded = null;
+        long checkpointWatermark = 0;
+        Path file = checkpointFile();
+        if (Files.exists(file)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+                    throw new IOException("not a tag co-occurrence checkpoint");
+                }
+                checkpointWatermark = in.readLong();
+                int questions = in.readInt();
+                loaded = new HashMap<>();
+                for (int i = 0; i < questions; i++) {
+                    long questionId = in.readLong();
+                    long[] tagIds = new long[in.readInt()];
+                    for (int t = 0; t < tagIds.length; t++) {
+                        tagIds[t] = in.readLong();
+                    }
+                    loaded.put(questionId, tagIds);
+                }
+            } catch (IOException e) {
+                logger.warn("Ignoring unreadable tag co-occurrence checkpoint {}: {}", file, e.getMessage());
+                loaded = null;
+            }
+        }
+        if (loaded == null) {
+            rebuild();
+            ready = true;
+            replayChanged();
+            return;
+        }
+
+        Map<Long, String> tagNames = readTagNames();
+        synchronized (this) {
+            install(loaded, tagNames, checkpointWatermark);
+            loadedFrom = "checkpoint";
+        }
+        Timestamp since = new Timestamp(checkpointWatermark);
+        List<Long> changed = jdbcTemplate.queryForList(
+                "SELECT id FROM questions WHERE created_at >= ? OR updated_at >= ?", Long.class, since, since);
+        changed.forEach(this::apply);
+        int dropped = 0;
+        if (!totalsMatchStoredCounts()) {
+            // Deletions and moderation leave no trace after the watermark; find them by id
+            Set<Long> existing = new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT q.id FROM questions q WHERE " + VISIBLE, Long.class));
+            List<Long> deleted;
+            synchronized (this) {
+                deleted = tagsByQuestion.keySet().stream().filter(id -> !existing.contains(id)).toList();
+            }
+            deleted.forEach(this::apply);
+            dropped = deleted.size();
+        }
+        if (!totalsMatchStoredCounts()) {
+            logger.warn("Tag co-occurrence checkpoint disagrees with tag counts; rebuilding");
+            rebuild();
+        } else {
+            logger.info("Opened tag co-occurrence checkpoint with {} questions, {} re-read and {} dropped since",
+                    loaded.size(), changed.size(), dropped);
+        }
+        ready = true;
+        replayChanged();
+    }
+
+    @PreDestroy
+    void close() {
+        if (temporaryDirectory && directory != null) {
+            try {
+                Files.deleteIfExists(directory.resolve(CHECKPOINT_FILE));
+            } catch (IOException e) {
+                logger.debug("Could not delete {}", directory);
+            }
+        }
+    }
+
+    private void ensureReady() {
+        if (!ready) {
+            throw new RuntimeException("Tag statistics are still loading");
+        }
+    }
+
+    private List<RelatedTagDto> top(List<RelatedTagDto> candidates, int limit) {
+        candidates.sort(Comparator.comparingDouble((RelatedTagDto tag) -> -tag.getScore())
+                .thenComparing(tag -> -tag.getSharedQuestions())
+                .thenComparing(RelatedTagDto::getName, Comparator.nullsLast(Comparator.naturalOrder())));
+        return List.copyOf(candidates.subList(0, Math.min(candidates.size(), Math.min(Math.max(limit, 1), MAX_LIMIT))));
+    }
+
+    private double cosine(int shared, Long tagId, Long otherId) {
+        double norm = Math.sqrt((double) totals.getOrDefault(tagId, 0) * totals.getOrDefault(otherId, 0));
+        return norm == 0 ? 0 : shared / norm;
+    }
+
+    private boolean totalsMatchStoredCounts() {
+        Map<Long, Integer> stored = new HashMap<>();
+        jdbcTemplate.query("SELECT id, question_count FROM tags WHERE question_count > 0",
+                rs -> {
+                    stored.put(rs.getLong(1), rs.getInt(2));
+                });
+        synchronized (this) {
+            return stored.equals(totals);
+        }
+    }
+
+    private void refresh(Long questionId) {
+        if (rebuilding || !ready) {
+            changedDuringRebuild.add(questionId);
+        }
+        if (ready) {
+            apply(questionId);
+        }
+    }
+
+    private void replayChanged() {
+        List<Long> changed = List.copyOf(changedDuringRebuild);
+        changed.forEach(this::apply);
+        changed.forEach(changedDuringRebuild::remove);
+    }
+
+    /**
+     * Replace a question's tag set with the one in the database, counting the difference
+     */
+    private void apply(Long questionId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT qt.tag_id, t.name FROM question_tags qt "
+                + "JOIN tags t ON t.id = qt.tag_id JOIN questions q ON q.id = qt.question_id "
+                + "WHERE qt.question_id = ? AND " + VISIBLE, questionId);
+        List<Long> tagIds = new ArrayList<>(rows.size());
+        synchronized (this) {
+            for (Map<String, Object> row : rows) {
+                long tagId = ((Number) row.get("tag_id")).longValue();
+                tagIds.add(tagId);
+                if (!names.containsKey(tagId)) {
+                    names.put(tagId, (String) row.get("name"));
+                    idsByName.put(TagNameIndex.normalize((String) row.get("name")), tagId);
+                }
+            }
+            long[] previous = tagsByQuestion.remove(questionId);
+            if (previous != null) {
+                count(previous, -1);
+            }
+            if (!tagIds.isEmpty()) {
+                long[] current = sortedIds(tagIds);
+                tagsByQuestion.put(questionId, current);
+                count(current, 1);
+            }
+            dirty = true;
+        }
+    }
+
+    private Map<Long, String> readTagNames() {
+        Map<Long, String> tagNames = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM tags", rs -> {
+            tagNames.put(rs.getLong(1), rs.getString(2));
+        });
+        return tagNames;
+    }
+
+    private synchronized void install(Map<Long, long[]> loaded, Map<Long, String> tagNames, long snapshotWatermark) {
+        tagsByQuestion.clear();
+        pairs.clear();
+        totals.clear();
+        tagsByQuestion.putAll(loaded);
+        tagsByQuestion.values().forEach(tagIds -> count(tagIds, 1));
+        names.clear();
+        idsByName.clear();
+        tagNames.forEach((tagId, name) -> {
+            names.put(tagId, name);
+            idsByName.put(TagNameIndex.normalize(name), tagId);
+        });
+        watermark = snapshotWatermark;
+        dirty = true;
+    }
+
+    private void count(long[] tagIds, int delta) {
+        for (int i = 0; i < tagIds.length; i++) {
+            totals.merge(tagIds[i], delta, this::sumOrRemove);
+            for (int j = 0; j < tagIds.length; j++) {
+                if (i != j) {
+                    Map<Long, Integer> row = pairs.computeIfAbsent(tagIds[i], id -> new HashMap<>());
+                    row.merge(tagIds[j], delta, this::sumOrRemove);
+                    if (row.isEmpty()) {
+                        pairs.remove(tagIds[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    // Drops a count that reaches zero, so the maps stay sparse
+    private Integer sumOrRemove(Integer current, Integer delta) {
+        int sum = current + delta;
+        return sum > 0 ? sum : null;
+    }
+
+    private static long[] sortedIds(List<Long> tagIds) {
+        long[] ids = tagIds.stream().mapToLong(Long::longValue).distinct().toArray();
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private synchronized Path checkpointFile() throws IOException {
+        if (directory == null) {
+            if (checkpointDir == null || checkpointDir.isBlank()) {
+                directory = Files.createTempDirectory("stackit-tags");
+                directory.toFile().deleteOnExit();
+                temporaryDirectory = true;
+            } else {
+                directory = Files.createDirectories(Paths.get(checkpointDir));
+            }
+        }
+        return directory.resolve(CHECKPOINT_FILE);
+    }
+
+}
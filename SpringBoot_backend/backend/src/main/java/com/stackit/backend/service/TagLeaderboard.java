@@ -0,0 +1,453 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.TagDto;
+import com.stackit.backend.dto.TagSuggestionDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tags ranked by question count, all-time and over the last 7 and 30 days,
+ * held in memory so the popular tags listing never touches the database.
+ * Question writes move a tag's counts once they commit; window counts come
+ * from per-tag daily buckets keyed by the question's creation day. A
+ * periodic reload from the stored counts corrects any drift; it reads the
+ * tables without holding the lock and only swaps the result in. The same
+ * tags back the tag picker's autocomplete through a {@link TagNameIndex}.
+ */
+@Component
+public class TagLeaderboard {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagLeaderboard.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 50;
+
+    // Daily buckets kept per tag; must cover the longest window
+    private static final int DAYS = 30;
+
+    public enum Window {
+        ALL(0), WEEK(7), MONTH(30);
+
+        private final int days;
+
+        Window(int days) {
+            this.days = days;
+        }
+
+        /**
+         * @param value "all", "7d" or "30d"
+         */
+        public static Window parse(String value) {
+            if (value == null || value.isBlank() || value.equalsIgnoreCase("all")) {
+                return ALL;
+            }
+            if (value.equalsIgnoreCase("7d")) {
+                return WEEK;
+            }
+            if (value.equalsIgnoreCase("30d")) {
+                return MONTH;
+            }
+            throw new RuntimeException("Window must be all, 7d or 30d");
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CounterReconciler counterReconciler;
+
+    private final Map<Long, TagCounts> tags = new HashMap<>();
+    private final Map<Window, Board> boards = new EnumMap<>(Window.class);
+    private final TagNameIndex names = new TagNameIndex();
+
+    // One reload at a time; reads and question events only wait for the swap
+    private final Object reloadLock = new Object();
+
+    // Tags changed while a reload reads the tables; re-read once it is installed
+    private final Set<Long> changedDuringReload = ConcurrentHashMap.newKeySet();
+    private volatile boolean reloading;
+    private LocalDate today;
+    private volatile boolean ready;
+    private LocalDateTime loadedAt;
+    private long eventsApplied;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread loader = new Thread(() -> {
+            try {
+                // Counts stored before this column existed start at zero
+                counterReconciler.reconcile("tags.question_count");
+                reload();
+            } catch (Exception e) {
+                logger.error("Could not load tag leaderboard: {}", e.getMessage());
+            }
+        }, "tag-leaderboard-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * One page of tags, most questions first, ties broken by name
+     */
+    public Page<TagDto> popular(Window window, int page, int size) {
+        loadIfNeeded();
+        synchronized (this) {
+            return page(window, page, size);
+        }
+    }
+
+    private Page<TagDto> page(Window window, int page, int size) {
+        roll(LocalDate.now());
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        int pageNumber = Math.max(page, 0);
+        Board board = boards.get(window);
+        long skip = (long) pageNumber * pageSize;
+        List<TagDto> content = new ArrayList<>(pageSize);
+        Iterator<Rank> ranks = board.ranked.iterator();
+        for (long i = 0; i < skip && ranks.hasNext(); i++) {
+            ranks.next();
+        }
+        while (content.size() < pageSize && ranks.hasNext()) {
+            Rank rank = ranks.next();
+            TagCounts counts = tags.get(rank.tagId);
+            content.add(new TagDto(counts.id, counts.name, counts.description, counts.color, counts.total,
+                    window == Window.ALL ? null : rank.count));
+        }
+        return new PageImpl<>(content, PageRequest.of(pageNumber, pageSize), board.ranked.size());
+    }
+
+    /**
+     * Tags whose name starts with or contains the query, best first
+     */
+    public List<TagSuggestionDto> search(String query, int limit) {
+        String normalized = TagNameIndex.normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        loadIfNeeded();
+        List<TagSuggestionDto> suggestions = new ArrayList<>();
+        synchronized (this) {
+            for (Long tagId : names.search(normalized, Math.min(Math.max(limit, 1), MAX_SUGGESTIONS))) {
+                TagCounts counts = tags.get(tagId);
+                suggestions.add(new TagSuggestionDto(counts.id, counts.name, counts.color, counts.total));
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Move counts for a question's tags once the write that changed them
+     * commits. Added tags may be new, so the event carries their details;
+     * the question's creation day picks the daily bucket.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onQuestionChanged(QuestionChangedEvent event) {
+        if (!event.hasTagChanges()) {
+            return;
+        }
+        List<TagCounts> added = event.getAddedTags().stream()
+                .map(tag -> new TagCounts(tag.getId(), tag.getName(), tag.getDescription(), tag.getColor()))
+                .toList();
+        LocalDate day = event.getCreatedAt() != null ? event.getCreatedAt().toLocalDate() : LocalDate.now();
+        if (reloading) {
+            changedDuringReload.addAll(event.getRemovedTagIds());
+            added.forEach(tag -> changedDuringReload.add(tag.id));
+        }
+        try {
+            apply(day, event.getRemovedTagIds(), added);
+        } catch (Exception e) {
+            logger.error("Could not update tag leaderboard: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tag.leaderboard.reload-interval-ms:900000}",
+            initialDelayString = "${tag.leaderboard.reload-interval-ms:900000}")
+    public void scheduledReload() {
+        if (ready) {
+            reload();
+        }
+    }
+
+    /**
+     * Re-read every tag's count and the last 30 days of question tagging.
+     * Tags changed by writes that commit during the read are re-read once
+     * the result is installed, since the read may or may not have seen them.
+     */
+    public void reload() {
+        synchronized (reloadLock) {
+            changedDuringReload.clear();
+            reloading = true;
+            LocalDate now = LocalDate.now();
+            try {
+                Map<Long, TagCounts> loaded = read(null, now);
+                synchronized (this) {
+                    install(loaded, now);
+                }
+            } finally {
+                reloading = false;
+            }
+            for (Long tagId : List.copyOf(changedDuringReload)) {
+                TagCounts reread = read(tagId, now).get(tagId);
+                synchronized (this) {
+                    replace(reread, now);
+                }
+            }
+            changedDuringReload.clear();
+        }
+    }
+
+    /**
+     * Load on first use; callers racing in before the startup load wait for
+     * one reload instead of each running their own
+     */
+    private void loadIfNeeded() {
+        if (ready) {
+            return;
+        }
+        synchronized (reloadLock) {
+            if (!ready) {
+                reload();
+            }
+        }
+    }
+
+    /**
+     * Counts for every tag, or only for tagId when it is not null
+     */
+    private Map<Long, TagCounts> read(Long tagId, LocalDate now) {
+        Map<Long, TagCounts> loaded = new HashMap<>();
+        Timestamp since = Timestamp.valueOf(now.minusDays(DAYS - 1).atStartOfDay());
+        jdbcTemplate.query("SELECT id, name, description, color, question_count FROM tags"
+                + (tagId != null ? " WHERE id = ?" : ""), rs -> {
+                    TagCounts counts = new TagCounts(rs.getLong("id"), rs.getString("name"),
+                            rs.getString("description"), rs.getString("color"));
+                    counts.total = rs.getInt("question_count");
+                    loaded.put(counts.id, counts);
+                }, tagId != null ? new Object[] { tagId } : new Object[0]);
+        jdbcTemplate.query("SELECT qt.tag_id, CAST(q.created_at AS DATE) AS created_day, COUNT(*) AS questions "
+                + "FROM question_tags qt JOIN questions q ON q.id = qt.question_id "
+                + "WHERE q.created_at >= ? AND COALESCE(q.moderation_status, 'VISIBLE') = 'VISIBLE'"
+                + (tagId != null ? " AND qt.tag_id = ?" : "")
+                + " GROUP BY qt.tag_id, CAST(q.created_at AS DATE)", rs -> {
+                    TagCounts counts = loaded.get(rs.getLong("tag_id"));
+                    LocalDate day = rs.getDate("created_day").toLocalDate();
+                    if (counts != null && !day.isAfter(now)) {
+                        counts.daily[bucket(day)] += rs.getInt("questions");
+                    }
+                }, tagId != null ? new Object[] { since, tagId } : new Object[] { since });
+        return loaded;
+    }
+
+    private void install(Map<Long, TagCounts> loaded, LocalDate now) {
+        tags.clear();
+        tags.putAll(loaded);
+        names.clear();
+        tags.values().forEach(counts -> names.add(counts.id, counts.name, counts.total));
+        today = now;
+        for (Window window : Window.values()) {
+            rebuildBoard(window);
+        }
+        roll(LocalDate.now());
+        loadedAt = LocalDateTime.now();
+        ready = true;
+    }
+
+    /**
+     * Swap in one tag re-read on the day the reload started
+     */
+    private void replace(TagCounts counts, LocalDate readOn) {
+        if (counts == null) {
+            // Tags are never deleted; nothing to correct
+            return;
+        }
+        for (LocalDate day = readOn.plusDays(1); !day.isAfter(today); day = day.plusDays(1)) {
+            counts.daily[bucket(day)] = 0;
+        }
+        if (tags.put(counts.id, counts) == null) {
+            names.add(counts.id, counts.name, counts.total);
+        } else {
+            names.setCount(counts.id, counts.total);
+        }
+        for (Window window : Window.values()) {
+            boards.get(window).put(counts, count(counts, window));
+        }
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("tags", tags.size());
+        stats.put("indexedNames", names.size());
+        stats.put("rankedLast7Days", ready ? boards.get(Window.WEEK).ranked.size() : 0);
+        stats.put("rankedLast30Days", ready ? boards.get(Window.MONTH).ranked.size() : 0);
+        stats.put("eventsApplied", eventsApplied);
+        stats.put("loadedAt", loadedAt);
+        return stats;
+    }
+
+    private synchronized void apply(LocalDate day, List<Long> removed, List<TagCounts> added) {
+        if (!ready) {
+            // The first load reads these from the database
+            return;
+        }
+        roll(LocalDate.now());
+        for (Long tagId : removed) {
+            TagCounts counts = tags.get(tagId);
+            if (counts != null) {
+                adjust(counts, day, -1);
+            }
+        }
+        for (TagCounts tag : added) {
+            TagCounts counts = tags.computeIfAbsent(tag.id, id -> tag);
+            if (counts == tag) {
+                names.add(tag.id, tag.name, 0);
+            }
+            adjust(counts, day, 1);
+        }
+        eventsApplied++;
+    }
+
+    private void adjust(TagCounts counts, LocalDate day, int delta) {
+        counts.total = Math.max(counts.total + delta, 0);
+        names.setCount(counts.id, counts.total);
+        // Creation days in the future (clock skew) count as today
+        LocalDate effective = day.isAfter(today) ? today : day;
+        if (ChronoUnit.DAYS.between(effective, today) < DAYS) {
+            int bucket = bucket(effective);
+            counts.daily[bucket] = Math.max(counts.daily[bucket] + delta, 0);
+        }
+        for (Window window : Window.values()) {
+            boards.get(window).put(counts, count(counts, window));
+        }
+    }
+
+    /**
+     * Clear the buckets of days that fell out of the 30-day range and re-rank
+     * the windows once the date changes
+     */
+    private void roll(LocalDate now) {
+        if (!now.isAfter(today)) {
+            return;
+        }
+        long elapsed = Math.min(ChronoUnit.DAYS.between(today, now), DAYS);
+        for (TagCounts counts : tags.values()) {
+            for (long d = 0; d < elapsed; d++) {
+                counts.daily[bucket(now.minusDays(d))] = 0;
+            }
+        }
+        today = now;
+        rebuildBoard(Window.WEEK);
+        rebuildBoard(Window.MONTH);
+    }
+
+    private void rebuildBoard(Window window) {
+        Board board = new Board(window == Window.ALL);
+        tags.values().forEach(counts -> board.put(counts, count(counts, window)));
+        boards.put(window, board);
+    }
+
+    private int count(TagCounts counts, Window window) {
+        if (window == Window.ALL) {
+            return counts.total;
+        }
+        int sum = 0;
+        for (int d = 0; d < window.days; d++) {
+            sum += counts.daily[bucket(today.minusDays(d))];
+        }
+        return sum;
+    }
+
+    private static int bucket(LocalDate day) {
+        return (int) Math.floorMod(day.toEpochDay(), (long) DAYS);
+    }
+
+    private static final class TagCounts {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final String color;
+        private final int[] daily = new int[DAYS];
+        private int total;
+
+        private TagCounts(long id, String name, String description, String color) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.color = color;
+        }
+    }
+
+    private static final class Rank {
+        private static final Comparator<Rank> ORDER = Comparator.comparingInt((Rank rank) -> -rank.count)
+                .thenComparing(rank -> rank.name)
+                .thenComparingLong(rank -> rank.tagId);
+
+        private final int count;
+        private final String name;
+        private final long tagId;
+
+        private Rank(int count, String name, long tagId) {
+            this.count = count;
+            this.name = name;
+            this.tagId = tagId;
+        }
+    }
+
+    /**
+     * Ranked tags for one window. Window boards leave out tags with no
+     * questions in the window; the all-time board lists every tag.
+     */
+    private static final class Board {
+        private final TreeSet<Rank> ranked = new TreeSet<>(Rank.ORDER);
+        private final Map<Long, Rank> byTag = new HashMap<>();
+        private final boolean keepEmpty;
+
+        private Board(boolean keepEmpty) {
+            this.keepEmpty = keepEmpty;
+        }
+
+        private void put(TagCounts counts, int count) {
+            Rank previous = byTag.remove(counts.id);
+            if (previous != null) {
+                ranked.remove(previous);
+            }
+            if (count > 0 || keepEmpty) {
+                Rank rank = new Rank(count, counts.name, counts.id);
+                ranked.add(rank);
+                byTag.put(counts.id, rank);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.stackit.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Tag names indexed for autocomplete. Postings hold tags most used first:
+ * one per leading 1-4 characters for prefix matches and one per two-letter
+ * gram for matches further into a name, so a lookup stops as soon as it has
+ * enough tags. Not thread-safe; {@link TagLeaderboard} guards it.
+ */
+final class TagNameIndex {
+
+    private static final int ANCHORED_LENGTH = 4;
+
+    private static final Comparator<Entry> RANK = Comparator.comparingInt((Entry entry) -> -entry.count)
+            .thenComparing(entry -> entry.name)
+            .thenComparingLong(entry -> entry.id);
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, List<Entry>> exact = new HashMap<>();
+    private final Map<String, TreeSet<Entry>> prefixes = new HashMap<>();
+    private final Map<String, TreeSet<Entry>> bigrams = new HashMap<>();
+
+    static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    void add(long tagId, String name, int count) {
+        String lower = normalize(name);
+        if (lower.isEmpty() || entries.containsKey(tagId)) {
+            return;
+        }
+        Entry entry = new Entry(tagId, lower, count);
+        entries.put(tagId, entry);
+        exact.computeIfAbsent(lower, key -> new ArrayList<>(1)).add(entry);
+        link(entry);
+    }
+
+    /**
+     * Re-rank a tag after its question count changed
+     */
+    void setCount(long tagId, int count) {
+        Entry entry = entries.get(tagId);
+        if (entry == null || entry.count == count) {
+            return;
+        }
+        // Entries are ordered by count, so move them out while it changes
+        unlink(entry);
+        entry.count = count;
+        link(entry);
+    }
+
+    void clear() {
+        entries.clear();
+        exact.clear();
+        prefixes.clear();
+        bigrams.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Tags named exactly like the query first, then names starting with it,
+     * then (for two or more characters) names containing it; most used first
+     * within each group
+     */
+    List<Long> search(String query, int limit) {
+        Set<Long> found = new LinkedHashSet<>();
+        for (Entry entry : exact.getOrDefault(query, List.of())) {
+            if (found.size() < limit) {
+                found.add(entry.id);
+            }
+        }
+        TreeSet<Entry> anchored = prefixes.get(query.substring(0, Math.min(query.length(), ANCHORED_LENGTH)));
+        if (anchored != null) {
+            for (Entry entry : anchored) {
+                if (found.size() >= limit) {
+                    return new ArrayList<>(found);
+                }
+                if (entry.name.startsWith(query)) {
+                    found.add(entry.id);
+                }
+            }
+        }
+        if (query.length() < 2) {
+            return new ArrayList<>(found);
+        }
+        TreeSet<Entry> rarest = null;
+        for (int i = 0; i + 2 <= query.length(); i++) {
+            TreeSet<Entry> posting = bigrams.get(query.substring(i, i + 2));
+            if (posting == null) {
+                return new ArrayList<>(found);
+            }
+            if (rarest == null || posting.size() < rarest.size()) {
+                rarest = posting;
+            }
+        }
+        for (Entry entry : rarest) {
+            if (found.size() >= limit) {
+                break;
+            }
+            if (!entry.name.startsWith(query) && entry.name.indexOf(query, 1) > 0) {
+                found.add(entry.id);
+            }
+        }
+        return new ArrayList<>(found);
+    }
+
+    private void link(Entry entry) {
+        for (int length = 1; length <= Math.min(entry.name.length(), ANCHORED_LENGTH); length++) {
+            prefixes.computeIfAbsent(entry.name.substring(0, length), key -> new TreeSet<>(RANK)).add(entry);
+        }
+        for (int i = 0; i + 2 <= entry.name.length(); i++) {
+            bigrams.computeIfAbsent(entry.name.substring(i, i + 2), key -> new TreeSet<>(RANK)).add(entry);
+        }
+    }
+
+    private void unlink(Entry entry) {
+        for (int length = 1; length <= Math.min(entry.name.length(), ANCHORED_LENGTH); length++) {
+            prefixes.get(entry.name.substring(0, length)).remove(entry);
+        }
+        for (int i = 0; i + 2 <= entry.name.length(); i++) {
+            bigrams.get(entry.name.substring(i, i + 2)).remove(entry);
+        }
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final String name;
+        private int count;
+
+        private Entry(long id, String name, int count) {
+            this.id = id;
+            this.name = name;
+            this.count = count;
+        }
+    }
+}
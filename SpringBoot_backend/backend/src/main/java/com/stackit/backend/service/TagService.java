@@ -0,0 +1,91 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.entity.Tag;
+import com.stackit.backend.repository.TagRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Service
+public class TagService {
+
+    // Inserts a tag unless one with the same name exists; a concurrent insert of the name is not an error
+    private static final String MYSQL_INSERT_IF_ABSENT = "INSERT IGNORE INTO tags "
+            + "(name, color, question_count, created_at) VALUES (?, '#007bff', 0, CURRENT_TIMESTAMP)";
+    // H2 has no INSERT IGNORE; this MERGE only inserts, so an existing tag keeps its color and created_at.
+    // A concurrent insert of the same name still fails on the unique constraint and is retried.
+    private static final String H2_INSERT_IF_ABSENT = "MERGE INTO tags t USING (VALUES (CAST(? AS VARCHAR))) "
+            + "AS s(name) ON t.name = s.name WHEN NOT MATCHED THEN INSERT (name, color, question_count, created_at) "
+            + "VALUES (s.name, '#007bff', 0, CURRENT_TIMESTAMP)";
+
+    // Retries of the insert-if-absent after losing a race; each retry sees the winner's row
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile String insertIfAbsent;
+
+    /**
+     * Find or create the tags with the given names: one query for the existing
+     * tags and, if any are missing, one batched insert-if-absent and a second
+     * query. Two writers adding the same new tag both end up with the one row.
+     */
+    public Set<Tag> resolveTags(Collection<String> tagNames) {
+        Set<String> names = new LinkedHashSet<>();
+        if (tagNames != null) {
+            for (String name : tagNames) {
+                if (name != null && !name.isBlank()) {
+                    names.add(name.trim());
+                }
+            }
+        }
+        if (names.isEmpty()) {
+            return new HashSet<>();
+        }
+        List<Tag> existing = tagRepository.findByNameIn(names);
+        // Name order, so concurrent writers take locks on new rows in the same order
+        Set<String> missing = new TreeSet<>(names);
+        existing.forEach(tag -> missing.remove(tag.getName()));
+        if (missing.isEmpty()) {
+            return new HashSet<>(existing);
+        }
+        insertIfAbsent(missing);
+        return new HashSet<>(tagRepository.findByNameIn(names));
+    }
+
+    private void insertIfAbsent(Set<String> names) {
+        List<Object[]> rows = names.stream().map(name -> new Object[] { name }).toList();
+        for (int attempt = 1;; attempt++) {
+            try {
+                jdbcTemplate.batchUpdate(insertIfAbsentSql(), rows);
+                return;
+            } catch (DuplicateKeyException e) {
+                if (attempt == MAX_INSERT_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private String insertIfAbsentSql() {
+        if (insertIfAbsent == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            insertIfAbsent = "H2".equalsIgnoreCase(product) ? H2_INSERT_IF_ABSENT : MYSQL_INSERT_IF_ABSENT;
+        }
+        return insertIfAbsent;
+    }
+}
@@ -0,0 +1,61 @@
+package com.stackit.backend.service;
+
+import java.util.regex.Pattern;
+
+/**
+ * Plain-text excerpt of a rich-text (HTML) body for list views: code blocks
+ * and images are dropped, tags stripped, common entities decoded, whitespace
+ * collapsed and the result cut at a word boundary.
+ */
+public final class TextExcerpt {
+
+    public static final int MAX_LENGTH = 200;
+
+    private static final Pattern CODE_BLOCKS = Pattern.compile("(?is)<(pre|script|style)\\b.*?</\\1\\s*>");
+    private static final Pattern BLOCK_BREAKS = Pattern.compile("(?i)<(br|/p|/div|/li|/h[1-6]|/blockquote)\\b[^>]*>");
+    private static final Pattern TAGS = Pattern.compile("<[^>]*>");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private TextExcerpt() {
+    }
+
+    public static String fromHtml(String html) {
+        if (html == null || html.isEmpty()) {
+            return "";
+        }
+        String text = CODE_BLOCKS.matcher(html).replaceAll(" ");
+        text = BLOCK_BREAKS.matcher(text).replaceAll(" ");
+        text = TAGS.matcher(text).replaceAll("");
+        text = decodeEntities(text);
+        text = WHITESPACE.matcher(text).replaceAll(" ").trim();
+        return truncate(text);
+    }
+
+    private static String truncate(String text) {
+        if (text.length() <= MAX_LENGTH) {
+            return text;
+        }
+        // Leave room for the ellipsis and avoid cutting a word in half
+        int end = text.lastIndexOf(' ', MAX_LENGTH - 1);
+        if (end < MAX_LENGTH / 2) {
+            end = MAX_LENGTH - 1;
+        }
+        if (Character.isHighSurrogate(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(0, end).trim() + "…";
+    }
+
+    private static String decodeEntities(String text) {
+        if (text.indexOf('&') < 0) {
+            return text;
+        }
+        return text.replace("&nbsp;", " ")
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&#39;", "'")
+                .replace("&apos;", "'")
+                .replace("&amp;", "&");
+    }
+}
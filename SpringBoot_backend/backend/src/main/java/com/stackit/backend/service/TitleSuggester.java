@@ -0,0 +1,699 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.QuestionSuggestionDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory autocomplete over visible question titles for the ask box.
+ *
+ * Title words live in a compressed trie whose nodes keep the best questions
+ * (by votes and views) having a word under that prefix, so a keystroke costs a
+ * walk down the trie rather than a scan. The last word typed is matched as a
+ * prefix and earlier words as whole words; words of 4 or more letters may be
+ * one edit away, 8 or more two edits.
+ *
+ * The trie is immutable and rebuilt in the background. Questions changed since
+ * the last build are kept aside and checked directly on every lookup, so edits
+ * show up immediately. The trie is rebuilt once enough changes pile up or the
+ * oldest has waited long enough. Scores are refreshed from the database
+ * periodically, so vote and view changes alone do not trigger a rebuild.
+ */
+@Component
+public class TitleSuggester {
+
+    private static final Logger logger = LoggerFactory.getLogger(TitleSuggester.class);
+
+    private static final int MAX_LIMIT = 20;
+
+    // Only the last few words typed are matched, keeping long queries cheap
+    private static final int MAX_QUERY_TERMS = 8;
+
+    private static final Comparator<Entry> BY_SCORE = TitleSuggester::compareScore;
+
+    @Value("${question.suggest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${question.suggest.top-k:16}")
+    private int topK;
+
+    @Value("${question.suggest.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${question.suggest.rebuild-after-changes:500}")
+    private int rebuildAfterChanges;
+
+    @Value("${question.suggest.rebuild-after-ms:60000}")
+    private long rebuildAfterMs;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private Timer latency;
+
+    // Visible questions by id; the source the trie is built from
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // Question id -> sequence number of its latest change not yet in the trie
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    // When the oldest change not yet in the trie was made, 0 if none
+    private volatile long pendingSince;
+    private volatile Node root = Node.EMPTY;
+    private volatile int nodeCount;
+    private volatile boolean ready;
+
+    @PostConstruct
+    void registerMetrics() {
+        latency = Timer.builder("question.suggest.latency")
+                .description("Time to answer one autocomplete lookup")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    /**
+     * Load titles off the startup thread
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread loader = new Thread(() -> {
+            try {
+                reload();
+                ready = true;
+            } catch (Exception e) {
+                logger.error("Could not load question titles for suggestions: {}", e.getMessage());
+            }
+        }, "title-suggester-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Re-read a question once the write that changed it commits
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onQuestionChanged(QuestionChangedEvent event) {
+        // Scores are picked up by the periodic reload
+        if (!enabled || event.isScoreOnly()) {
+            return;
+        }
+        try {
+            apply(event.getQuestionId(), loadEntry(event.getQuestionId()));
+        } catch (Exception e) {
+            logger.error("Could not update question suggestions: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Best matching titles for what has been typed so far
+     */
+    public List<QuestionSuggestionDto> suggest(String query, int limit) {
+        if (!isReady()) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        try {
+            return lookup(query, Math.min(Math.max(limit, 1), MAX_LIMIT));
+        } finally {
+            latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Fold changed questions into a new trie once there are enough of them
+     * or the oldest has waited long enough
+     */
+    @Scheduled(fixedDelayString = "${question.suggest.refresh-interval-ms:10000}")
+    public void refresh() {
+        if (!isReady() || pending.isEmpty()) {
+            return;
+        }
+        long since = pendingSince;
+        if (pending.size() >= rebuildAfterChanges
+                || (since != 0 && System.currentTimeMillis() - since >= rebuildAfterMs)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Re-read every visible title so votes and views count toward the ranking
+     */
+    @Scheduled(fixedDelayString = "${question.suggest.reload-interval-ms:900000}",
+            initialDelayString = "${question.suggest.reload-interval-ms:900000}")
+    public void scheduledReload() {
+        if (isReady()) {
+            reload();
+        }
+    }
+
+    /**
+     * Load every visible title from the database and rebuild the trie
+     *
+     * @return number of questions loaded
+     */
+    public synchronized int reload() {
+        if (!enabled) {
+            return 0;
+        }
+        long snapshotSequence = sequence.get();
+        Map<Long, Entry> loaded = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT id, title, vote_score, view_count "
+                    + "FROM questions WHERE COALESCE(moderation_status, 'VISIBLE') = 'VISIBLE'");
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, rs -> {
+            Entry entry = toEntry(rs);
+            loaded.put(entry.id, entry);
+        });
+
+        // Changes that committed after the read started are already newer in memory
+        synchronized (entries) {
+            for (Map.Entry<Long, Long> change : pending.entrySet()) {
+                if (change.getValue() > snapshotSequence) {
+                    Entry current = entries.get(change.getKey());
+                    if (current != null) {
+                        loaded.put(change.getKey(), current);
+                    } else {
+                        loaded.remove(change.getKey());
+                    }
+                }
+            }
+            entries.keySet().retainAll(loaded.keySet());
+            entries.putAll(loaded);
+        }
+        install(loaded.values(), snapshotSequence);
+        logger.debug("Loaded {} question titles for suggestions", loaded.size());
+        return loaded.size();
+    }
+
+    /**
+     * Rebuild the trie from the titles in memory
+     */
+    public synchronized void rebuild() {
+        long snapshotSequence = sequence.get();
+        install(new ArrayList<>(entries.values()), snapshotSequence);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", ready);
+        stats.put("questions", entries.size());
+        stats.put("pendingChanges", pending.size());
+        stats.put("trieNodes", nodeCount);
+        stats.put("lookups", latency.count());
+        for (ValueAtPercentile percentile : latency.takeSnapshot().percentileValues()) {
+            stats.put("p" + Math.round(percentile.percentile() * 100) + "Ms",
+                    percentile.value(TimeUnit.MILLISECONDS));
+        }
+        return stats;
+    }
+
+    private List<QuestionSuggestionDto> lookup(String query, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(SearchTokenizer.tokenize(query)));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        if (tokens.size() > MAX_QUERY_TERMS) {
+            tokens = tokens.subList(tokens.size() - MAX_QUERY_TERMS, tokens.size());
+        }
+        // The word being typed is a prefix; a trailing space or punctuation completes it
+        char lastChar = query.charAt(query.length() - 1);
+        boolean lastIsPrefix = Character.isLetterOrDigit(lastChar) || lastChar == '+' || lastChar == '#';
+
+        Node trie = root;
+        List<Entry[]> lists = new ArrayList<>();
+        List<TermMatch> termMatches = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            TermMatch termMatch = new TermMatch(tokens.get(i), lastIsPrefix && i == tokens.size() - 1);
+            int maxEdits = maxEdits(termMatch.token);
+            if (maxEdits == 0) {
+                collectExact(trie, termMatch, lists);
+            } else {
+                int[] row = new int[termMatch.token.length() + 1];
+                for (int j = 0; j < row.length; j++) {
+                    row[j] = j;
+                }
+                collectFuzzy(trie, new StringBuilder(), row, maxEdits, termMatch, lists);
+            }
+            termMatches.add(termMatch);
+        }
+
+        // Questions changed since the trie was built are checked with their current title instead
+        Set<Long> changed = pending.isEmpty() ? Set.of() : new HashSet<>(pending.keySet());
+        Set<Entry> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Entry[] list : lists) {
+            for (Entry entry : list) {
+                if (changed.isEmpty() || !changed.contains(entry.id)) {
+                    candidates.add(entry);
+                }
+            }
+        }
+        Set<Entry> changedEntries = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Long questionId : changed) {
+            Entry current = entries.get(questionId);
+            if (current != null) {
+                candidates.add(current);
+                changedEntries.add(current);
+            }
+        }
+
+        // Keep the best few in a heap whose head is the weakest kept match
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, (a, b) -> compare(b, a));
+        for (Entry entry : candidates) {
+            Match match = match(entry, termMatches, changedEntries.contains(entry));
+            if (match.matched > 0 && (best.size() < limit || compare(match, best.peek()) < 0)) {
+                best.add(match);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+
+        QuestionSuggestionDto[] suggestions = new QuestionSuggestionDto[best.size()];
+        for (int i = suggestions.length - 1; i >= 0; i--) {
+            Entry entry = best.poll().entry;
+            suggestions[i] = new QuestionSuggestionDto(entry.id, entry.title, entry.voteScore, entry.viewCount);
+        }
+        return Arrays.asList(suggestions);
+    }
+
+    /**
+     * How many query words a title matches, and how many of those without edits.
+     * Terms found in the trie walk are reused; titles not in the trie yet are
+     * compared directly.
+     */
+    private static Match match(Entry entry, List<TermMatch> termMatches, boolean direct) {
+        Match match = new Match(entry);
+        for (TermMatch termMatch : termMatches) {
+            if (!direct && termMatch.found.isEmpty()) {
+                continue;
+            }
+            boolean matched = false;
+            for (String term : entry.terms) {
+                if (termMatch.prefix ? term.startsWith(termMatch.token) : term.equals(termMatch.token)) {
+                    match.exact++;
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                for (String term : entry.terms) {
+                    if (direct ? withinEdits(termMatch, term) : termMatch.matches(term)) {
+                        matched = true;
+                        break;
+                    }
+                }
+            }
+            if (matched) {
+                match.matched++;
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Better matches first: more words matched, then fewer edits, then higher score
+     */
+    private static int compare(Match a, Match b) {
+        if (a.matched != b.matched) {
+            return Integer.compare(b.matched, a.matched);
+        }
+        if (a.exact != b.exact) {
+            return Integer.compare(b.exact, a.exact);
+        }
+        return compareScore(a.entry, b.entry);
+    }
+
+    /**
+     * Higher score first, newer question first on ties
+     */
+    private static int compareScore(Entry a, Entry b) {
+        int byScore = Double.compare(b.score, a.score);
+        return byScore != 0 ? byScore : Long.compare(b.id, a.id);
+    }
+
+    private static int maxEdits(String token) {
+        if (token.length() >= 8) {
+            return 2;
+        }
+        return token.length() >= 4 ? 1 : 0;
+    }
+
+    /**
+     * Whether a term (or, for the word being typed, some prefix of it) is within
+     * the query word's edit budget
+     */
+    private static boolean withinEdits(TermMatch termMatch, String term) {
+        int maxEdits = maxEdits(termMatch.token);
+        if (maxEdits == 0) {
+            return false;
+        }
+        int last = termMatch.token.length();
+        int[] row = new int[last + 1];
+        for (int i = 0; i <= last; i++) {
+            row[i] = i;
+        }
+        for (int j = 0; j < term.length(); j++) {
+            row = nextRow(row, termMatch.token, term.charAt(j));
+            if (termMatch.prefix && row[last] <= maxEdits) {
+                return true;
+            }
+            if (min(row) > maxEdits) {
+                return false;
+            }
+        }
+        return row[last] <= maxEdits;
+    }
+
+    private static int[] nextRow(int[] previous, String token, char c) {
+        int[] row = new int[previous.length];
+        row[0] = previous[0] + 1;
+        for (int i = 1; i < row.length; i++) {
+            int substitution = previous[i - 1] + (token.charAt(i - 1) == c ? 0 : 1);
+            row[i] = Math.min(substitution, Math.min(row[i - 1], previous[i]) + 1);
+        }
+        return row;
+    }
+
+    private static int min(int[] row) {
+        int min = Integer.MAX_VALUE;
+        for (int value : row) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    private static void collectExact(Node node, TermMatch termMatch, List<Entry[]> out) {
+        String token = termMatch.token;
+        int position = 0;
+        while (position < token.length()) {
+            Node child = node.child(token.charAt(position));
+            if (child == null) {
+                return;
+            }
+            int matched = 0;
+            while (matched < child.label.length && position < token.length()
+                    && child.label[matched] == token.charAt(position)) {
+                matched++;
+                position++;
+            }
+            if (matched < child.label.length) {
+                // The token ends inside this edge, so every term below it shares the prefix
+                if (termMatch.prefix && position == token.length()) {
+                    out.add(child.top);
+                    termMatch.add(token);
+                }
+                return;
+            }
+            node = child;
+        }
+        if (termMatch.prefix) {
+            out.add(node.top);
+            termMatch.add(token);
+        } else if (node.exact != null) {
+            out.add(node.exact);
+            termMatch.add(token);
+        }
+    }
+
+    /**
+     * Walk the trie with a Levenshtein row per character, pruning branches
+     * already more than maxEdits away from the query word. The terms (or, for
+     * the word being typed, prefixes) found close enough are recorded so that
+     * candidates can be checked without computing distances again.
+     */
+    private static void collectFuzzy(Node node, StringBuilder path, int[] row, int maxEdits, TermMatch termMatch,
+            List<Entry[]> out) {
+        int last = termMatch.token.length();
+        for (Node child : node.children) {
+            int depth = path.length();
+            int[] current = row;
+            boolean done = false;
+            for (char c : child.label) {
+                path.append(c);
+                current = nextRow(current, termMatch.token, c);
+                if (termMatch.prefix && current[last] <= maxEdits) {
+                    out.add(child.top);
+                    termMatch.add(path.toString());
+                    done = true;
+                    break;
+                }
+                if (min(current) > maxEdits) {
+                    done = true;
+                    break;
+                }
+            }
+            if (!done) {
+                if (!termMatch.prefix && child.exact != null && current[last] <= maxEdits) {
+                    out.add(child.exact);
+                    termMatch.add(path.toString());
+                }
+                collectFuzzy(child, path, current, maxEdits, termMatch, out);
+            }
+            path.setLength(depth);
+        }
+    }
+
+    private void apply(Long questionId, Entry entry) {
+        synchronized (entries) {
+            if (entry != null) {
+                entries.put(questionId, entry);
+            } else {
+                entries.remove(questionId);
+            }
+            if (pending.isEmpty()) {
+                pendingSince = System.currentTimeMillis();
+            }
+            pending.put(questionId, sequence.incrementAndGet());
+        }
+    }
+
+    /**
+     * Swap in a trie built from the given titles and forget the changes it includes
+     */
+    private void install(Collection<Entry> source, long snapshotSequence) {
+        MutableNode top = new MutableNode();
+        for (Entry entry : source) {
+            for (String term : entry.terms) {
+                MutableNode node = top;
+                for (int i = 0; i < term.length(); i++) {
+                    node = node.children.computeIfAbsent(term.charAt(i), c -> new MutableNode());
+                }
+                if (node.exact == null) {
+                    node.exact = new ArrayList<>();
+                }
+                node.exact.add(entry);
+            }
+        }
+        int[] count = new int[1];
+        root = compress(top, new char[0], false, count);
+        nodeCount = count[0];
+        synchronized (entries) {
+            pending.entrySet().removeIf(change -> change.getValue() <= snapshotSequence);
+            // What is left came in during the build, so it is still fresh
+            pendingSince = pending.isEmpty() ? 0 : System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Collapse single-child chains into labelled edges and keep the best
+     * topK questions per node
+     */
+    private Node compress(MutableNode node, char[] label, boolean collapse, int[] count) {
+        StringBuilder path = new StringBuilder().append(label);
+        while (collapse && node.exact == null && node.children.size() == 1) {
+            Map.Entry<Character, MutableNode> only = node.children.firstEntry();
+            path.append(only.getKey());
+            node = only.getValue();
+        }
+
+        Node[] children = new Node[node.children.size()];
+        int i = 0;
+        for (Map.Entry<Character, MutableNode> child : node.children.entrySet()) {
+            children[i++] = compress(child.getValue(), new char[] { child.getKey() }, true, count);
+        }
+
+        Entry[] exact = null;
+        List<Entry> best = new ArrayList<>();
+        if (node.exact != null) {
+            node.exact.sort(BY_SCORE);
+            exact = node.exact.subList(0, Math.min(topK, node.exact.size())).toArray(new Entry[0]);
+            best.addAll(Arrays.asList(exact));
+        }
+        for (Node child : children) {
+            best.addAll(Arrays.asList(child.top));
+        }
+        best.sort(BY_SCORE);
+        List<Entry> top = new ArrayList<>(topK);
+        for (Entry entry : best) {
+            if (top.size() == topK) {
+                break;
+            }
+            // A question reaches a node once per word below it
+            if (!top.contains(entry)) {
+                top.add(entry);
+            }
+        }
+        count[0]++;
+        return new Node(path.toString().toCharArray(), children, top.toArray(new Entry[0]), exact);
+    }
+
+    /**
+     * A visible question's suggestion entry, or null if it is gone or hidden
+     */
+    private Entry loadEntry(Long questionId) {
+        List<Entry> rows = jdbcTemplate.query("SELECT id, title, vote_score, view_count FROM questions "
+                + "WHERE id = ? AND COALESCE(moderation_status, 'VISIBLE') = 'VISIBLE'", (rs, rowNum) -> toEntry(rs),
+                questionId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private static Entry toEntry(ResultSet rs) throws SQLException {
+        return new Entry(rs.getLong("id"), rs.getString("title"), rs.getInt("vote_score"), rs.getInt("view_count"));
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final String title;
+        private final String[] terms;
+        private final int voteScore;
+        private final int viewCount;
+        private final double score;
+
+        private Entry(long id, String title, int voteScore, int viewCount) {
+            this.id = id;
+            this.title = title;
+            this.terms = new LinkedHashSet<>(SearchTokenizer.tokenize(title)).toArray(new String[0]);
+            this.voteScore = voteScore;
+            this.viewCount = viewCount;
+            // Votes count fully, views with diminishing returns
+            this.score = voteScore + Math.log1p(Math.max(viewCount, 0));
+        }
+    }
+
+    private static final class Node {
+        private static final Node EMPTY = new Node(new char[0], new Node[0], new Entry[0], null);
+
+        private final char[] label;
+        private final Node[] children; // Sorted by the first character of their label
+        private final Entry[] top;
+        private final Entry[] exact; // Null unless a term ends here
+
+        private Node(char[] label, Node[] children, Entry[] top, Entry[] exact) {
+            this.label = label;
+            this.children = children;
+            this.top = top;
+            this.exact = exact;
+        }
+
+        private Node child(char c) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char first = children[mid].label[0];
+                if (first < c) {
+                    low = mid + 1;
+                } else if (first > c) {
+                    high = mid - 1;
+                } else {
+                    return children[mid];
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class MutableNode {
+        private final TreeMap<Character, MutableNode> children = new TreeMap<>();
+        private List<Entry> exact;
+    }
+
+    /**
+     * One query word and the indexed terms (or term prefixes) found within its edit budget
+     */
+    private static final class TermMatch {
+        private final String token;
+        private final boolean prefix;
+        private final Set<String> found = new HashSet<>();
+
+        private TermMatch(String token, boolean prefix) {
+            this.token = token;
+            this.prefix = prefix;
+        }
+
+        private void add(String term) {
+            found.add(term);
+        }
+
+        private boolean matches(String term) {
+            if (!prefix) {
+                return found.contains(term);
+            }
+            for (String candidate : found) {
+                if (term.startsWith(candidate)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Match {
+        private final Entry entry;
+        private int matched;
+        private int exact;
+
+        private Match(Entry entry) {
+            this.entry = entry;
+        }
+    }
+}
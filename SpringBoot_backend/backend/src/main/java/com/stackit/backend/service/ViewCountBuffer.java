@@ -0,0 +1,141 @@
+package com.stackit.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind buffer for question view counts.
+ * Views are counted in memory per question and periodically added to
+ * questions.view_count with one batched UPDATE, so reading a question never
+ * writes the row and concurrent views are never lost. Flushed views are also
+ * kept per question for as long as a cached thread can predate them, so
+ * cached threads stay correct without being evicted on every flush.
+ */
+@Component
+public class ViewCountBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewCountBuffer.class);
+
+    private static final String FLUSH_SQL =
+            "UPDATE questions SET view_count = COALESCE(view_count, 0) + ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Cached threads live at most this long, which bounds how long a flushed offset is needed
+    @Value("${question.thread.cache.ttl-seconds:300}")
+    private long threadTtlSeconds;
+
+    private volatile ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Long, Flushed> flushed = new ConcurrentHashMap<>();
+
+    // Views take the shared lock; a flush takes the exclusive lock only to swap maps
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    public void recordView(Long questionId) {
+        swapLock.readLock().lock();
+        try {
+            pending.computeIfAbsent(questionId, id -> new LongAdder()).increment();
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Views of a question not yet written to the database
+     */
+    public long getPendingViews(Long questionId) {
+        LongAdder views = pending.get(questionId);
+        return views != null ? views.sum() : 0;
+    }
+
+    /**
+     * Views of a question written to the database by this buffer and still
+     * retained. A thread assembled from the database subtracts this from the
+     * stored count, and readers add it back with the pending views.
+     */
+    public long getFlushedViews(Long questionId) {
+        Flushed views = flushed.get(questionId);
+        if (views == null) {
+            return 0;
+        }
+        views.touchedAt = System.currentTimeMillis();
+        return views.views.sum();
+    }
+
+    /**
+     * Write all buffered views to the database.
+     * If the update fails the views are put back and retried on the next flush.
+     *
+     * @return number of questions updated
+     */
+    @Scheduled(fixedDelayString = "${question.views.flush-interval-ms:5000}")
+    public synchronized int flush() {
+        Map<Long, LongAdder> batch;
+        swapLock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            batch = pending;
+            pending = new ConcurrentHashMap<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        List<Object[]> updates = new ArrayList<>(batch.size());
+        batch.forEach((questionId, views) -> updates.add(new Object[] { views.sum(), questionId }));
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, updates);
+            long now = System.currentTimeMillis();
+            batch.forEach((questionId, views) -> {
+                Flushed total = flushed.computeIfAbsent(questionId, id -> new Flushed());
+                total.views.add(views.sum());
+                total.touchedAt = now;
+            });
+            // Twice the TTL also covers a thread that was still loading when it read the offset
+            flushed.values().removeIf(total -> now - total.touchedAt > 2 * threadTtlSeconds * 1000);
+            logger.debug("Flushed view counts for {} questions", updates.size());
+            return updates.size();
+        } catch (Exception e) {
+            logger.error("Could not flush view counts for {} questions: {}", updates.size(), e.getMessage());
+            swapLock.readLock().lock();
+            try {
+                batch.forEach((questionId, views) -> pending.computeIfAbsent(questionId, id -> new LongAdder())
+                        .add(views.sum()));
+            } finally {
+                swapLock.readLock().unlock();
+            }
+            return 0;
+        }
+    }
+
+    private static final class Flushed {
+        private final LongAdder views = new LongAdder();
+        private volatile long touchedAt;
+    }
+
+    @PreDestroy
+    void drain() {
+        int flushed = flush();
+        if (flushed > 0) {
+            logger.info("Flushed buffered view counts for {} questions on shutdown", flushed);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.AnswerDto;
+import com.stackit.backend.dto.CommentDto;
+import com.stackit.backend.dto.QuestionDto;
+import com.stackit.backend.dto.request.CreateAnswerRequest;
+import com.stackit.backend.dto.request.CreateCommentRequest;
+import com.stackit.backend.dto.request.CreateQuestionRequest;
+import com.stackit.backend.entity.ModerationStatus;
+import com.stackit.backend.entity.User;
+import com.stackit.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Answer, accept, vote and comment writes keep the denormalized counters exact,
+ * counting only visible content, and the reconciler repairs values that
+ * drifted anyway.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:counter_tests",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.stackit.backend=ERROR",
+        "moderation.api.enabled=false",
+        "counters.reconcile-initial-delay-ms=3600000" })
+@ActiveProfiles("h2")
+class CounterMaintenanceTests {
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private AnswerService answerService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private CounterReconciler counterReconciler;
+
+    @Autowired
+    private ModerationStatusUpdater statusUpdater;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void writesKeepCountersInStep() {
+        Long adminId = userRepository.findByUsername("admin").orElseThrow().getId();
+        Long voterId = createUser("counter_voter").getId();
+        QuestionDto question = questionService.createQuestion(
+                new CreateQuestionRequest("Counted question", "Body", Set.of("java"), null), adminId);
+
+        AnswerDto first = answerService.createAnswer(new CreateAnswerRequest("First answer", null),
+                question.getId(), adminId);
+        AnswerDto second = answerService.createAnswer(new CreateAnswerRequest("Second answer", null),
+                question.getId(), adminId);
+        answerService.acceptAnswer(first.getId(), adminId);
+
+        CommentDto comment = commentService.createComment(new CreateCommentRequest("Nice", null),
+                second.getId(), adminId);
+        commentService.createComment(new CreateCommentRequest("Agreed", null), second.getId(), voterId);
+
+        assertEquals(1, answerService.voteAnswer(second.getId(), adminId, 1));
+        assertEquals(2, answerService.voteAnswer(second.getId(), voterId, 1));
+        assertEquals(0, answerService.voteAnswer(second.getId(), voterId, -1));
+        assertEquals(0, answerService.voteAnswer(second.getId(), voterId, -1));
+        assertEquals(1, answerService.voteAnswer(second.getId(), voterId, 0));
+        assertEquals(-1, questionService.voteQuestion(question.getId(), voterId, -1));
+        assertThrows(RuntimeException.class, () -> answerService.voteAnswer(second.getId(), voterId, 2));
+
+        commentService.deleteComment(comment.getId(), adminId);
+
+        Map<String, Object> questionRow = questionRow(question.getId());
+        assertEquals(2, ((Number) questionRow.get("answer_count")).intValue());
+        assertEquals(Boolean.TRUE, questionRow.get("has_accepted_answer"));
+        assertEquals(-1, ((Number) questionRow.get("vote_score")).intValue());
+        Map<String, Object> answerRow = answerRow(second.getId());
+        assertEquals(1, ((Number) answerRow.get("vote_score")).intValue());
+        assertEquals(1, ((Number) answerRow.get("comment_count")).intValue());
+
+        answerService.deleteAnswer(first.getId(), adminId);
+        questionRow = questionRow(question.getId());
+        assertEquals(1, ((Number) questionRow.get("answer_count")).intValue());
+        assertEquals(Boolean.FALSE, questionRow.get("has_accepted_answer"));
+
+        // Editing the question must not write its stale counters back
+        transactionTemplate.executeWithoutResult(status -> questionService.updateQuestion(question.getId(), adminId,
+                new CreateQuestionRequest("Counted question", "Edited body", Set.of("java"), null)));
+        assertEquals(1, ((Number) questionRow(question.getId()).get("answer_count")).intValue());
+        assertEquals(Map.of("questions.answer_count", 0, "questions.has_accepted_answer", 0,
+                "questions.vote_score", 0, "tags.question_count", 0, "answers.vote_score", 0,
+                "answers.comment_count", 0),
+                counterReconciler.reconcile());
+    }
+
+    @Test
+    void onlyVisibleContentIsCounted() {
+        Long adminId = userRepository.findByUsername("admin").orElseThrow().getId();
+        QuestionDto question = questionService.createQuestion(
+                new CreateQuestionRequest("Moderated question", "Body", Set.of("counted-tag"), null), adminId);
+        AnswerDto answer = answerService.createAnswer(new CreateAnswerRequest("Moderated answer", null),
+                question.getId(), adminId);
+        answerService.createAnswer(new CreateAnswerRequest("Other answer", null), question.getId(), adminId);
+        CommentDto comment = commentService.createComment(new CreateCommentRequest("Moderated comment", null),
+                answer.getId(), adminId);
+        assertEquals(1, tagCount("counted-tag"));
+        answerService.acceptAnswer(answer.getId(), adminId);
+
+        // Blocking twice moves the counters once
+        for (int i = 0; i < 2; i++) {
+            statusUpdater.setStatus("comment", comment.getId(), ModerationStatus.BLOCKED);
+            statusUpdater.setStatus("answer", answer.getId(), ModerationStatus.BLOCKED);
+            statusUpdater.setStatus("question", question.getId(), ModerationStatus.BLOCKED);
+        }
+        assertEquals(1, ((Number) questionRow(question.getId()).get("answer_count")).intValue());
+        assertEquals(0, ((Number) answerRow(answer.getId()).get("comment_count")).intValue());
+        assertEquals(Boolean.FALSE, questionRow(question.getId()).get("has_accepted_answer"));
+        assertEquals(0, tagCount("counted-tag"));
+        assertEquals(0, counterReconciler.reconcile().values().stream().mapToInt(Integer::intValue).sum());
+        assertThrows(RuntimeException.class, () -> answerService.acceptAnswer(answer.getId(), adminId));
+
+        // Hidden content leaves the counters alone when it is deleted
+        commentService.deleteComment(comment.getId(), adminId);
+        assertEquals(0, ((Number) answerRow(answer.getId()).get("comment_count")).intValue());
+
+        statusUpdater.setStatus("answer", answer.getId(), ModerationStatus.VISIBLE);
+        statusUpdater.setStatus("question", question.getId(), ModerationStatus.VISIBLE);
+        assertEquals(2, ((Number) questionRow(question.getId()).get("answer_count")).intValue());
+        assertEquals(Boolean.TRUE, questionRow(question.getId()).get("has_accepted_answer"));
+        assertEquals(1, tagCount("counted-tag"));
+        assertEquals(0, counterReconciler.reconcile().values().stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    void reconcilerRepairsDrift() {
+        Long adminId = userRepository.findByUsername("admin").orElseThrow().getId();
+        QuestionDto question = questionService.createQuestion(
+                new CreateQuestionRequest("Drifting question", "Body", Set.of("java"), null), adminId);
+        AnswerDto answer = answerService.createAnswer(new CreateAnswerRequest("Only answer", null),
+                question.getId(), adminId);
+        commentService.createComment(new CreateCommentRequest("Comment", null), answer.getId(), adminId);
+
+        jdbcTemplate.update("UPDATE questions SET answer_count = 7, has_accepted_answer = TRUE WHERE id = ?",
+                question.getId());
+        jdbcTemplate.update("UPDATE answers SET comment_count = NULL, vote_score = 5 WHERE id = ?", answer.getId());
+
+        Map<String, Integer> repaired = counterReconciler.reconcile();
+
+        assertEquals(1, repaired.get("questions.answer_count"));
+        assertEquals(1, repaired.get("questions.has_accepted_answer"));
+        assertEquals(1, repaired.get("answers.comment_count"));
+        assertEquals(1, repaired.get("answers.vote_score"));
+        assertEquals(1, ((Number) questionRow(question.getId()).get("answer_count")).intValue());
+        assertEquals(Boolean.FALSE, questionRow(question.getId()).get("has_accepted_answer"));
+        assertEquals(1, ((Number) answerRow(answer.getId()).get("comment_count")).intValue());
+        assertEquals(0, ((Number) answerRow(answer.getId()).get("vote_score")).intValue());
+    }
+
+    private User createUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPasswordHash("secret");
+        return userRepository.save(user);
+    }
+
+    private Map<String, Object> questionRow(Long id) {
+        return jdbcTemplate.queryForMap(
+                "SELECT answer_count, has_accepted_answer, vote_score FROM questions WHERE id = ?", id);
+    }
+
+    private int tagCount(String name) {
+        return jdbcTemplate.queryForObject("SELECT question_count FROM tags WHERE name = ?", Integer.class, name);
+    }
+
+    private Map<String, Object> answerRow(Long id) {
+        return jdbcTemplate.queryForMap("SELECT vote_score, comment_count FROM answers WHERE id = ?", id);
+    }
+}
@@ -0,0 +1,57 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.QuestionDto;
+import com.stackit.backend.dto.request.CreateQuestionRequest;
+import com.stackit.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+
+/**
+ * One application context on an in-memory H2 database, shared by the service
+ * tests that extend this class. Moderation is off and the background refresh
+ * timers are pushed out so tests drive reloads themselves. The database is
+ * shared too, so tests should pick names that other classes do not use.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:service_tests",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.com.stackit.backend=WARN",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "moderation.api.enabled=false",
+        "question.suggest.refresh-interval-ms=3600000",
+        "question.views.flush-interval-ms=3600000",
+        "search.index.compact-interval-ms=3600000" })
+@ActiveProfiles("h2")
+abstract class H2ServiceTestBase {
+
+    @Autowired
+    protected QuestionService questionService;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    protected Long adminId;
+
+    @BeforeEach
+    void loadAdmin() {
+        adminId = userRepository.findByUsername("admin").orElseThrow().getId();
+    }
+
+    protected QuestionDto createQuestion(String title) {
+        return createQuestion(title, "Body of " + title, Set.of("misc"));
+    }
+
+    protected QuestionDto createQuestion(Set<String> tags) {
+        return createQuestion("Tagged question", "Body", tags);
+    }
+
+    protected QuestionDto createQuestion(String title, String description, Set<String> tags) {
+        return questionService.createQuestion(new CreateQuestionRequest(title, description, tags, null), adminId);
+    }
+}
@@ -0,0 +1,49 @@
+package com.stackit.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeywordMatcherTests {
+
+    private final KeywordMatcher matcher = new KeywordMatcher(List.of(
+            new KeywordMatcher.Keyword("he", KeywordMatcher.ListType.REVIEW, "review"),
+            new KeywordMatcher.Keyword("she", KeywordMatcher.ListType.REVIEW, "review"),
+            new KeywordMatcher.Keyword("kill", KeywordMatcher.ListType.REVIEW, "review"),
+            new KeywordMatcher.Keyword("kill -9", KeywordMatcher.ListType.ALLOW, "allow"),
+            new KeywordMatcher.Keyword("buy  NOW", KeywordMatcher.ListType.BLOCK, "spam")));
+
+    @Test
+    void findsOverlappingKeywordsInOnePass() {
+        List<KeywordMatcher.Match> matches = matcher.findAll(KeywordMatcher.normalize("she said he would"));
+
+        assertEquals(List.of("she", "he"), matches.stream().map(m -> m.getKeyword().getTerm()).toList());
+    }
+
+    @Test
+    void onlyMatchesWholeWords() {
+        assertTrue(matcher.findAll(KeywordMatcher.normalize("the skill shelf")).isEmpty());
+    }
+
+    @Test
+    void normalizesCaseAndWhitespace() {
+        List<KeywordMatcher.Match> matches = matcher.findAll(KeywordMatcher.normalize("Buy\n now!"));
+
+        assertEquals(1, matches.size());
+        assertEquals("spam", matches.get(0).getKeyword().getCategory());
+    }
+
+    @Test
+    void reportsMatchSpansSoAllowPhrasesCanCoverThem() {
+        List<KeywordMatcher.Match> matches = matcher.findAll(KeywordMatcher.normalize("just kill -9 it"));
+        KeywordMatcher.Match kill = matches.stream()
+                .filter(m -> m.getKeyword().getTerm().equals("kill")).findFirst().orElseThrow();
+        KeywordMatcher.Match allow = matches.stream()
+                .filter(m -> m.getKeyword().getList() == KeywordMatcher.ListType.ALLOW).findFirst().orElseThrow();
+
+        assertTrue(kill.isInside(allow));
+    }
+}
@@ -0,0 +1,173 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures p99 latency of the in-memory lookups served per keystroke or per
+ * feed page: title suggestions, tag search and the multi-tag feed filter,
+ * each over a corpus of tens of thousands of rows.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:lookup_latency_benchmark",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.stackit.backend=WARN",
+        "moderation.api.enabled=false",
+        "question.suggest.refresh-interval-ms=3600000" })
+@ActiveProfiles("h2")
+class LookupLatencyBenchmarkTests {
+
+    private static final List<String> WORDS = List.of("java", "spring", "boot", "hibernate", "lazy", "loading",
+            "stream", "collector", "gradle", "build", "cache", "thread", "deadlock", "mysql", "index", "query",
+            "join", "fetch", "transaction", "rollback", "docker", "compose", "kotlin", "coroutine", "react", "hook",
+            "state", "render", "python", "pandas", "dataframe", "merge", "regex", "parser");
+
+    private static final String INSERT_QUESTION = "INSERT INTO questions (user_id, title, description, view_count, "
+            + "vote_score, answer_count, has_accepted_answer, is_closed, moderation_status, created_at, updated_at) "
+            + "VALUES (?, ?, 'Body', ?, 0, 0, FALSE, FALSE, ?, "
+            + "DATEADD('MINUTE', ?, TIMESTAMP '2020-01-01 00:00:00'), CURRENT_TIMESTAMP)";
+
+    @Autowired
+    private TitleSuggester titleSuggester;
+
+    @Autowired
+    private TagLeaderboard tagLeaderboard;
+
+    @Autowired
+    private TagBitmapIndex tagBitmapIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void titleSuggestionsOverTwentyThousandQuestions() {
+        Long userId = userRepository.findByUsername("admin").orElseThrow().getId();
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = 0; w < 6; w++) {
+                title.append(word(random)).append(random.nextInt(50)).append(' ');
+            }
+            rows.add(new Object[] { userId, title.toString().trim(), random.nextInt(500), "VISIBLE", i });
+        }
+        jdbcTemplate.batchUpdate(INSERT_QUESTION, rows);
+        titleSuggester.reload();
+
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < 4000; i++) {
+            String typed = word(random);
+            // Every other query has a dropped letter in the word being typed
+            int cut = 1 + random.nextInt(typed.length() - 1);
+            typed = i % 2 == 0 ? typed.substring(0, cut) : typed.substring(0, cut - 1) + typed.substring(cut);
+            queries.add(word(random) + random.nextInt(50) + " " + typed);
+        }
+        double p99Micros = measureP99Micros("Title suggestions over 20000 questions", queries,
+                query -> titleSuggester.suggest(query, 8));
+
+        // A keystroke budget with headroom for a busy test machine, not a target
+        assertTrue(p99Micros < 20000, "p99 was " + p99Micros + " us");
+    }
+
+    @Test
+    void tagSearchOverTwentyThousandTags() {
+        Random random = new Random(7);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            rows.add(new Object[] { "tx-" + word(random) + "-" + word(random) + "-" + i, random.nextInt(1000) });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tags (name, color, question_count, created_at) "
+                + "VALUES (?, '#007bff', ?, CURRENT_TIMESTAMP)", rows);
+        tagLeaderboard.reload();
+
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < 4000; i++) {
+            String word = word(random);
+            queries.add(i % 2 == 0 ? "tx-" + word.substring(0, 1 + random.nextInt(word.length())) : word);
+        }
+        double p99Micros = measureP99Micros("Tag search over 20000 tags", queries,
+                query -> tagLeaderboard.search(query, 10));
+
+        assertTrue(p99Micros < 2000, "p99 was " + p99Micros + " us");
+    }
+
+    @Test
+    void tagFilterOverThirtyThousandQuestions() {
+        Long userId = userRepository.findByUsername("admin").orElseThrow().getId();
+        Random random = new Random(3);
+        List<Long> tagIds = new ArrayList<>();
+        for (int t = 0; t < 30; t++) {
+            jdbcTemplate.update("INSERT INTO tags (name, color, question_count, created_at) "
+                    + "VALUES (?, '#007bff', 0, CURRENT_TIMESTAMP)", "filter-" + t);
+            tagIds.add(jdbcTemplate.queryForObject("SELECT id FROM tags WHERE name = ?", Long.class, "filter-" + t));
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 30000; i++) {
+            rows.add(new Object[] { userId, "Filter question " + i, 0,
+                    random.nextInt(20) == 0 ? "BLOCKED" : "VISIBLE", i / 7 });
+        }
+        jdbcTemplate.batchUpdate(INSERT_QUESTION, rows);
+        List<Object[]> links = new ArrayList<>();
+        for (Long id : jdbcTemplate.queryForList("SELECT id FROM questions WHERE title LIKE 'Filter question %'",
+                Long.class)) {
+            // Skewed: low tag numbers are common, high ones rare
+            int count = 1 + random.nextInt(4);
+            tagIds.stream().filter(tagId -> random.nextDouble() < 0.5).limit(count)
+                    .forEach(tagId -> links.add(new Object[] { id, tagId }));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO question_tags (question_id, tag_id) VALUES (?, ?)", links);
+        tagBitmapIndex.reload();
+
+        record Filter(List<String> tags, TagBitmapIndex.Mode mode) {
+        }
+        List<Filter> queries = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            queries.add(new Filter(List.of("filter-" + random.nextInt(30), "filter-" + random.nextInt(30),
+                    "filter-" + random.nextInt(30)), TagBitmapIndex.Mode.values()[i % 3]));
+        }
+        double p99Micros = measureP99Micros("Tag filter over 30000 questions", queries,
+                query -> tagBitmapIndex.filter(query.tags(), query.mode(), 0, 20));
+
+        assertTrue(p99Micros < 20000, "p99 was " + p99Micros + " us");
+    }
+
+    /**
+     * Warm up on the first half of the queries, then time each of the second
+     * half once
+     */
+    private <T> double measureP99Micros(String lookup, List<T> queries, Consumer<T> run) {
+        int warmup = queries.size() / 2;
+        queries.subList(0, warmup).forEach(run);
+        long[] nanos = new long[queries.size() - warmup];
+        for (int i = 0; i < nanos.length; i++) {
+            long start = System.nanoTime();
+            run.accept(queries.get(warmup + i));
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        double p50Micros = nanos[nanos.length / 2] / 1000.0;
+        double p99Micros = nanos[(int) (nanos.length * 0.99)] / 1000.0;
+        System.out.printf("%s: p50 %.1f us, p99 %.1f us%n", lookup, p50Micros, p99Micros);
+        return p99Micros;
+    }
+
+    private static String word(Random random) {
+        return WORDS.get(random.nextInt(WORDS.size()));
+    }
+}
@@ -0,0 +1,126 @@
+package com.stackit.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.stackit.backend.dto.ModerationDto;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModerationBatcherTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicInteger batchRequests = new AtomicInteger();
+
+    private volatile boolean failRequests;
+
+    private HttpServer sidecar;
+
+    private ModerationEndpoints endpoints;
+
+    private ModerationBatcher batcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        sidecar = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        sidecar.createContext("/moderate/text/batch", exchange -> {
+            batchRequests.incrementAndGet();
+            if (failRequests) {
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+                return;
+            }
+
+            JsonNode items = objectMapper.readTree(exchange.getRequestBody()).get("items");
+            ObjectNode body = objectMapper.createObjectNode();
+            ArrayNode results = body.putArray("results");
+            for (JsonNode item : items) {
+                boolean blocked = item.get("content").asText().contains("spam");
+                ObjectNode result = results.addObject();
+                result.put("is_appropriate", !blocked);
+                result.put("confidence", 0.9);
+                result.putObject("categories").put(blocked ? "spam" : "normal", 0.9);
+                result.putArray("flagged_reasons");
+                result.put("moderation_action", blocked ? "block" : "allow");
+            }
+
+            byte[] bytes = objectMapper.writeValueAsBytes(body);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        sidecar.setExecutor(Executors.newFixedThreadPool(4));
+        sidecar.start();
+
+        endpoints = new ModerationEndpoints();
+        ReflectionTestUtils.setField(endpoints, "baseUrls", "http://localhost:" + sidecar.getAddress().getPort());
+        ReflectionTestUtils.setField(endpoints, "ejectAfterFailures", 3);
+        ReflectionTestUtils.setField(endpoints, "hedgeMaxConcurrency", 4);
+        endpoints.init();
+
+        batcher = new ModerationBatcher(new RestTemplate());
+        ReflectionTestUtils.setField(batcher, "moderationEndpoints", endpoints);
+        ReflectionTestUtils.setField(batcher, "timeoutMs", 5000L);
+        ReflectionTestUtils.setField(batcher, "enabled", true);
+        ReflectionTestUtils.setField(batcher, "maxBatchSize", 16);
+        ReflectionTestUtils.setField(batcher, "maxDelayMs", 50L);
+        ReflectionTestUtils.setField(batcher, "senderCount", 2);
+        batcher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.stop();
+        endpoints.shutdown();
+        sidecar.stop(0);
+    }
+
+    @Test
+    void concurrentRequestsShareBatchesAndGetTheirOwnVerdicts() throws Exception {
+        int callers = 32;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        List<Future<ModerationDto.ModerationResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            String content = i % 4 == 0 ? "buy spam now " + i : "how do I join two lists " + i;
+            futures.add(pool.submit(() -> batcher.moderateText(content, "comment")));
+        }
+
+        for (int i = 0; i < callers; i++) {
+            String expected = i % 4 == 0 ? "block" : "allow";
+            assertEquals(expected, futures.get(i).get().getModerationAction(), "verdict for caller " + i);
+        }
+        pool.shutdown();
+
+        assertTrue(batchRequests.get() < callers,
+                "expected fewer sidecar calls than callers but got " + batchRequests.get());
+    }
+
+    @Test
+    void sidecarErrorsReachEveryWaitingCaller() {
+        failRequests = true;
+        assertThrows(HttpServerErrorException.class, () -> batcher.moderateText("hello", "comment"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.stackit.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModerationEndpointsTests {
+
+    private static final String FIRST = "http://moderator-1:8000";
+
+    private static final String SECOND = "http://moderator-2:8000";
+
+    private ModerationEndpoints endpoints;
+
+    @BeforeEach
+    void setUp() {
+        endpoints = new ModerationEndpoints();
+        ReflectionTestUtils.setField(endpoints, "baseUrls", FIRST + ", " + SECOND + "/");
+        ReflectionTestUtils.setField(endpoints, "ejectAfterFailures", 3);
+        ReflectionTestUtils.setField(endpoints, "ejectMs", 60_000L);
+        ReflectionTestUtils.setField(endpoints, "hedgeEnabled", true);
+        ReflectionTestUtils.setField(endpoints, "hedgeMinDelayMs", 20L);
+        ReflectionTestUtils.setField(endpoints, "hedgeMaxConcurrency", 4);
+        endpoints.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoints.shutdown();
+    }
+
+    @Test
+    void sendsToEndpointWithFewestRequestsInFlight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<String> busy = CompletableFuture.supplyAsync(() -> endpoints.execute("/moderate/text",
+                url -> {
+                    started.countDown();
+                    await(release);
+                    return url;
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals(SECOND + "/moderate/text", endpoints.execute("/moderate/text", url -> url));
+
+        release.countDown();
+        assertEquals(FIRST + "/moderate/text", busy.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void ejectsEndpointAfterConsecutiveFailures() {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ResourceAccessException.class, () -> endpoints.execute("/moderate/text", url -> {
+                throw new ResourceAccessException("Connection refused");
+            }));
+        }
+
+        // Both endpoints are idle, so without ejection the first one would be chosen
+        for (int i = 0; i < 5; i++) {
+            assertEquals(SECOND + "/health", endpoints.execute("/health", url -> url));
+        }
+    }
+
+    @Test
+    void hedgesToSecondEndpointPastP95() {
+        for (int i = 0; i < 25; i++) {
+            endpoints.executeHedged("/moderate/text", url -> url);
+        }
+
+        long start = System.nanoTime();
+        String answeredBy = endpoints.executeHedged("/moderate/text", url -> {
+            if (url.startsWith(FIRST)) {
+                sleep(2000);
+            }
+            return url;
+        });
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(SECOND + "/moderate/text", answeredBy);
+        assertTrue(elapsedMs < 1000, "hedged call took " + elapsedMs + " ms");
+        assertEquals(1L, endpoints.getStats().get("hedgesWon"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.request.CreateQuestionRequest;
+import com.stackit.backend.repository.UserRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures p99 question write latency against a stub moderation sidecar that
+ * is healthy, stalled past the read timeout, and down, and compares the
+ * sequential and pipelined write paths.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.stackit.backend=WARN",
+        "logging.level.org.springframework.security=WARN",
+        "moderation.api.timeout=300",
+        "moderation.api.connect-timeout=300",
+        "moderation.cache.enabled=false",
+        "moderation.circuit.failure-threshold=5",
+        "moderation.circuit.open-ms=60000" })
+@ActiveProfiles("h2")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ModerationLatencyBenchmarkTests {
+
+    private static final String ALLOW_RESPONSE = "{\"is_appropriate\":true,\"confidence\":0.99,"
+            + "\"categories\":{\"normal\":0.99},\"flagged_reasons\":[],\"moderation_action\":\"allow\"}";
+
+    private static final HttpServer sidecar = startSidecar();
+
+    private static volatile long sidecarDelayMs;
+
+    private static volatile long imageDelayMs;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ModerationCircuitBreaker circuitBreaker;
+
+    @Autowired
+    private ContentSubmissionPipeline submissionPipeline;
+
+    @DynamicPropertySource
+    static void sidecarProperties(DynamicPropertyRegistry registry) {
+        registry.add("moderation.api.base-url", () -> "http://localhost:" + sidecar.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopSidecar() {
+        sidecar.stop(0);
+    }
+
+    @Test
+    @Order(1)
+    void pipelineOverlapsTextAndImageModeration() {
+        Long userId = userRepository.findByUsername("admin").orElseThrow().getId();
+        circuitBreaker.reset();
+        sidecarDelayMs = 40;
+        imageDelayMs = 40;
+
+        try {
+            ReflectionTestUtils.setField(submissionPipeline, "concurrent", false);
+            long sequentialMedian = measureMedianWithImages(userId, "sequential", 30);
+
+            ReflectionTestUtils.setField(submissionPipeline, "concurrent", true);
+            long pipelinedMedian = measureMedianWithImages(userId, "pipelined", 30);
+
+            System.out.printf("Question write with 2 images, median: sequential=%d ms, pipelined=%d ms%n",
+                    sequentialMedian, pipelinedMedian);
+
+            assertTrue(pipelinedMedian < sequentialMedian,
+                    "pipelined " + pipelinedMedian + " ms vs sequential " + sequentialMedian + " ms");
+        } finally {
+            ReflectionTestUtils.setField(submissionPipeline, "concurrent", true);
+        }
+    }
+
+    // Runs last because it stops the stub sidecar
+    @Test
+    @Order(2)
+    void writeLatencyWithHealthySlowAndDeadSidecar() {
+        Long userId = userRepository.findByUsername("admin").orElseThrow().getId();
+
+        circuitBreaker.reset();
+        sidecarDelayMs = 5;
+        long healthyP99 = measureP99(userId, "healthy", 100);
+
+        circuitBreaker.reset();
+        sidecarDelayMs = 2000;
+        long slowP99 = measureP99(userId, "slow", 50);
+
+        circuitBreaker.reset();
+        sidecar.stop(0);
+        long deadP99 = measureP99(userId, "dead", 50);
+
+        System.out.printf("Question write p99: healthy=%d ms, slow=%d ms, dead=%d ms%n",
+                healthyP99, slowP99, deadP99);
+
+        assertTrue(healthyP99 < 1000, "healthy p99 was " + healthyP99 + " ms");
+        // A sidecar stalled for 2 s must cost no more than the 300 ms read timeout
+        assertTrue(slowP99 < 1500, "slow p99 was " + slowP99 + " ms");
+        assertTrue(deadP99 < 1000, "dead p99 was " + deadP99 + " ms");
+    }
+
+    private long measureP99(Long userId, String scenario, int iterations) {
+        List<Long> latencies = new ArrayList<>(iterations);
+        for (int i = 0; i < iterations; i++) {
+            CreateQuestionRequest request = new CreateQuestionRequest(
+                    "Benchmark question " + scenario + " " + i,
+                    "How do I measure write latency? (" + scenario + " run " + i + ")",
+                    Set.of("java"),
+                    null);
+
+            long start = System.nanoTime();
+            questionService.createQuestion(request, userId);
+            latencies.add((System.nanoTime() - start) / 1_000_000);
+        }
+        Collections.sort(latencies);
+        return latencies.get((int) Math.ceil(iterations * 0.99) - 1);
+    }
+
+    private long measureMedianWithImages(Long userId, String scenario, int iterations) {
+        List<Long> latencies = new ArrayList<>(iterations);
+        for (int i = 0; i < iterations; i++) {
+            CreateQuestionRequest request = new CreateQuestionRequest(
+                    "Benchmark question with screenshots " + scenario + " " + i,
+                    "Why does my layout break? (" + scenario + " run " + i + ")",
+                    Set.of("web"),
+                    Set.of("https://res.cloudinary.com/demo/" + scenario + "-" + i + "-a.png",
+                            "https://res.cloudinary.com/demo/" + scenario + "-" + i + "-b.png"));
+
+            long start = System.nanoTime();
+            questionService.createQuestion(request, userId);
+            latencies.add((System.nanoTime() - start) / 1_000_000);
+        }
+        Collections.sort(latencies);
+        return latencies.get(iterations / 2);
+    }
+
+    private static HttpServer startSidecar() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/moderate/text", exchange -> {
+                try {
+                    Thread.sleep(sidecarDelayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = ALLOW_RESPONSE.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                try {
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                } catch (IOException e) {
+                    // Client already gave up on a stalled request
+                }
+            });
+            server.createContext("/moderate/image", exchange -> {
+                try {
+                    Thread.sleep(imageDelayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = ALLOW_RESPONSE.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start stub moderation sidecar", e);
+        }
+    }
+}
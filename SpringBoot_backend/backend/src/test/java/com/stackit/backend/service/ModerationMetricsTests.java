@@ -0,0 +1,70 @@
+package com.stackit.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ModerationMetricsTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final ModerationCircuitBreaker circuitBreaker = new ModerationCircuitBreaker();
+
+    private ModerationMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(circuitBreaker, "enabled", true);
+        ReflectionTestUtils.setField(circuitBreaker, "failureThreshold", 1);
+        ReflectionTestUtils.setField(circuitBreaker, "openMs", 60_000L);
+
+        metrics = new ModerationMetrics();
+        ReflectionTestUtils.setField(metrics, "registry", registry);
+        ReflectionTestUtils.setField(metrics, "verdictCache", new ModerationVerdictCache());
+        ReflectionTestUtils.setField(metrics, "circuitBreaker", circuitBreaker);
+        ReflectionTestUtils.setField(metrics, "moderationBatcher", new ModerationBatcher(new RestTemplate()));
+        metrics.registerGauges();
+    }
+
+    @Test
+    void timesCallsByTypeAndOutcome() {
+        assertEquals("ok", metrics.time("text", () -> "ok"));
+        assertThrows(ResourceAccessException.class, () -> metrics.time("image", () -> {
+            throw new ResourceAccessException("Connection refused");
+        }));
+
+        assertEquals(1, registry.get("moderation.client.requests").tags("type", "text", "outcome", "success")
+                .timer().count());
+        assertEquals(1, registry.get("moderation.client.requests").tags("type", "image", "outcome", "error")
+                .timer().count());
+        assertEquals(0.0, registry.get("moderation.client.in.flight").gauge().value());
+    }
+
+    @Test
+    void countsVerdictsAndFailOpens() {
+        metrics.recordVerdict("text", "BLOCK", "remote");
+        metrics.recordVerdict("text", "block", "remote");
+        metrics.recordFailOpen("image", new ResourceAccessException("Read timed out"));
+        metrics.recordFailOpen("image", "DeadlineExceeded");
+
+        assertEquals(2.0, registry.get("moderation.verdicts").tags("type", "text", "action", "block")
+                .counter().count());
+        assertEquals(1.0, registry.get("moderation.fail.open").tags("exception", "ResourceAccessException")
+                .counter().count());
+        assertEquals(1.0, registry.get("moderation.fail.open").tags("exception", "DeadlineExceeded")
+                .counter().count());
+    }
+
+    @Test
+    void reportsCircuitState() {
+        assertEquals(0.0, registry.get("moderation.circuit.state").gauge().value());
+        circuitBreaker.recordFailure();
+        assertEquals(1.0, registry.get("moderation.circuit.state").gauge().value());
+    }
+}
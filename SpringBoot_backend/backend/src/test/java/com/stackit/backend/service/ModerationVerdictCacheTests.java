@@ -0,0 +1,88 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.ModerationDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ModerationVerdictCacheTests {
+
+    private ModerationVerdictCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ModerationVerdictCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 3);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 3600L);
+    }
+
+    @Test
+    void identicalContentSharesOneKey() {
+        String key = cache.textKey("How do I sort a map?", "question");
+
+        assertEquals(key, cache.textKey("How do I sort a map?", "question"));
+        assertEquals(64, key.length());
+        assertNotEquals(key, cache.textKey("How do I sort a map?", "answer"));
+        assertNotEquals(key, cache.textKey("How do I sort a list?", "question"));
+        assertEquals(cache.imageKey("http://img/a.png"), cache.imageKey("http://img/a.png"));
+        // Text and image keys live in separate namespaces
+        assertNotEquals(cache.textKey("http://img/a.png", ""), cache.imageKey("http://img/a.png"));
+
+        ModerationDto.ModerationResponse verdict = verdict();
+        cache.put(key, verdict);
+        assertSame(verdict, cache.get(cache.textKey("How do I sort a map?", "question")));
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        cache.put("a", verdict());
+
+        assertNull(cache.get("b"));
+        cache.get("a");
+        cache.get("a");
+
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(2.0 / 3, (double) cache.getStats().get("hitRatio"), 1e-9);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedAtCapacity() {
+        cache.put("a", verdict());
+        cache.put("b", verdict());
+        cache.put("c", verdict());
+        // Reading a makes b the least recently used
+        cache.get("a");
+        cache.put("d", verdict());
+
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("c"));
+        assertNotNull(cache.get("d"));
+    }
+
+    @Test
+    void expiredEntriesAreMisses() throws InterruptedException {
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 0L);
+        cache.put("a", verdict());
+        Thread.sleep(5);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    private static ModerationDto.ModerationResponse verdict() {
+        return new ModerationDto.ModerationResponse();
+    }
+}
@@ -0,0 +1,226 @@
+package com.stackit.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stackit.backend.dto.AnswerDto;
+import com.stackit.backend.dto.CursorPage;
+import com.stackit.backend.dto.QuestionDto;
+import com.stackit.backend.dto.QuestionSummaryDto;
+import com.stackit.backend.dto.request.CreateAnswerRequest;
+import com.stackit.backend.dto.request.CreateQuestionRequest;
+import com.stackit.backend.entity.User;
+import com.stackit.backend.repository.QuestionRepository;
+import com.stackit.backend.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The question feed is built from a fixed number of statements whatever the
+ * page size or cursor depth.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:feed_query_tests",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.com.stackit.backend=WARN",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "moderation.api.enabled=false" })
+@ActiveProfiles("h2")
+class QuestionFeedQueryTests {
+
+    private static final int QUESTIONS = 30;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private AnswerService answerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ExcerptBackfill excerptBackfill;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seedQuestions() {
+        if (questionRepository.count() >= QUESTIONS) {
+            return;
+        }
+
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        for (int i = 0; i < QUESTIONS; i++) {
+            QuestionDto created = questionService.createQuestion(new CreateQuestionRequest(
+                    "Feed question " + i,
+                    "Body of feed question " + i,
+                    i % 2 == 0 ? Set.of("java", "spring") : Set.of("python"),
+                    null), admin.getId());
+
+            for (int j = 0; j < i % 3; j++) {
+                AnswerDto answer = answerService.createAnswer(
+                        new CreateAnswerRequest("Answer " + j + " to question " + i, null),
+                        created.getId(), admin.getId());
+                if (j == 1) {
+                    answerService.acceptAnswer(answer.getId(), admin.getId());
+                }
+            }
+        }
+    }
+
+    @Test
+    void queryCountDoesNotGrowWithPageSize() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        questionService.getAllQuestions(PageRequest.of(0, 5));
+        long smallPage = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        questionService.getAllQuestions(PageRequest.of(0, 25));
+        long largePage = statistics.getPrepareStatementCount();
+
+        assertEquals(smallPage, largePage);
+        // Feed rows, total count and tags
+        assertTrue(largePage <= 3, "feed used " + largePage + " statements");
+    }
+
+    @Test
+    void feedCarriesAuthorAnswerAggregatesAndTags() {
+        Page<QuestionSummaryDto> page = questionService.getAllQuestions(PageRequest.of(0, QUESTIONS));
+
+        for (QuestionSummaryDto dto : page.getContent()) {
+            int index = Integer.parseInt(dto.getTitle().substring("Feed question ".length()));
+            int answers = index % 3;
+
+            assertEquals("admin", dto.getUser().getUsername());
+            assertEquals(answers, dto.getAnswerCount());
+            assertEquals(answers == 2, dto.getHasAcceptedAnswer());
+            assertEquals(index % 2 == 0 ? Set.of("java", "spring") : Set.of("python"), dto.getTags());
+            assertEquals("Body of feed question " + index, dto.getExcerpt());
+        }
+        assertEquals(QUESTIONS, page.getTotalElements());
+    }
+
+    @Test
+    void cursorPagesWalkTheFeedWithoutGapsOrRepeats() {
+        List<Long> offsetOrder = questionService.getAllQuestions(PageRequest.of(0, QUESTIONS)).getContent().stream()
+                .map(QuestionSummaryDto::getId)
+                .toList();
+
+        List<Long> cursorOrder = new ArrayList<>();
+        String cursor = "";
+        CursorPage<QuestionSummaryDto> page;
+        do {
+            page = questionService.getQuestionsAfter(cursor, 7, false);
+            page.getContent().forEach(dto -> cursorOrder.add(dto.getId()));
+            cursor = page.getNextCursor();
+        } while (page.isHasNext());
+
+        assertEquals(offsetOrder, cursorOrder);
+        assertNull(page.getTotalElements());
+        assertEquals(QUESTIONS / 2, questionService.getQuestionsByTagAfter("spring", "", 100, true).getTotalElements());
+        assertThrows(RuntimeException.class, () -> questionService.getQuestionsAfter("not-a-cursor", 7, false));
+    }
+
+    @Test
+    void cursorPageQueryCountDoesNotGrowWithDepth() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        CursorPage<QuestionSummaryDto> first = questionService.getQuestionsAfter("", 5, false);
+        long firstPage = statistics.getPrepareStatementCount();
+
+        CursorPage<QuestionSummaryDto> page = first;
+        for (int i = 0; i < 4; i++) {
+            page = questionService.getQuestionsAfter(page.getNextCursor(), 5, false);
+        }
+        statistics.clear();
+        questionService.getQuestionsAfter(page.getNextCursor(), 5, false);
+
+        // Rows and tags, no count
+        assertEquals(2, firstPage);
+        assertEquals(firstPage, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void streamsEveryQuestionAsNdjsonWithBatchedTags() throws Exception {
+        Long adminId = userRepository.findByUsername("admin").orElseThrow().getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        ByteArrayOutputStream byTag = new ByteArrayOutputStream();
+        statistics.clear();
+        assertEquals(QUESTIONS / 2, questionService.streamQuestionsByTag("spring", byTag));
+        // The stream itself and one batch of tags
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        String[] lines = byTag.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(QUESTIONS / 2, lines.length);
+        for (String line : lines) {
+            QuestionSummaryDto dto = objectMapper.readValue(line, QuestionSummaryDto.class);
+            assertEquals(Set.of("java", "spring"), dto.getTags());
+            assertEquals("admin", dto.getUser().getUsername());
+        }
+
+        ByteArrayOutputStream byUser = new ByteArrayOutputStream();
+        assertEquals(QUESTIONS, questionService.streamQuestionsByUser(adminId, byUser));
+
+        // Clients that pass no cursor get the first page as a plain list
+        assertEquals(10, questionService.getQuestionsByTag("spring", 10).size());
+        assertEquals(questionService.getQuestionsByUserAfter(adminId, null, 10, false).getContent(),
+                questionService.getQuestionsByUser(adminId, 10));
+    }
+
+    @Test
+    void listingsCarryAPlainTextExcerptInsteadOfTheBody() throws Exception {
+        String html = "<p>Why does <code>map()</code> return &lt;null&gt;?</p><pre><code>int x = 1;</code></pre>"
+                + "<p>" + "word ".repeat(80) + "</p>";
+        String excerpt = TextExcerpt.fromHtml(html);
+        assertTrue(excerpt.startsWith("Why does map() return <null>? word word"));
+        assertTrue(excerpt.endsWith("word…"));
+        assertTrue(excerpt.length() <= TextExcerpt.MAX_LENGTH);
+
+        // Rows written before excerpts existed are filled in by the backfill
+        Long id = questionRepository.findAll().get(0).getId();
+        jdbcTemplate.update("UPDATE questions SET excerpt = NULL WHERE id = ?", id);
+        assertEquals(1, excerptBackfill.backfill());
+        assertEquals(questionRepository.findById(id).orElseThrow().getDescription(),
+                jdbcTemplate.queryForObject("SELECT excerpt FROM questions WHERE id = ?", String.class, id));
+
+        String json = objectMapper.writeValueAsString(questionService.getQuestionsAfter("", 5, false));
+        assertFalse(json.contains("\"description\""));
+        assertTrue(json.contains("\"excerpt\":\"Body of feed question"));
+    }
+}
@@ -0,0 +1,173 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.AnswerDto;
+import com.stackit.backend.dto.CommentDto;
+import com.stackit.backend.dto.QuestionDto;
+import com.stackit.backend.dto.QuestionThreadDto;
+import com.stackit.backend.dto.request.CreateAnswerRequest;
+import com.stackit.backend.dto.request.CreateCommentRequest;
+import com.stackit.backend.dto.request.CreateQuestionRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Question pages are served from the thread cache until a write touches that
+ * thread, and only that thread.
+ */
+class QuestionThreadCacheTests extends H2ServiceTestBase {
+
+    @Autowired
+    private AnswerService answerService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private QuestionThreadService questionThreadService;
+
+    @Autowired
+    private QuestionThreadCache threadCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        threadCache.clear();
+    }
+
+    @Test
+    void pageReadsAreServedFromTheCache() {
+        QuestionDto question = createQuestion("Cached thread");
+        AnswerDto answer = answerService.createAnswer(new CreateAnswerRequest("An answer", null),
+                question.getId(), adminId);
+        commentService.createComment(new CreateCommentRequest("A comment", null), answer.getId(), adminId);
+
+        questionService.getQuestionById(question.getId());
+        long hits = threadCache.getHits();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        QuestionDto page = questionService.getQuestionById(question.getId());
+        List<AnswerDto> answers = answerService.getAnswersByQuestion(question.getId());
+        List<CommentDto> comments = commentService.getCommentsByAnswer(answer.getId());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(hits + 3, threadCache.getHits());
+        assertEquals(1, page.getAnswerCount());
+        assertEquals(List.of(answer.getId()), answers.stream().map(AnswerDto::getId).toList());
+        assertEquals("A comment", comments.get(0).getContent());
+    }
+
+    @Test
+    void writesEvictOnlyTheThreadTheyTouch() {
+        QuestionDto touched = createQuestion("Touched thread");
+        QuestionDto untouched = createQuestion("Untouched thread");
+        AnswerDto answer = answerService.createAnswer(new CreateAnswerRequest("Answer", null),
+                touched.getId(), adminId);
+
+        QuestionThreadDto before = questionThreadService.getThread(touched.getId());
+        QuestionThreadDto other = questionThreadService.getThread(untouched.getId());
+        assertEquals(touched.getId(), threadCache.findCachedQuestionId(answer.getId()));
+
+        CommentDto comment = commentService.createComment(new CreateCommentRequest("New comment", null),
+                answer.getId(), adminId);
+        QuestionThreadDto afterComment = questionThreadService.getThread(touched.getId());
+        assertNotSame(before, afterComment);
+        assertEquals(1, afterComment.getComments().get(answer.getId()).size());
+        assertSame(other, questionThreadService.getThread(untouched.getId()));
+
+        answerService.voteAnswer(answer.getId(), adminId, 1);
+        QuestionThreadDto afterVote = questionThreadService.getThread(touched.getId());
+        assertEquals(1, afterVote.getAnswers().get(0).getVoteCount());
+
+        answerService.acceptAnswer(answer.getId(), adminId);
+        assertEquals(true, questionThreadService.getThread(touched.getId()).getQuestion().getHasAcceptedAnswer());
+
+        commentService.deleteComment(comment.getId(), adminId);
+        assertEquals(0, questionThreadService.getThread(touched.getId()).getComments().get(answer.getId()).size());
+
+        answerService.deleteAnswer(answer.getId(), adminId);
+        QuestionThreadDto afterDelete = questionThreadService.getThread(touched.getId());
+        assertEquals(0, afterDelete.getAnswers().size());
+        assertEquals(0, afterDelete.getQuestion().getAnswerCount());
+        assertNull(threadCache.findCachedQuestionId(answer.getId()));
+        assertSame(other, questionThreadService.getThread(untouched.getId()));
+    }
+
+    @Test
+    void loadOverlappingAnEvictionIsNotStored() {
+        QuestionDto question = createQuestion("Racing thread");
+        int size = threadCache.size();
+
+        QuestionThreadDto stale = threadCache.get(question.getId(), () -> {
+            QuestionThreadDto thread = new QuestionThreadDto(question, List.of(), Map.of());
+            // A write lands while the thread is being assembled
+            threadCache.evictQuestion(question.getId());
+            return thread;
+        });
+
+        assertEquals(size, threadCache.size());
+        assertNotSame(stale, questionThreadService.getThread(question.getId()));
+    }
+
+    @Test
+    void threadLoadsWithAFixedNumberOfStatements() {
+        QuestionDto small = createQuestion("Small thread");
+        AnswerDto only = answerService.createAnswer(new CreateAnswerRequest("Only answer", null),
+                small.getId(), adminId);
+        commentService.createComment(new CreateCommentRequest("Only comment", null), only.getId(), adminId);
+
+        QuestionDto large = createQuestion("Large thread");
+        AnswerDto accepted = null;
+        for (int i = 0; i < 6; i++) {
+            AnswerDto answer = answerService.createAnswer(new CreateAnswerRequest("Answer " + i, null),
+                    large.getId(), adminId);
+            commentService.createComment(new CreateCommentRequest("First on " + i, null), answer.getId(), adminId);
+            commentService.createComment(new CreateCommentRequest("Second on " + i, null), answer.getId(), adminId);
+            if (i == 4) {
+                accepted = answer;
+            }
+        }
+        answerService.acceptAnswer(accepted.getId(), adminId);
+        answerService.voteAnswer(accepted.getId(), adminId, 1);
+        threadCache.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        questionService.getQuestionThread(small.getId(), adminId);
+        long smallThread = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        QuestionThreadDto thread = questionService.getQuestionThread(large.getId(), adminId);
+        long largeThread = statistics.getPrepareStatementCount();
+
+        // Question, answers, comments and the reader's votes
+        assertEquals(smallThread, largeThread);
+        assertEquals(4, largeThread);
+        assertEquals(accepted.getId(), thread.getAnswers().get(0).getId());
+        assertEquals(1, thread.getAnswers().get(0).getUserVote());
+        assertEquals(0, thread.getAnswers().get(1).getUserVote());
+        for (AnswerDto answer : thread.getAnswers()) {
+            List<CommentDto> comments = thread.getComments().get(answer.getId());
+            assertEquals(List.of("First on", "Second on"), comments.stream()
+                    .map(comment -> comment.getContent().substring(0, comment.getContent().lastIndexOf(' ')))
+                    .toList());
+        }
+        assertNull(questionThreadService.getThread(large.getId()).getAnswers().get(0).getUserVote());
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.QuestionDto;
+import com.stackit.backend.dto.request.CreateQuestionRequest;
+import com.stackit.backend.entity.ModerationStatus;
+import com.stackit.backend.repository.QuestionRepository;
+import com.stackit.backend.repository.RemoderationTaskRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Content posted while the moderation sidecar is down is queued and
+ * re-checked once the sidecar is healthy again.
+ */
+class RemoderationQueueTests extends H2ServiceTestBase {
+
+    private static final String ALLOW_RESPONSE = "{\"is_appropriate\":true,\"confidence\":0.99,"
+            + "\"categories\":{\"normal\":0.99},\"flagged_reasons\":[],\"moderation_action\":\"allow\"}";
+
+    private static final String BLOCK_RESPONSE = "{\"is_appropriate\":false,\"confidence\":0.97,"
+            + "\"categories\":{\"spam\":0.97},\"flagged_reasons\":[\"spam\"],\"moderation_action\":\"block\"}";
+
+    private static final HttpServer sidecar = startSidecar();
+
+    private static volatile boolean sidecarUp;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private RemoderationTaskRepository taskRepository;
+
+    @Autowired
+    private RemoderationQueue remoderationQueue;
+
+    @DynamicPropertySource
+    static void sidecarProperties(DynamicPropertyRegistry registry) {
+        // Moderation runs against the stub here, so this class gets its own context and database
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:remoderation_tests");
+        registry.add("moderation.api.enabled", () -> "true");
+        registry.add("moderation.api.base-url", () -> "http://localhost:" + sidecar.getAddress().getPort());
+        registry.add("moderation.cache.enabled", () -> "false");
+        registry.add("moderation.circuit.enabled", () -> "false");
+        registry.add("moderation.remoderation.interval-ms", () -> "3600000");
+        registry.add("moderation.remoderation.max-attempts", () -> "2");
+    }
+
+    @AfterAll
+    static void stopSidecar() {
+        sidecar.stop(0);
+    }
+
+    @BeforeEach
+    void clearQueue() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    void blocksQueuedContentOnceSidecarRecovers() {
+        sidecarUp = false;
+        QuestionDto clean = createQuestion("How do I read a file line by line?");
+        QuestionDto spam = createQuestion("Cheap watches, visit my shop for deals");
+
+        assertEquals(ModerationStatus.VISIBLE, clean.getModerationStatus());
+        assertEquals(ModerationStatus.VISIBLE, spam.getModerationStatus());
+        assertEquals(2, taskRepository.count());
+
+        // Still down: nothing is drained
+        assertEquals(0, remoderationQueue.drain());
+        assertEquals(2, taskRepository.count());
+
+        sidecarUp = true;
+        assertEquals(2, remoderationQueue.drain());
+        assertEquals(0, taskRepository.count());
+
+        assertEquals(ModerationStatus.VISIBLE,
+                questionRepository.findById(clean.getId()).orElseThrow().getModerationStatus());
+        assertEquals(ModerationStatus.BLOCKED,
+                questionRepository.findById(spam.getId()).orElseThrow().getModerationStatus());
+    }
+
+    @Test
+    void skipsContentThatStillCannotBeModerated() {
+        sidecarUp = false;
+        QuestionDto unreadable = createQuestion("Unreadable post the sidecar always rejects");
+        QuestionDto clean = createQuestion("How do I sort a map by value?");
+
+        // The rejected item is queued first but does not hold up the one behind it
+        sidecarUp = true;
+        assertEquals(1, remoderationQueue.drain());
+        assertEquals(1, taskRepository.count());
+        assertEquals(ModerationStatus.VISIBLE,
+                questionRepository.findById(clean.getId()).orElseThrow().getModerationStatus());
+
+        // Given up on after max-attempts
+        assertEquals(0, remoderationQueue.drain());
+        assertEquals(0, remoderationQueue.drain());
+        assertEquals(2, taskRepository.findAll().get(0).getAttempts());
+        assertEquals(0L, remoderationQueue.getStats().get("pending"));
+        assertEquals(1L, remoderationQueue.getStats().get("exhausted"));
+        assertEquals(unreadable.getId(), taskRepository.findAll().get(0).getContentId());
+    }
+
+    @Test
+    void moderatedContentIsNotQueued() {
+        sidecarUp = true;
+        createQuestion("What is the difference between a list and a set?");
+
+        assertEquals(0, taskRepository.count());
+        assertTrue(remoderationQueue.getStats().containsKey("pending"));
+    }
+
+
+    private static HttpServer startSidecar() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/health", exchange -> respond(exchange, "{\"status\":\"healthy\"}"));
+            server.createContext("/moderate/text", exchange -> {
+                String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                if (request.contains("Unreadable")) {
+                    exchange.sendResponseHeaders(400, -1);
+                    exchange.close();
+                    return;
+                }
+                respond(exchange, request.contains("Cheap watches") ? BLOCK_RESPONSE : ALLOW_RESPONSE);
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start stub moderation sidecar", e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        if (!sidecarUp) {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
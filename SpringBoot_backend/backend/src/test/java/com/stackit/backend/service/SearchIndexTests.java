@@ -0,0 +1,153 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.AnswerDto;
+import com.stackit.backend.dto.QuestionDto;
+import com.stackit.backend.dto.QuestionSummaryDto;
+import com.stackit.backend.dto.request.CreateAnswerRequest;
+import com.stackit.backend.dto.request.CreateQuestionRequest;
+import com.stackit.backend.entity.ModerationStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Search is ranked by the index, sees writes as soon as they commit and
+ * returns the same results after the delta is compacted or the index rebuilt.
+ */
+class SearchIndexTests extends H2ServiceTestBase {
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private AnswerService answerService;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private ModerationStatusUpdater statusUpdater;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        for (int i = 0; i < 500 && !searchIndex.isReady(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(searchIndex.isReady());
+    }
+
+    @Test
+    void titleMatchesRankAboveBodyMatches() {
+        QuestionDto body = createQuestion("Configuring a build", "The kestrel plugin fails on startup", Set.of("gradle"));
+        QuestionDto title = createQuestion("Kestrel plugin fails", "Nothing else to add here", Set.of("gradle"));
+        QuestionDto tagged = createQuestion("Unrelated title", "Unrelated body", Set.of("kestrel"));
+
+        assertEquals(List.of(title.getId(), tagged.getId(), body.getId()), search("kestrel"));
+        assertEquals(List.of(title.getId(), body.getId(), tagged.getId()), search("kestrel plugin"));
+
+        Page<QuestionSummaryDto> page = questionService.searchQuestions("kestrel", PageRequest.of(1, 2));
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of(body.getId()), page.getContent().stream().map(QuestionSummaryDto::getId).toList());
+        assertEquals(Set.of("gradle"), page.getContent().get(0).getTags());
+    }
+
+    @Test
+    void writesAreSearchableOnceCommitted() {
+        QuestionDto question = createQuestion("Ptarmigan question", "Original body", Set.of("misc"));
+        AnswerDto answer = answerService.createAnswer(new CreateAnswerRequest("Try the quokka flag", null),
+                question.getId(), adminId);
+        assertEquals(List.of(question.getId()), search("quokka"));
+
+        transactionTemplate.executeWithoutResult(status -> questionService.updateQuestion(question.getId(),
+                adminId, new CreateQuestionRequest("Renamed question", "Original body", Set.of("misc"), null)));
+        assertEquals(List.of(), search("ptarmigan"));
+        assertEquals(List.of(question.getId()), search("renamed"));
+
+        answerService.deleteAnswer(answer.getId(), adminId);
+        assertEquals(List.of(), search("quokka"));
+
+        questionService.deleteQuestion(question.getId(), adminId);
+        assertEquals(List.of(), search("renamed"));
+    }
+
+    @Test
+    void hiddenQuestionsAndAnswersAreNotIndexed() throws Exception {
+        QuestionDto shown = createQuestion("Pangolin question", "Visible body", Set.of("misc"));
+        QuestionDto hidden = createQuestion("Pangolin question too", "Visible body", Set.of("misc"));
+        AnswerDto answer = answerService.createAnswer(new CreateAnswerRequest("Blocked wolverine words", null),
+                shown.getId(), adminId);
+        assertEquals(List.of(shown.getId()), search("wolverine"));
+
+        statusUpdater.setStatus("answer", answer.getId(), ModerationStatus.BLOCKED);
+        statusUpdater.setStatus("question", hidden.getId(), ModerationStatus.PENDING);
+        assertEquals(List.of(), search("wolverine"));
+        assertEquals(1, searchIndex.search("pangolin", 0, 10).getTotalHits());
+
+        searchIndex.rebuild();
+        assertEquals(List.of(), search("wolverine"));
+        assertEquals(List.of(shown.getId()), search("pangolin"));
+    }
+
+    @Test
+    void compactionAndRebuildKeepResults() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(createQuestion("Axolotl care " + i, "Water temperature " + "axolotl ".repeat(i), Set.of("pets")).getId());
+        }
+        List<Long> before = search("axolotl");
+        assertEquals(5, before.size());
+
+        searchIndex.compact();
+        assertEquals(0, searchIndex.getStats().get("deltaDocs"));
+        assertEquals(before, search("axolotl"));
+
+        questionService.deleteQuestion(ids.get(0), adminId);
+        searchIndex.rebuild();
+        assertEquals(before.stream().filter(id -> !id.equals(ids.get(0))).toList(), search("axolotl"));
+    }
+
+    @Test
+    void segmentRoundTrip() throws Exception {
+        SearchSegment.Builder builder = new SearchSegment.Builder();
+        builder.add(7, Map.of("java", 3.0f, "stream", 1.0f));
+        builder.add(3, Map.of("java", 1.0f, "c++", 2.0f));
+
+        SearchSegment segment = SearchSegment.write(tempDir.resolve("segment.idx"), 42L, builder);
+        SearchSegment reopened = SearchSegment.open(segment.getFile());
+
+        assertEquals(42L, reopened.getWatermark());
+        assertEquals(2, reopened.getDocCount());
+        assertEquals(7.0, reopened.getTotalLength(), 1e-6);
+        assertEquals(4.0f, reopened.docLength(7));
+        assertEquals(-1.0f, reopened.docLength(5));
+        assertEquals(-1, reopened.findTerm("python"));
+        assertEquals("c++", reopened.term(reopened.findTerm("c++")));
+
+        int java = reopened.findTerm("java");
+        assertEquals(2, reopened.docFrequency(java));
+        List<String> postings = new ArrayList<>();
+        reopened.forEachPosting(java, (id, length, weight) -> postings.add(id + ":" + length + ":" + weight));
+        assertEquals(List.of("3:3.0:1.0", "7:4.0:3.0"), postings);
+    }
+
+    private List<Long> search(String query) {
+        return searchIndex.search(query, 0, 10).getQuestionIds();
+    }
+
+}
@@ -0,0 +1,211 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.QuestionDto;
+import com.stackit.backend.dto.QuestionSummaryDto;
+import com.stackit.backend.dto.request.CreateQuestionRequest;
+import com.stackit.backend.entity.ModerationStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Multi-tag feed filtering answers from the bitmap index, agrees with SQL and
+ * follows question writes and moderation.
+ */
+class TagBitmapIndexTests extends H2ServiceTestBase {
+
+    @Autowired
+    private TagBitmapIndex tagBitmapIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ModerationStatusUpdater statusUpdater;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        for (int i = 0; i < 500 && !tagBitmapIndex.isReady(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(tagBitmapIndex.isReady());
+    }
+
+    @Test
+    void bitmapOperationsMatchSortedSets() {
+        Random random = new Random(11);
+        // Dense and sparse ranges so both container kinds and the conversions between them are used
+        for (int round = 0; round < 20; round++) {
+            TreeSet<Integer> expectedA = new TreeSet<>();
+            TreeSet<Integer> expectedB = new TreeSet<>();
+            OrdinalBitmap a = new OrdinalBitmap();
+            OrdinalBitmap b = new OrdinalBitmap();
+            int range = round % 2 == 0 ? 200_000 : 9_000;
+            for (int i = 0; i < 12_000; i++) {
+                int value = random.nextInt(range);
+                expectedA.add(value);
+                a.add(value);
+                value = random.nextInt(range);
+                expectedB.add(value);
+                b.add(value);
+            }
+            for (int i = 0; i < 6_000; i++) {
+                int value = random.nextInt(range);
+                expectedA.remove(value);
+                a.remove(value);
+            }
+            assertEquals(expectedA.size(), a.cardinality());
+            assertTrue(a.contains(expectedA.first()));
+
+            TreeSet<Integer> and = new TreeSet<>(expectedA);
+            and.retainAll(expectedB);
+            TreeSet<Integer> or = new TreeSet<>(expectedA);
+            or.addAll(expectedB);
+            TreeSet<Integer> andNot = new TreeSet<>(expectedA);
+            andNot.removeAll(expectedB);
+            assertDescending(and, OrdinalBitmap.and(a, b));
+            assertDescending(or, OrdinalBitmap.or(a, b));
+            assertDescending(andNot, OrdinalBitmap.andNot(a, b));
+        }
+    }
+
+    @Test
+    void filtersByAllAnyAndNone() {
+        QuestionDto both = createQuestion(Set.of("bm-java", "bm-spring"));
+        QuestionDto javaOnly = createQuestion(Set.of("bm-java"));
+        QuestionDto springOnly = createQuestion(Set.of("bm-spring", "bm-other"));
+
+        assertEquals(List.of(both.getId()), filter(List.of("bm-java", "BM-Spring"), "all"));
+        assertEquals(List.of(springOnly.getId(), javaOnly.getId(), both.getId()),
+                filter(List.of("bm-java", "bm-spring"), "any"));
+        assertEquals(List.of(), filter(List.of("bm-java", "bm-missing"), "all"));
+        List<Long> none = filter(List.of("bm-spring"), "none");
+        assertTrue(none.contains(javaOnly.getId()));
+        assertTrue(!none.contains(both.getId()) && !none.contains(springOnly.getId()));
+
+        // Retagging, hiding and deleting move questions between filters
+        transactionTemplate.executeWithoutResult(status -> questionService.updateQuestion(javaOnly.getId(), adminId,
+                new CreateQuestionRequest("Bitmap question", "Body", Set.of("bm-java", "bm-spring"), null)));
+        assertEquals(List.of(javaOnly.getId(), both.getId()), filter(List.of("bm-java", "bm-spring"), "all"));
+
+        statusUpdater.setStatus("question", both.getId(), ModerationStatus.BLOCKED);
+        assertEquals(List.of(javaOnly.getId()), filter(List.of("bm-java", "bm-spring"), "all"));
+
+        questionService.deleteQuestion(springOnly.getId(), adminId);
+        assertEquals(List.of(javaOnly.getId()), filter(List.of("bm-spring"), "any"));
+
+        tagBitmapIndex.reload();
+        assertEquals(List.of(javaOnly.getId()), filter(List.of("bm-spring"), "any"));
+        assertEquals(0, tagBitmapIndex.getStats().get("unusedOrdinals"));
+
+        // A row with no moderation status predates moderation and stays visible
+        jdbcTemplate.update("UPDATE questions SET moderation_status = NULL WHERE id = ?", javaOnly.getId());
+        tagBitmapIndex.reload();
+        assertEquals(List.of(javaOnly.getId()), hitIds(List.of("bm-spring"), "any"));
+    }
+
+    @Test
+    void agreesWithSqlOnALargeCorpus() {
+        Random random = new Random(3);
+        List<Long> tagIds = new ArrayList<>();
+        for (int t = 0; t < 30; t++) {
+            jdbcTemplate.update("INSERT INTO tags (name, color, question_count, created_at) "
+                    + "VALUES (?, '#007bff', 0, CURRENT_TIMESTAMP)", "corpus-" + t);
+            tagIds.add(jdbcTemplate.queryForObject("SELECT id FROM tags WHERE name = ?", Long.class, "corpus-" + t));
+        }
+        List<Object[]> questions = new ArrayList<>();
+        for (int i = 0; i < 30000; i++) {
+            questions.add(new Object[] { adminId, "Corpus question " + i, random.nextInt(20) == 0 ? "BLOCKED"
+                    : "VISIBLE", i / 7 });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO questions (user_id, title, description, view_count, vote_score, "
+                + "answer_count, has_accepted_answer, is_closed, moderation_status, created_at, updated_at) "
+                + "VALUES (?, ?, 'Body', 0, 0, 0, FALSE, FALSE, ?, DATEADD('MINUTE', ?, TIMESTAMP '2020-01-01 00:00:00'), "
+                + "CURRENT_TIMESTAMP)", questions);
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM questions WHERE title LIKE 'Corpus question %'",
+                Long.class);
+        List<Object[]> links = new ArrayList<>();
+        for (Long id : ids) {
+            // Skewed: low tag numbers are common, high ones rare
+            Set<Long> chosen = new HashSet<>();
+            int count = 1 + random.nextInt(4);
+            while (chosen.size() < count) {
+                chosen.add(tagIds.get((int) (Math.pow(random.nextDouble(), 2) * tagIds.size())));
+            }
+            chosen.forEach(tagId -> links.add(new Object[] { id, tagId }));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO question_tags (question_id, tag_id) VALUES (?, ?)", links);
+        tagBitmapIndex.reload();
+
+        for (int round = 0; round < 30; round++) {
+            String first = "corpus-" + random.nextInt(30);
+            String second = "corpus-" + random.nextInt(30);
+            String sqlTags = "'" + first + "', '" + second + "'";
+            String visible = "COALESCE(q.moderation_status, 'VISIBLE') = 'VISIBLE' ";
+            String order = " ORDER BY q.created_at DESC, q.id DESC";
+            String matching = "SELECT COUNT(DISTINCT t.name) FROM question_tags qt JOIN tags t ON t.id = qt.tag_id "
+                    + "WHERE qt.question_id = q.id AND t.name IN (" + sqlTags + ")";
+            int needed = first.equals(second) ? 1 : 2;
+            assertEquals(sqlIds("SELECT q.id FROM questions q WHERE " + visible + "AND (" + matching + ") = "
+                    + needed + order), hitIds(List.of(first, second), "all"));
+            assertEquals(sqlIds("SELECT q.id FROM questions q WHERE " + visible + "AND (" + matching + ") > 0"
+                    + order), hitIds(List.of(first, second), "any"));
+            assertEquals(sqlIds("SELECT q.id FROM questions q WHERE " + visible + "AND (" + matching + ") = 0"
+                    + order), hitIds(List.of(first, second), "none"));
+        }
+
+        // Deep pages skip whole containers and still line up with SQL paging
+        List<Long> page = filter(List.of("corpus-0"), "any", 150, 20);
+        assertEquals(sqlIds("SELECT q.id FROM questions q JOIN question_tags qt ON qt.question_id = q.id "
+                + "JOIN tags t ON t.id = qt.tag_id WHERE COALESCE(q.moderation_status, 'VISIBLE') = 'VISIBLE' "
+                + "AND t.name = 'corpus-0' "
+                + "ORDER BY q.created_at DESC, q.id DESC LIMIT 20 OFFSET 3000"), page);
+    }
+
+    private void assertDescending(TreeSet<Integer> expected, OrdinalBitmap actual) {
+        assertEquals(expected.size(), actual.cardinality());
+        int[] values = expected.descendingSet().stream().mapToInt(Integer::intValue).toArray();
+        assertArrayEquals(values, actual.selectDescending(0, values.length + 1));
+        int skip = values.length / 3;
+        assertArrayEquals(Arrays.copyOfRange(values, skip, Math.min(skip + 50, values.length)),
+                actual.selectDescending(skip, 50));
+    }
+
+    private List<Long> sqlIds(String sql) {
+        return jdbcTemplate.queryForList(sql, Long.class);
+    }
+
+    private List<Long> hitIds(List<String> tags, String mode) {
+        return tagBitmapIndex.filter(tags, TagBitmapIndex.Mode.parse(mode), 0, Integer.MAX_VALUE / 2)
+                .getQuestionIds();
+    }
+
+    private List<Long> filter(List<String> tags, String mode) {
+        return filter(tags, mode, 0, 100);
+    }
+
+    private List<Long> filter(List<String> tags, String mode, int page, int size) {
+        Page<QuestionSummaryDto> result = questionService.getQuestionsByTags(tags, mode, PageRequest.of(page, size));
+        return result.getContent().stream().map(QuestionSummaryDto::getId).toList();
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.QuestionDto;
+import com.stackit.backend.dto.RelatedTagDto;
+import com.stackit.backend.dto.request.CreateQuestionRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Related tags and suggestions follow question writes, match a recount from
+ * the database and survive a checkpoint reload.
+ */
+class TagCooccurrenceTests extends H2ServiceTestBase {
+
+    @Autowired
+    private TagCooccurrence tagCooccurrence;
+
+    @Autowired
+    private CounterReconciler counterReconciler;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        for (int i = 0; i < 500 && !tagCooccurrence.isReady(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(tagCooccurrence.isReady());
+    }
+
+    @Test
+    void ranksRelatedTagsAndSuggestions() {
+        createQuestion(Set.of("co-java", "co-spring"));
+        createQuestion(Set.of("co-java", "co-spring", "co-jpa"));
+        createQuestion(Set.of("co-java", "co-spring"));
+        QuestionDto jvm = createQuestion(Set.of("co-java", "co-jvm"));
+        createQuestion(Set.of("co-spring", "co-jpa"));
+
+        List<RelatedTagDto> related = tagCooccurrence.related("CO-Java", 10);
+        assertEquals(List.of("co-spring", "co-jvm", "co-jpa"), related.stream().map(RelatedTagDto::getName).toList());
+        assertEquals(3, related.get(0).getSharedQuestions());
+        assertEquals(3 / Math.sqrt(4 * 4), related.get(0).getScore(), 1e-9);
+        assertEquals(List.of("co-spring"), tagCooccurrence.related("co-jpa", 1).stream()
+                .map(RelatedTagDto::getName).toList());
+
+        // Chosen tags are left out; a tag related to both ranks first
+        List<RelatedTagDto> suggested = tagCooccurrence.suggest(List.of("co-java", "co-spring", "co-missing"), 5);
+        assertEquals(List.of("co-jpa", "co-jvm"), suggested.stream().map(RelatedTagDto::getName).toList());
+        assertEquals(3, suggested.get(0).getSharedQuestions());
+
+        // Retagging and deleting take pairs away
+        transactionTemplate.executeWithoutResult(status -> questionService.updateQuestion(jvm.getId(), adminId,
+                new CreateQuestionRequest("Co question", "Body", Set.of("co-jvm"), null)));
+        assertTrue(tagCooccurrence.related("co-jvm", 10).isEmpty());
+        questionService.deleteQuestion(jvm.getId(), adminId);
+        assertTrue(tagCooccurrence.related("co-java", 10).stream().noneMatch(tag -> tag.getName().equals("co-jvm")));
+
+        assertThrows(RuntimeException.class, () -> tagCooccurrence.related("co-nothing", 10));
+    }
+
+    @Test
+    void incrementalCountsMatchRebuildAndCheckpoint() throws Exception {
+        // Other tests on the shared database write rows directly; settle the stored counts and start from them
+        counterReconciler.reconcile("tags.question_count");
+        tagCooccurrence.rebuild();
+        Random random = new Random(5);
+        List<QuestionDto> questions = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            questions.add(createQuestion(randomTags(random)));
+        }
+        tagCooccurrence.checkpoint();
+
+        // Changes after the checkpoint are caught up or dropped when it is opened again
+        for (int i = 0; i < 15; i++) {
+            QuestionDto question = questions.get(i);
+            transactionTemplate.executeWithoutResult(status -> questionService.updateQuestion(question.getId(),
+                    adminId, new CreateQuestionRequest("Co question", "Body", randomTags(random), null)));
+        }
+        for (int i = 15; i < 25; i++) {
+            questionService.deleteQuestion(questions.get(i).getId(), adminId);
+        }
+        for (int i = 0; i < 10; i++) {
+            createQuestion(randomTags(random));
+        }
+        Map<Long, Map<Long, Integer>> incremental = tagCooccurrence.pairCounts();
+        Map<Long, Integer> incrementalTotals = tagCooccurrence.tagTotals();
+
+        tagCooccurrence.open();
+        assertEquals("checkpoint", tagCooccurrence.getStats().get("loadedFrom"));
+        assertEquals(incremental, tagCooccurrence.pairCounts());
+        assertEquals(incrementalTotals, tagCooccurrence.tagTotals());
+
+        tagCooccurrence.rebuild();
+        assertEquals(incremental, tagCooccurrence.pairCounts());
+        assertEquals(incrementalTotals, tagCooccurrence.tagTotals());
+    }
+
+    private Set<String> randomTags(Random random) {
+        Set<String> tags = new HashSet<>();
+        int count = 1 + random.nextInt(4);
+        while (tags.size() < count) {
+            tags.add("mix-" + random.nextInt(12));
+        }
+        return tags;
+    }
+
+}
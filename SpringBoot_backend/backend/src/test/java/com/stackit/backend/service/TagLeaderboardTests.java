@@ -0,0 +1,182 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.QuestionDto;
+import com.stackit.backend.dto.TagDto;
+import com.stackit.backend.dto.TagSuggestionDto;
+import com.stackit.backend.dto.request.CreateQuestionRequest;
+import com.stackit.backend.repository.TagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tag question counts follow question writes, in the database and in the
+ * in-memory leaderboard, across all-time and windowed rankings; tag search
+ * answers from the same memory. Search latency is measured in
+ * LookupLatencyBenchmarkTests.
+ */
+class TagLeaderboardTests extends H2ServiceTestBase {
+
+    @Autowired
+    private TagLeaderboard tagLeaderboard;
+
+    @Autowired
+    private CounterReconciler counterReconciler;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        for (int i = 0; i < 500 && !tagLeaderboard.isReady(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(tagLeaderboard.isReady());
+    }
+
+    @Test
+    void countsFollowCreateUpdateAndDelete() {
+        QuestionDto first = createQuestion(Set.of("lb-alpha", "lb-beta"));
+        createQuestion(Set.of("lb-alpha"));
+        assertEquals(2, storedCount("lb-alpha"));
+        assertEquals(1, storedCount("lb-beta"));
+        assertEquals(Map.of("lb-alpha", 2, "lb-beta", 1), ranked(TagLeaderboard.Window.ALL, "lb-"));
+
+        transactionTemplate.executeWithoutResult(status -> questionService.updateQuestion(first.getId(), adminId,
+                new CreateQuestionRequest("Leaderboard question", "Body", Set.of("lb-alpha", "lb-gamma"), null)));
+        assertEquals(2, storedCount("lb-alpha"));
+        assertEquals(0, storedCount("lb-beta"));
+        assertEquals(1, storedCount("lb-gamma"));
+        assertEquals(Map.of("lb-alpha", 2, "lb-beta", 0, "lb-gamma", 1), ranked(TagLeaderboard.Window.ALL, "lb-"));
+
+        questionService.deleteQuestion(first.getId(), adminId);
+        assertEquals(1, storedCount("lb-alpha"));
+        assertEquals(0, storedCount("lb-gamma"));
+        assertEquals(Map.of("lb-alpha", 1, "lb-beta", 0, "lb-gamma", 0), ranked(TagLeaderboard.Window.ALL, "lb-"));
+
+        tagLeaderboard.reload();
+        assertEquals(Map.of("lb-alpha", 1, "lb-beta", 0, "lb-gamma", 0), ranked(TagLeaderboard.Window.ALL, "lb-"));
+    }
+
+    @Test
+    void windowsOnlyCountRecentQuestions() {
+        QuestionDto recent = createQuestion(Set.of("win-new", "win-both"));
+        QuestionDto older = createQuestion(Set.of("win-both"));
+        QuestionDto oldest = createQuestion(Set.of("win-old"));
+        jdbcTemplate.update("UPDATE questions SET created_at = DATEADD('DAY', -10, CURRENT_TIMESTAMP) WHERE id = ?",
+                older.getId());
+        jdbcTemplate.update("UPDATE questions SET created_at = DATEADD('DAY', -40, CURRENT_TIMESTAMP) WHERE id = ?",
+                oldest.getId());
+        tagLeaderboard.reload();
+
+        Map<String, Integer> week = ranked(TagLeaderboard.Window.WEEK, "win-");
+        assertEquals(Map.of("win-new", 1, "win-both", 1), week);
+        Map<String, Integer> month = ranked(TagLeaderboard.Window.MONTH, "win-");
+        assertEquals(Map.of("win-new", 1, "win-both", 2), month);
+        assertEquals(Map.of("win-new", 1, "win-both", 2, "win-old", 1), ranked(TagLeaderboard.Window.ALL, "win-"));
+
+        // Removing a tag from a ten-day-old question only moves the 30-day window
+        transactionTemplate.executeWithoutResult(status -> questionService.updateQuestion(older.getId(), adminId,
+                new CreateQuestionRequest("Older question", "Body", Set.of("win-new"), null)));
+        assertEquals(Map.of("win-new", 1, "win-both", 1), ranked(TagLeaderboard.Window.WEEK, "win-"));
+        assertEquals(Map.of("win-new", 2, "win-both", 1), ranked(TagLeaderboard.Window.MONTH, "win-"));
+
+        questionService.deleteQuestion(recent.getId(), adminId);
+        assertEquals(Map.of(), ranked(TagLeaderboard.Window.WEEK, "win-"));
+        assertEquals(Map.of("win-new", 1), ranked(TagLeaderboard.Window.MONTH, "win-"));
+    }
+
+    @Test
+    void pagesAreOrderedByCountThenName() {
+        createQuestion(Set.of("page-c", "page-b"));
+        createQuestion(Set.of("page-c"));
+        createQuestion(Set.of("page-a"));
+
+        // Walk every page of two; other tests' tags may sit in between
+        List<String> names = new ArrayList<>();
+        Page<TagDto> page = tagLeaderboard.popular(TagLeaderboard.Window.WEEK, 0, 2);
+        long total = page.getTotalElements();
+        while (!page.isEmpty()) {
+            assertEquals(total, page.getTotalElements());
+            page.getContent().forEach(tag -> names.add(tag.getName()));
+            page = tagLeaderboard.popular(TagLeaderboard.Window.WEEK, page.getNumber() + 1, 2);
+        }
+        assertEquals(total, names.size());
+        assertEquals(List.of("page-c", "page-a", "page-b"),
+                names.stream().filter(name -> name.startsWith("page-")).toList());
+        assertNull(tagLeaderboard.popular(TagLeaderboard.Window.ALL, 0, 1).getContent().get(0)
+                .getRecentQuestionCount());
+    }
+
+    @Test
+    void searchMatchesPrefixesAndInfixesByUsage() {
+        createQuestion(Set.of("ac-react", "ac-react-hooks"));
+        createQuestion(Set.of("ac-react-hooks"));
+        createQuestion(Set.of("ac-preact"));
+
+        assertEquals(List.of("ac-react-hooks", "ac-preact", "ac-react"), searchNames("ac-"));
+        // Exact name first, then prefix matches, then names containing the query
+        assertEquals(List.of("ac-react", "ac-react-hooks"), searchNames("AC-React"));
+        assertEquals(List.of("ac-react-hooks", "ac-preact", "ac-react"), searchNames("react"));
+        assertEquals(List.of("ac-react-hooks"), searchNames("hook"));
+        assertEquals(List.of("ac-react-hooks"), tagLeaderboard.search("ac-", 1).stream()
+                .map(TagSuggestionDto::getName).toList());
+        assertEquals(List.of(), searchNames("zzzz"));
+
+        // New tags are searchable as soon as the question commits
+        createQuestion(Set.of("ac-solid"));
+        assertEquals(List.of("ac-solid"), searchNames("solid"));
+        assertEquals(1, tagLeaderboard.search("ac-solid", 10).get(0).getQuestionCount());
+    }
+
+    @Test
+    void reconcilerRepairsDriftedCounts() {
+        // Other tests on the shared database write rows directly; settle those first
+        counterReconciler.reconcile("tags.question_count");
+        createQuestion(Set.of("drift"));
+        jdbcTemplate.update("UPDATE tags SET question_count = 7 WHERE name = 'drift'");
+
+        assertEquals(1, counterReconciler.reconcile("tags.question_count"));
+        assertEquals(1, storedCount("drift"));
+    }
+
+    private Map<String, Integer> ranked(TagLeaderboard.Window window, String prefix) {
+        Page<TagDto> page = tagLeaderboard.popular(window, 0, 100);
+        return page.getContent().stream()
+                .filter(tag -> tag.getName().startsWith(prefix))
+                .collect(Collectors.toMap(TagDto::getName, tag -> window == TagLeaderboard.Window.ALL
+                        ? tag.getQuestionCount()
+                        : tag.getRecentQuestionCount()));
+    }
+
+    private List<String> searchNames(String query) {
+        return tagLeaderboard.search(query, 10).stream()
+                .map(TagSuggestionDto::getName)
+                .filter(name -> name.startsWith("ac-"))
+                .toList();
+    }
+
+    private int storedCount(String name) {
+        return tagRepository.findByName(name).orElseThrow().getQuestionCount();
+    }
+
+}
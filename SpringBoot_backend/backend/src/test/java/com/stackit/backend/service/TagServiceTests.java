@@ -0,0 +1,111 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.QuestionDto;
+import com.stackit.backend.dto.request.CreateQuestionRequest;
+import com.stackit.backend.entity.Tag;
+import com.stackit.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tags are resolved in bulk, and writers racing to introduce the same new
+ * tags share one row per name instead of failing on the unique constraint.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tag_service_tests",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.stackit.backend=WARN",
+        "moderation.api.enabled=false" })
+@ActiveProfiles("h2")
+class TagServiceTests {
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void resolvesExistingAndNewTagsTogether() {
+        Map<String, Long> first = ids(tagService.resolveTags(Arrays.asList("java", " bulk-new ", "", null, "java")));
+        assertEquals(Set.of("java", "bulk-new"), first.keySet());
+
+        Map<String, Long> second = ids(tagService.resolveTags(List.of("bulk-new", "java", "bulk-other")));
+        assertEquals(first.get("java"), second.get("java"));
+        assertEquals(first.get("bulk-new"), second.get("bulk-new"));
+        assertEquals(0, tagService.resolveTags(List.of()).size());
+    }
+
+    @Test
+    void concurrentQuestionsShareNewTags() throws Exception {
+        Long adminId = userRepository.findByUsername("admin").orElseThrow().getId();
+        int writers = 16;
+        int questionsPerWriter = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<QuestionDto>>> results = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            results.add(pool.submit(() -> {
+                start.await();
+                List<QuestionDto> created = new ArrayList<>();
+                for (int i = 0; i < questionsPerWriter; i++) {
+                    // Every writer introduces overlapping names from a small pool at the same time
+                    Set<String> tags = Set.of("race-" + (i % 5), "race-" + ((writer + i) % 7 + 5), "race-shared");
+                    created.add(questionService.createQuestion(
+                            new CreateQuestionRequest("Race question " + writer + "-" + i, "Body", tags, null),
+                            adminId));
+                }
+                return created;
+            }));
+        }
+        start.countDown();
+        List<QuestionDto> created = new ArrayList<>();
+        for (Future<List<QuestionDto>> result : results) {
+            created.addAll(result.get());
+        }
+        pool.shutdown();
+
+        assertEquals(writers * questionsPerWriter, created.size());
+        created.forEach(question -> assertEquals(3, question.getTags().size()));
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT name, COUNT(*) AS copies FROM tags WHERE name LIKE 'race-%' GROUP BY name");
+        assertEquals(13, rows.size());
+        rows.forEach(row -> assertEquals(1, ((Number) row.get("copies")).intValue(), row.get("name") + " duplicated"));
+        assertEquals(writers * questionsPerWriter, jdbcTemplate.queryForObject(
+                "SELECT question_count FROM tags WHERE name = 'race-shared'", Integer.class));
+        Set<String> counted = new HashSet<>(jdbcTemplate.queryForList("SELECT t.name FROM tags t "
+                + "WHERE t.name LIKE 'race-%' AND t.question_count = "
+                + "(SELECT COUNT(*) FROM question_tags qt WHERE qt.tag_id = t.id)", String.class));
+        assertTrue(counted.containsAll(rows.stream().map(row -> (String) row.get("name")).toList()));
+    }
+
+    private Map<String, Long> ids(Set<Tag> tags) {
+        return tags.stream().collect(Collectors.toMap(Tag::getName, Tag::getId));
+    }
+}
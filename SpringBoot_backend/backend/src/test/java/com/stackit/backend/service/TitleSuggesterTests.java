@@ -0,0 +1,88 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.QuestionDto;
+import com.stackit.backend.dto.QuestionSuggestionDto;
+import com.stackit.backend.dto.request.CreateQuestionRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Title suggestions match prefixes and near-misses and follow question writes
+ * immediately. Lookup latency is measured in LookupLatencyBenchmarkTests.
+ */
+class TitleSuggesterTests extends H2ServiceTestBase {
+
+    @Autowired
+    private TitleSuggester titleSuggester;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        for (int i = 0; i < 500 && !titleSuggester.isReady(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(titleSuggester.isReady());
+    }
+
+    @Test
+    void matchesPrefixesAndTypos() {
+        QuestionDto popular = createQuestion("Narwhal migration patterns");
+        QuestionDto other = createQuestion("Narwhal tusk growth");
+        questionService.voteQuestion(popular.getId(), adminId, 1);
+        titleSuggester.reload();
+
+        assertEquals(List.of(popular.getId(), other.getId()), suggest("narw"));
+        assertEquals(List.of(other.getId(), popular.getId()), suggest("narwhal tu"));
+        // One edit away in a word of four or more letters
+        assertEquals(List.of(other.getId(), popular.getId()), suggest("narwal tusk "));
+        assertEquals(List.of(popular.getId()), suggest("migartion"));
+        assertEquals(List.of(), suggest("xyzzy"));
+    }
+
+    @Test
+    void followsWritesBeforeAndAfterRebuild() {
+        QuestionDto question = createQuestion("Capybara habitat question");
+        assertEquals(List.of(question.getId()), suggest("capyb"));
+
+        transactionTemplate.executeWithoutResult(status -> questionService.updateQuestion(question.getId(),
+                adminId, new CreateQuestionRequest("Wombat habitat question", "Body", Set.of("misc"), null)));
+        assertEquals(List.of(), suggest("capyb"));
+        assertEquals(List.of(question.getId()), suggest("wombat"));
+
+        titleSuggester.rebuild();
+        assertEquals(0, titleSuggester.getStats().get("pendingChanges"));
+        assertEquals(List.of(question.getId()), suggest("womb"));
+
+        questionService.deleteQuestion(question.getId(), adminId);
+        assertEquals(List.of(), suggest("womb"));
+    }
+
+    @Test
+    void waitsForEnoughChangesBeforeRebuilding() {
+        titleSuggester.rebuild();
+        QuestionDto question = createQuestion("Okapi grazing question");
+        questionService.voteQuestion(question.getId(), adminId, 1);
+        // The vote is left to the periodic reload
+        assertEquals(1, titleSuggester.getStats().get("pendingChanges"));
+
+        // One fresh change is below both the count and the age threshold
+        titleSuggester.refresh();
+        assertEquals(1, titleSuggester.getStats().get("pendingChanges"));
+        assertEquals(List.of(question.getId()), suggest("okap"));
+    }
+
+    private List<Long> suggest(String query) {
+        return titleSuggester.suggest(query, 8).stream().map(QuestionSuggestionDto::getId).toList();
+    }
+
+}
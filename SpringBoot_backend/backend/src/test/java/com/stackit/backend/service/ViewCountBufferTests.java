@@ -0,0 +1,119 @@
+package com.stackit.backend.service;
+
+import com.stackit.backend.dto.QuestionDto;
+import com.stackit.backend.dto.QuestionThreadDto;
+import com.stackit.backend.dto.request.CreateQuestionRequest;
+import com.stackit.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Buffered views are written back exactly, even while flushes run concurrently
+ * with readers, and flushing them leaves cached threads in place.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:view_count_tests",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.stackit.backend=WARN",
+        "moderation.api.enabled=false",
+        "question.views.flush-interval-ms=3600000" })
+@ActiveProfiles("h2")
+class ViewCountBufferTests {
+
+    @Autowired
+    private ViewCountBuffer viewCountBuffer;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private QuestionThreadService questionThreadService;
+
+    @Autowired
+    private QuestionThreadCache threadCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentViewsAreCountedExactly() throws Exception {
+        Long userId = userRepository.findByUsername("admin").orElseThrow().getId();
+        QuestionDto question = questionService.createQuestion(
+                new CreateQuestionRequest("Popular question", "Everyone reads this one", Set.of("java"), null),
+                userId);
+
+        int readers = 8;
+        int viewsPerReader = 5000;
+        ExecutorService pool = Executors.newFixedThreadPool(readers + 1);
+        AtomicBoolean reading = new AtomicBoolean(true);
+        try {
+            Future<?> flusher = pool.submit(() -> {
+                while (reading.get()) {
+                    viewCountBuffer.flush();
+                }
+            });
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                futures.add(pool.submit(() -> {
+                    for (int j = 0; j < viewsPerReader; j++) {
+                        viewCountBuffer.recordView(question.getId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            reading.set(false);
+            flusher.get();
+        } finally {
+            pool.shutdownNow();
+        }
+        viewCountBuffer.flush();
+
+        Integer viewCount = jdbcTemplate.queryForObject("SELECT view_count FROM questions WHERE id = ?",
+                Integer.class, question.getId());
+        assertEquals(readers * viewsPerReader, viewCount);
+        assertEquals(0, viewCountBuffer.getPendingViews(question.getId()));
+    }
+
+    @Test
+    void flushesKeepCachedThreadsAndTheirViewCounts() {
+        Long userId = userRepository.findByUsername("admin").orElseThrow().getId();
+        QuestionDto question = questionService.createQuestion(
+                new CreateQuestionRequest("Cached question", "Read between flushes", Set.of("java"), null),
+                userId);
+
+        QuestionThreadDto cached = questionThreadService.getThread(question.getId());
+        for (int i = 1; i <= 3; i++) {
+            assertEquals(i, questionThreadService.getThreadForViewer(question.getId(), null).getQuestion()
+                    .getViewCount());
+            viewCountBuffer.flush();
+        }
+        assertSame(cached, questionThreadService.getThread(question.getId()));
+        assertEquals(4, questionThreadService.getThreadForViewer(question.getId(), null).getQuestion().getViewCount());
+
+        // A thread assembled after the flushes counts them once
+        threadCache.evictQuestion(question.getId());
+        viewCountBuffer.flush();
+        assertEquals(5, questionThreadService.getThreadForViewer(question.getId(), null).getQuestion().getViewCount());
+    }
+}